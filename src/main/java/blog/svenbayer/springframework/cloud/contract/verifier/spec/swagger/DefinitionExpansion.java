@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tracks the model definitions that are expanded while a single reference is resolved, so
+ * self-referencing or mutually recursive definitions are not expanded forever.
+ * <p>
+ * A definition is not expanded again if it is already being expanded, if the maximum
+ * expansion depth is reached or if the node budget of the reference is used up. Every
+ * definition that is being expanded while a reference is truncated is marked as
+ * truncated, so its value depends on where it is referenced and must not be cached.
+ * <p>
+ * A completely expanded definition is described by its {@link Subtree}. A cached value
+ * may only be reused where the subtree would be expanded completely again, which
+ * {@link #reuse(Subtree)} checks against the current depth, budget and path.
+ * <p>
+ * An expansion belongs to the thread that resolves the reference and is not thread-safe.
+ *
+ * @author Sven Bayer
+ */
+public final class DefinitionExpansion {
+
+	private final int maxDepth;
+
+	private final int maxDefinitions;
+
+	private final Deque<Frame> path = new ArrayDeque<>();
+
+	private final Set<String> truncated = new HashSet<>();
+
+	private int expandedDefinitions;
+
+	/**
+	 * Creates the expansion of a single reference.
+	 * @param maxDepth the maximum number of nested definitions
+	 * @param maxDefinitions the maximum number of expanded definitions
+	 */
+	public DefinitionExpansion(int maxDepth, int maxDefinitions) {
+		this.maxDepth = maxDepth;
+		this.maxDefinitions = maxDefinitions;
+	}
+
+	/**
+	 * Starts the expansion of the given definition.
+	 * @param definitionName the name of the model definition
+	 * @return true if the definition may be expanded or false if it has to be truncated
+	 */
+	public boolean enter(String definitionName) {
+		if (isExpanding(definitionName) || this.path.size() >= this.maxDepth
+				|| this.expandedDefinitions >= this.maxDefinitions) {
+			this.path.forEach(frame -> this.truncated.add(frame.name));
+			return false;
+		}
+		this.path.push(new Frame(definitionName, this.expandedDefinitions));
+		this.expandedDefinitions++;
+		return true;
+	}
+
+	/**
+	 * Finishes the expansion of the given definition.
+	 * @param definitionName the name of the model definition
+	 * @return the expanded subtree or null if the definition was truncated, so its value
+	 * depends on where it is referenced
+	 */
+	public Subtree leave(String definitionName) {
+		Frame frame = this.path.pop();
+		Subtree subtree = new Subtree(frame.height,
+				this.expandedDefinitions - frame.start, frame.definitions);
+		include(subtree);
+		return this.truncated.remove(definitionName) ? null : subtree;
+	}
+
+	/**
+	 * Reuses the cached value of a completely expanded definition, if expanding the
+	 * definition here would neither hit the maximum depth, the node budget nor a
+	 * definition that is being expanded. The reused definitions count towards the budget
+	 * as if they were expanded again.
+	 * @param subtree the subtree of the cached definition
+	 * @return true if the cached value equals the value expanded here
+	 */
+	public boolean reuse(Subtree subtree) {
+		if (this.path.size() + subtree.height > this.maxDepth
+				|| this.expandedDefinitions + subtree.size > this.maxDefinitions
+				|| subtree.definitions.stream().anyMatch(this::isExpanding)) {
+			return false;
+		}
+		this.expandedDefinitions += subtree.size;
+		include(subtree);
+		return true;
+	}
+
+	/**
+	 * Returns the number of definitions that are being expanded.
+	 * @return the current expansion depth
+	 */
+	public int getDepth() {
+		return this.path.size();
+	}
+
+	/**
+	 * Returns the number of definitions expanded so far.
+	 * @return the number of expanded definitions
+	 */
+	public int getExpandedDefinitions() {
+		return this.expandedDefinitions;
+	}
+
+	private boolean isExpanding(String definitionName) {
+		return this.path.stream().anyMatch(frame -> frame.name.equals(definitionName));
+	}
+
+	private void include(Subtree subtree) {
+		Frame parent = this.path.peek();
+		if (parent != null) {
+			parent.height = Math.max(parent.height, subtree.height + 1);
+			parent.definitions.addAll(subtree.definitions);
+		}
+	}
+
+	/**
+	 * The shape of a completely expanded definition.
+	 */
+	public static final class Subtree {
+
+		private final int height;
+
+		private final int size;
+
+		private final Set<String> definitions;
+
+		Subtree(int height, int size, Set<String> definitions) {
+			this.height = height;
+			this.size = size;
+			this.definitions = Collections.unmodifiableSet(new HashSet<>(definitions));
+		}
+
+		/**
+		 * Returns the number of nested definitions including the definition itself.
+		 * @return the depth of the subtree
+		 */
+		public int getHeight() {
+			return this.height;
+		}
+
+		/**
+		 * Returns the number of definitions expanded for the subtree.
+		 * @return the size of the subtree
+		 */
+		public int getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Returns the names of the definitions that are expanded in the subtree.
+		 * @return the expanded definitions
+		 */
+		public Set<String> getDefinitions() {
+			return this.definitions;
+		}
+
+	}
+
+	private static final class Frame {
+
+		private final String name;
+
+		private final int start;
+
+		private final Set<String> definitions = new HashSet<>();
+
+		private int height = 1;
+
+		private Frame(String name, int start) {
+			this.name = name;
+			this.start = start;
+			this.definitions.add(name);
+		}
+
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.util.AbstractCollection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+
+import org.springframework.cloud.contract.spec.Contract;
+
+/**
+ * The contracts of a Swagger document that are built one at a time while they are
+ * iterated. Ignored operations and operations that are not selected by the
+ * {@link OperationSelection} of the options are skipped without building their contract,
+ * but still count for the priority of the following contracts.
+ *
+ * @author Sven Bayer
+ */
+final class LazyContractCollection extends AbstractCollection<Contract> {
+
+	private final Swagger swagger;
+
+	private final SwaggerConversionContext context;
+
+	private final ContractFactory contractFactory;
+
+	private int size = -1;
+
+	/**
+	 * Creates the contracts of the given Swagger document.
+	 * @param swagger the Swagger document
+	 * @param context the conversion context of the Swagger document
+	 * @param contractFactory builds the contract of an operation
+	 */
+	LazyContractCollection(Swagger swagger, SwaggerConversionContext context,
+			ContractFactory contractFactory) {
+		this.swagger = swagger;
+		this.context = context;
+		this.contractFactory = contractFactory;
+	}
+
+	@Override
+	public Iterator<Contract> iterator() {
+		return iterator(new AtomicInteger(1));
+	}
+
+	/**
+	 * Iterates the contracts with priorities that continue from the given counter.
+	 * @param priority the index of the next path and operation
+	 * @return the contract iterator
+	 */
+	Iterator<Contract> iterator(AtomicInteger priority) {
+		return new ContractIterator(priority);
+	}
+
+	/**
+	 * Counts the selected operations that are not ignored without building their
+	 * contracts.
+	 * @return the number of contracts
+	 */
+	@Override
+	public int size() {
+		if (this.size < 0) {
+			OperationSelection selection = selection();
+			int count = 0;
+			for (Map.Entry<String, Path> path : paths().entrySet()) {
+				for (Map.Entry<HttpMethod, Operation> operationEntry : path.getValue()
+						.getOperationMap().entrySet()) {
+					if (SwaggerContractConverter.isConverted(selection, path.getKey(),
+							operationEntry)) {
+						count++;
+					}
+				}
+			}
+			this.size = count;
+		}
+		return this.size;
+	}
+
+	private OperationSelection selection() {
+		return this.context.getOptions().getSelection();
+	}
+
+	private Map<String, Path> paths() {
+		return this.swagger.getPaths() != null ? this.swagger.getPaths()
+				: Collections.emptyMap();
+	}
+
+	/**
+	 * Builds the contract of an operation.
+	 */
+	@FunctionalInterface
+	interface ContractFactory {
+
+		/**
+		 * Builds the contract of the given operation.
+		 * @param swagger the Swagger document of the operation
+		 * @param context the conversion context of the Swagger document
+		 * @param priority the index of the path and operation
+		 * @param pathLink the path url
+		 * @param operationEntry the operation (GET, POST, PUT, DELETE)
+		 * @return the Spring Cloud contract
+		 */
+		Contract create(Swagger swagger, SwaggerConversionContext context,
+				AtomicInteger priority, String pathLink,
+				Map.Entry<HttpMethod, Operation> operationEntry);
+
+	}
+
+	private final class ContractIterator implements Iterator<Contract> {
+
+		private final Iterator<Map.Entry<String, Path>> paths = paths().entrySet()
+				.iterator();
+
+		private final AtomicInteger priority;
+
+		private final OperationSelection selection = selection();
+
+		private String pathLink;
+
+		private Iterator<Map.Entry<HttpMethod, Operation>> operations = Collections
+				.emptyIterator();
+
+		private Map.Entry<HttpMethod, Operation> next;
+
+		private ContractIterator(AtomicInteger priority) {
+			this.priority = priority;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null) {
+				if (this.operations.hasNext()) {
+					Map.Entry<HttpMethod, Operation> operationEntry = this.operations
+							.next();
+					if (SwaggerContractConverter.isConverted(this.selection,
+							this.pathLink, operationEntry)) {
+						this.next = operationEntry;
+					}
+					else {
+						this.priority.incrementAndGet();
+					}
+				}
+				else if (this.paths.hasNext()) {
+					Map.Entry<String, Path> pathEntry = this.paths.next();
+					this.pathLink = pathEntry.getKey();
+					this.operations = pathEntry.getValue().getOperationMap().entrySet()
+							.iterator();
+				}
+				else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Contract next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<HttpMethod, Operation> operationEntry = this.next;
+			this.next = null;
+			LazyContractCollection collection = LazyContractCollection.this;
+			return collection.contractFactory.create(collection.swagger,
+					collection.context, this.priority, this.pathLink, operationEntry);
+		}
+
+	}
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Operation;
+
+/**
+ * Selects the operations of a Swagger file that are converted to contracts, by their
+ * tags, path, HTTP method and operation id. An operation is selected if it matches every
+ * criterion that is set.
+ * <p>
+ * The selection only needs the path and the operation, so the converter applies it before
+ * any parameter, body or x-ref file of an operation is resolved. Operations that are not
+ * selected still count for the priority of the following contracts, so the selected
+ * contracts are the same as in a conversion of the whole file.
+ *
+ * @author Sven Bayer
+ */
+public final class OperationSelection {
+
+	private static final OperationSelection ALL = builder().build();
+
+	private final Set<String> includedTags;
+
+	private final Set<String> excludedTags;
+
+	private final List<Pattern> paths;
+
+	private final Set<HttpMethod> methods;
+
+	private final List<Pattern> operationIds;
+
+	private OperationSelection(Builder builder) {
+		this.includedTags = Collections
+				.unmodifiableSet(new LinkedHashSet<>(builder.includedTags));
+		this.excludedTags = Collections
+				.unmodifiableSet(new LinkedHashSet<>(builder.excludedTags));
+		this.paths = Collections.unmodifiableList(new ArrayList<>(builder.paths));
+		this.methods = Collections.unmodifiableSet(EnumSet.copyOf(builder.methods));
+		this.operationIds = Collections
+				.unmodifiableList(new ArrayList<>(builder.operationIds));
+	}
+
+	/**
+	 * Returns the selection of all operations.
+	 * @return the selection of all operations
+	 */
+	public static OperationSelection all() {
+		return ALL;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Checks if all operations are selected.
+	 * @return true if no criterion is set
+	 */
+	public boolean isAll() {
+		return this.includedTags.isEmpty() && this.excludedTags.isEmpty()
+				&& this.paths.isEmpty() && this.methods.isEmpty()
+				&& this.operationIds.isEmpty();
+	}
+
+	/**
+	 * Checks if all operations of the given path may be selected, without looking at the
+	 * operations.
+	 * @param pathLink the path url
+	 * @return false if no operation of the path is selected
+	 */
+	public boolean isSelected(String pathLink) {
+		return this.paths.isEmpty() || this.paths.stream()
+				.anyMatch(path -> path.matcher(String.valueOf(pathLink)).matches());
+	}
+
+	/**
+	 * Checks if the given operation is selected.
+	 * @param pathLink the path url
+	 * @param method the HTTP method of the operation
+	 * @param operation the operation
+	 * @return true if a contract should be created for the operation
+	 */
+	public boolean isSelected(String pathLink, HttpMethod method, Operation operation) {
+		return isSelected(pathLink, method, operation.getTags(),
+				operation.getOperationId());
+	}
+
+	/**
+	 * Checks if the operation with the given fields is selected.
+	 * @param pathLink the path url
+	 * @param method the HTTP method of the operation
+	 * @param tags the tags of the operation or null
+	 * @param operationId the id of the operation or null
+	 * @return true if a contract should be created for the operation
+	 */
+	public boolean isSelected(String pathLink, HttpMethod method, Collection<String> tags,
+			String operationId) {
+		if (isAll()) {
+			return true;
+		}
+		Collection<String> operationTags = tags != null ? tags : Collections.emptyList();
+		if (!this.includedTags.isEmpty()
+				&& operationTags.stream().noneMatch(this.includedTags::contains)) {
+			return false;
+		}
+		if (operationTags.stream().anyMatch(this.excludedTags::contains)) {
+			return false;
+		}
+		if (!this.methods.isEmpty() && !this.methods.contains(method)) {
+			return false;
+		}
+		if (!this.operationIds.isEmpty() && (operationId == null || this.operationIds
+				.stream().noneMatch(id -> id.matcher(operationId).matches()))) {
+			return false;
+		}
+		return isSelected(pathLink);
+	}
+
+	/**
+	 * Describes the selection, so the conversion cache does not reuse contracts of a
+	 * different selection.
+	 * @return the description of the selection
+	 */
+	@Override
+	public String toString() {
+		return "OperationSelection{includedTags=" + this.includedTags + ", excludedTags="
+				+ this.excludedTags + ", paths=" + this.paths + ", methods="
+				+ this.methods + ", operationIds=" + this.operationIds + "}";
+	}
+
+	/**
+	 * Converts a path glob to a regular expression. A {@code *} matches any characters
+	 * within a path segment, {@code **} matches any characters across segments and
+	 * {@code ?} matches a single character.
+	 * @param glob the path glob
+	 * @return the pattern of the glob
+	 */
+	static Pattern compileGlob(String glob) {
+		StringBuilder regex = new StringBuilder();
+		int literalStart = 0;
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+			if (c != '*' && c != '?') {
+				continue;
+			}
+			if (literalStart < i) {
+				regex.append(Pattern.quote(glob.substring(literalStart, i)));
+			}
+			if (c == '?') {
+				regex.append("[^/]");
+			}
+			else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+				regex.append(".*");
+				i++;
+			}
+			else {
+				regex.append("[^/]*");
+			}
+			literalStart = i + 1;
+		}
+		if (literalStart < glob.length()) {
+			regex.append(Pattern.quote(glob.substring(literalStart)));
+		}
+		return Pattern.compile(regex.toString());
+	}
+
+	/**
+	 * Splits a comma separated list of values.
+	 * @param values the comma separated values
+	 * @return the values without surrounding whitespace
+	 */
+	static List<String> split(String values) {
+		return Arrays.stream(values.split(",")).map(String::trim)
+				.filter(value -> !value.isEmpty()).collect(Collectors.toList());
+	}
+
+	/**
+	 * Builds an {@link OperationSelection}.
+	 */
+	public static final class Builder {
+
+		private final Set<String> includedTags = new LinkedHashSet<>();
+
+		private final Set<String> excludedTags = new LinkedHashSet<>();
+
+		private final List<Pattern> paths = new ArrayList<>();
+
+		private final Set<HttpMethod> methods = EnumSet.noneOf(HttpMethod.class);
+
+		private final List<Pattern> operationIds = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Selects only operations with at least one of the given tags.
+		 * @param tags the tags
+		 * @return this builder
+		 */
+		public Builder includeTags(String... tags) {
+			this.includedTags.addAll(Arrays.asList(tags));
+			return this;
+		}
+
+		/**
+		 * Skips operations with any of the given tags, even if they have an included tag.
+		 * @param tags the tags
+		 * @return this builder
+		 */
+		public Builder excludeTags(String... tags) {
+			this.excludedTags.addAll(Arrays.asList(tags));
+			return this;
+		}
+
+		/**
+		 * Selects only operations whose path matches one of the given globs.
+		 * @param globs the path globs, like {@code /rockets/**}
+		 * @return this builder
+		 */
+		public Builder paths(String... globs) {
+			for (String glob : globs) {
+				this.paths.add(compileGlob(glob));
+			}
+			return this;
+		}
+
+		/**
+		 * Selects only operations with one of the given HTTP methods.
+		 * @param methods the names of the HTTP methods, ignoring their case
+		 * @return this builder
+		 */
+		public Builder methods(String... methods) {
+			for (String method : methods) {
+				try {
+					this.methods.add(HttpMethod.valueOf(method.toUpperCase(Locale.ROOT)));
+				}
+				catch (IllegalArgumentException e) {
+					throw new SwaggerContractConverterException(
+							"Unknown HTTP method '" + method + "'", e);
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Selects only operations whose id matches one of the given regular expressions.
+		 * @param patterns the patterns of the operation ids
+		 * @return this builder
+		 */
+		public Builder operationIds(String... patterns) {
+			for (String pattern : patterns) {
+				try {
+					this.operationIds.add(Pattern.compile(pattern));
+				}
+				catch (PatternSyntaxException e) {
+					throw new SwaggerContractConverterException(
+							"Invalid operation id pattern '" + pattern + "'", e);
+				}
+			}
+			return this;
+		}
+
+		public OperationSelection build() {
+			return new OperationSelection(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Detects the specification of a file by reading only a small prefix of it.
+ * <p>
+ * The sniffer looks for a top-level {@code swagger} or {@code openapi} key in YAML or
+ * JSON documents without decoding or parsing the whole file. If the prefix does not prove
+ * anything, because the file is larger than the prefix and the key was not found yet, the
+ * result is {@link Result#UNKNOWN} and the caller has to parse the file. Swagger 1.x
+ * files with a {@code swaggerVersion} key are also left to the parser, which converts
+ * them to Swagger 2.
+ *
+ * @author Sven Bayer
+ */
+public final class SpecificationSniffer {
+
+	/**
+	 * The default number of bytes that are read from the beginning of a file.
+	 */
+	public static final int DEFAULT_PREFIX_SIZE = 8 * 1024;
+
+	private static final byte[] SWAGGER_KEY = "swagger"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] OPENAPI_KEY = "openapi"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] SWAGGER_1_KEY = "swaggerVersion"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private final int prefixSize;
+
+	public SpecificationSniffer() {
+		this(DEFAULT_PREFIX_SIZE);
+	}
+
+	public SpecificationSniffer(int prefixSize) {
+		if (prefixSize < 1) {
+			throw new IllegalArgumentException("The prefix size must be positive");
+		}
+		this.prefixSize = prefixSize;
+	}
+
+	/**
+	 * The specification a file was detected as.
+	 */
+	public enum Result {
+
+		/**
+		 * The file has a top-level {@code swagger: "2.x"} field.
+		 */
+		SWAGGER_2,
+		/**
+		 * The file has a top-level {@code openapi: "3.x"} field.
+		 */
+		OPEN_API_3,
+		/**
+		 * The file is no Swagger or OpenAPI document.
+		 */
+		NONE,
+		/**
+		 * The prefix was not sufficient to detect the specification.
+		 */
+		UNKNOWN
+
+	}
+
+	/**
+	 * Detects the specification of the given file.
+	 * @param file the file to check
+	 * @return the detected specification
+	 */
+	public Result sniff(Path file) {
+		if (file == null || !Files.isRegularFile(file)) {
+			return Result.NONE;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			ByteBuffer buffer = ByteBuffer
+					.allocate((int) Math.min(size, this.prefixSize));
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// fill the prefix
+			}
+			buffer.flip();
+			return sniff(buffer, buffer.limit() >= size);
+		}
+		catch (IOException e) {
+			return Result.NONE;
+		}
+	}
+
+	/**
+	 * Detects the specification of the given bytes.
+	 * @param buffer the beginning of a file
+	 * @param complete true if the buffer contains the whole file
+	 * @return the detected specification
+	 */
+	Result sniff(ByteBuffer buffer, boolean complete) {
+		int start = skipByteOrderMark(buffer);
+		int first = skipWhitespace(buffer, start);
+		if (first >= buffer.limit()) {
+			return complete ? Result.NONE : Result.UNKNOWN;
+		}
+		if (buffer.get(first) == '{') {
+			return sniffJson(buffer, first + 1, complete);
+		}
+		return sniffYaml(buffer, start, complete);
+	}
+
+	/**
+	 * Looks for the specification key in the root object of a Json document.
+	 */
+	private Result sniffJson(ByteBuffer buffer, int position, boolean complete) {
+		Result inconclusive = complete ? Result.NONE : Result.UNKNOWN;
+		int depth = 1;
+		boolean expectKey = true;
+		int pos = position;
+		while (pos < buffer.limit()) {
+			byte current = buffer.get(pos);
+			if (current == '"') {
+				int end = skipString(buffer, pos);
+				if (end < 0) {
+					return inconclusive;
+				}
+				if (depth == 1 && expectKey) {
+					int colon = skipWhitespace(buffer, end);
+					if (colon >= buffer.limit()) {
+						return inconclusive;
+					}
+					if (buffer.get(colon) != ':') {
+						return Result.NONE;
+					}
+					Result result = matchKey(buffer, pos + 1, end - 1,
+							skipWhitespace(buffer, colon + 1));
+					if (result != null) {
+						return result;
+					}
+					expectKey = false;
+					end = colon + 1;
+				}
+				pos = end;
+				continue;
+			}
+			if (current == '{' || current == '[') {
+				depth++;
+			}
+			else if (current == '}' || current == ']') {
+				depth--;
+				if (depth == 0) {
+					return Result.NONE;
+				}
+			}
+			else if (depth == 1 && current == ',') {
+				expectKey = true;
+			}
+			else if (depth == 1 && expectKey && !isWhitespace(current)) {
+				// an unquoted key of flow-style YAML, let the parser decide
+				return Result.UNKNOWN;
+			}
+			pos++;
+		}
+		return inconclusive;
+	}
+
+	/**
+	 * Looks for the specification key in the top-level mapping of a YAML document.
+	 */
+	private Result sniffYaml(ByteBuffer buffer, int position, boolean complete) {
+		boolean firstKey = true;
+		int lineStart = position;
+		while (lineStart < buffer.limit()) {
+			int lineEnd = indexOf(buffer, (byte) '\n', lineStart);
+			if (lineEnd < 0) {
+				if (!complete) {
+					return Result.UNKNOWN;
+				}
+				lineEnd = buffer.limit();
+			}
+			if (lineEnd > lineStart && !isIgnoredYamlLine(buffer, lineStart)) {
+				int keyEnd = yamlKeyEnd(buffer, lineStart, lineEnd);
+				if (keyEnd < 0) {
+					// the root is no mapping, so it is no specification
+					return firstKey ? Result.NONE : Result.UNKNOWN;
+				}
+				firstKey = false;
+				int keyStart = lineStart;
+				int keyLast = trimInlineWhitespace(buffer, lineStart, keyEnd);
+				byte quote = buffer.get(lineStart);
+				if (quote == '"' || quote == '\'') {
+					keyStart++;
+					keyLast--;
+				}
+				Result result = matchKey(buffer, keyStart, keyLast,
+						skipInlineWhitespace(buffer, keyEnd + 1, lineEnd));
+				if (result != null) {
+					return result;
+				}
+			}
+			lineStart = lineEnd + 1;
+		}
+		return complete ? Result.NONE : Result.UNKNOWN;
+	}
+
+	/**
+	 * Compares the key with the specification keys and checks the major version of the
+	 * value. A value that does not start with a digit, like a value on the next line, is
+	 * left to the parser, and so is a Swagger 1.x file that the parser converts.
+	 * @return the result or null if the key is no specification key
+	 */
+	private Result matchKey(ByteBuffer buffer, int keyStart, int keyEnd, int valueStart) {
+		if (regionEquals(buffer, keyStart, keyEnd, SWAGGER_1_KEY)) {
+			return Result.UNKNOWN;
+		}
+		Result expected;
+		int expectedVersion;
+		if (regionEquals(buffer, keyStart, keyEnd, SWAGGER_KEY)) {
+			expected = Result.SWAGGER_2;
+			expectedVersion = '2';
+		}
+		else if (regionEquals(buffer, keyStart, keyEnd, OPENAPI_KEY)) {
+			expected = Result.OPEN_API_3;
+			expectedVersion = '3';
+		}
+		else {
+			return null;
+		}
+		int version = majorVersion(buffer, valueStart);
+		if (version < 0) {
+			return Result.UNKNOWN;
+		}
+		return version == expectedVersion ? expected : Result.NONE;
+	}
+
+	private int majorVersion(ByteBuffer buffer, int valueStart) {
+		int pos = valueStart;
+		if (pos < buffer.limit() && (buffer.get(pos) == '"' || buffer.get(pos) == '\'')) {
+			pos++;
+		}
+		if (pos >= buffer.limit() || buffer.get(pos) < '0' || buffer.get(pos) > '9') {
+			return -1;
+		}
+		return buffer.get(pos);
+	}
+
+	/**
+	 * Returns the position of the colon that ends the top-level key of the line.
+	 * @return the position of the colon or -1 if the line is no top-level key
+	 */
+	private int yamlKeyEnd(ByteBuffer buffer, int lineStart, int lineEnd) {
+		byte first = buffer.get(lineStart);
+		int pos = lineStart;
+		if (first == '"' || first == '\'') {
+			pos = indexOf(buffer, first, lineStart + 1);
+			if (pos < 0 || pos >= lineEnd) {
+				return -1;
+			}
+			pos = skipInlineWhitespace(buffer, pos + 1, lineEnd);
+			return pos < lineEnd && buffer.get(pos) == ':' ? pos : -1;
+		}
+		for (; pos < lineEnd; pos++) {
+			if (buffer.get(pos) == ':'
+					&& (pos + 1 == lineEnd || isWhitespace(buffer.get(pos + 1)))) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	private boolean isIgnoredYamlLine(ByteBuffer buffer, int lineStart) {
+		byte first = buffer.get(lineStart);
+		return isWhitespace(first) || first == '#' || first == '%'
+				|| first == '-' && lineStart + 2 < buffer.limit()
+						&& buffer.get(lineStart + 1) == '-'
+						&& buffer.get(lineStart + 2) == '-';
+	}
+
+	private int skipString(ByteBuffer buffer, int quote) {
+		for (int pos = quote + 1; pos < buffer.limit(); pos++) {
+			byte current = buffer.get(pos);
+			if (current == '\\') {
+				pos++;
+			}
+			else if (current == '"') {
+				return pos + 1;
+			}
+		}
+		return -1;
+	}
+
+	private int skipByteOrderMark(ByteBuffer buffer) {
+		if (buffer.limit() >= 3 && buffer.get(0) == (byte) 0xEF
+				&& buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+			return 3;
+		}
+		return 0;
+	}
+
+	private int skipWhitespace(ByteBuffer buffer, int position) {
+		int pos = position;
+		while (pos < buffer.limit() && isWhitespace(buffer.get(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private int skipInlineWhitespace(ByteBuffer buffer, int position, int lineEnd) {
+		int pos = position;
+		while (pos < lineEnd && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t')) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private int trimInlineWhitespace(ByteBuffer buffer, int start, int end) {
+		int pos = end;
+		while (pos > start
+				&& (buffer.get(pos - 1) == ' ' || buffer.get(pos - 1) == '\t')) {
+			pos--;
+		}
+		return pos;
+	}
+
+	private boolean isWhitespace(byte current) {
+		return current == ' ' || current == '\t' || current == '\n' || current == '\r';
+	}
+
+	private int indexOf(ByteBuffer buffer, byte value, int position) {
+		for (int pos = position; pos < buffer.limit(); pos++) {
+			if (buffer.get(pos) == value) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	private boolean regionEquals(ByteBuffer buffer, int start, int end, byte[] value) {
+		if (end - start != value.length) {
+			return false;
+		}
+		for (int i = 0; i < value.length; i++) {
+			if (buffer.get(start + i) != value[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
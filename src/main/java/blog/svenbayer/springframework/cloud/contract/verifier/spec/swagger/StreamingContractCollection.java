@@ -0,0 +1,299 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ReferencedFileCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ValidationCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Swagger;
+import io.swagger.parser.Swagger20Parser;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.parser.SwaggerResolver;
+
+import org.springframework.cloud.contract.spec.Contract;
+
+/**
+ * The contracts of a Swagger file that is read path by path while the contracts are
+ * iterated.
+ * <p>
+ * The definitions are parsed once. Every path item is then parsed as a Swagger document
+ * of its own that shares the definitions, converted and released before the next path
+ * item is read, so the memory scales with the definitions and the largest path item
+ * instead of the whole file. Definitions that only a path item brings along, like the
+ * ones of files it references, are only visible while that path item is converted. Path
+ * items without any selected operation that is not ignored are not parsed at all.
+ * <p>
+ * An iterator keeps the Swagger file open until it is exhausted. The file of an iterator
+ * that is abandoned earlier is closed once the iterator is garbage collected.
+ *
+ * @author Sven Bayer
+ */
+final class StreamingContractCollection extends AbstractCollection<Contract> {
+
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private static final String DEFINITIONS = "definitions";
+
+	private static final String TAGS = "tags";
+
+	private static final String OPERATION_ID = "operationId";
+
+	private static final String[] OPERATIONS = { "get", "put", "post", "delete", "patch",
+			"head", "options" };
+
+	private final File file;
+
+	private final SwaggerConverterOptions options;
+
+	private final ReferencedFileCache referencedFileCache;
+
+	private final ValidationCache validationCache;
+
+	private final StreamingSwaggerReader reader;
+
+	private final LazyContractCollection.ContractFactory contractFactory;
+
+	private ObjectNode skeleton;
+
+	private SwaggerConversionContext context;
+
+	private int size = -1;
+
+	/**
+	 * Creates the contracts of the given Swagger file.
+	 * @param file the Swagger file
+	 * @param options the converter options
+	 * @param referencedFileCache the cache of x-ref files
+	 * @param validationCache the cache of x-ref file validations
+	 * @param contractFactory builds the contract of an operation
+	 */
+	StreamingContractCollection(File file, SwaggerConverterOptions options,
+			ReferencedFileCache referencedFileCache, ValidationCache validationCache,
+			LazyContractCollection.ContractFactory contractFactory) {
+		this.file = file;
+		this.options = options;
+		this.referencedFileCache = referencedFileCache;
+		this.validationCache = validationCache;
+		this.reader = new StreamingSwaggerReader(file);
+		this.contractFactory = contractFactory;
+	}
+
+	@Override
+	public Iterator<Contract> iterator() {
+		return new ContractIterator();
+	}
+
+	/**
+	 * Counts the selected operations that are not ignored. Unless an iterator was
+	 * exhausted before, this reads the whole Swagger file once more, without parsing or
+	 * converting its path items. The count is kept for later calls.
+	 * @return the number of contracts
+	 */
+	@Override
+	public int size() {
+		if (this.size < 0) {
+			int count = 0;
+			try (StreamingSwaggerReader.PathIterator paths = this.reader.readPaths()) {
+				while (paths.hasNext()) {
+					Map.Entry<String, JsonNode> pathEntry = paths.next();
+					count += countConverted(pathEntry.getKey(), pathEntry.getValue());
+				}
+			}
+			this.size = count;
+		}
+		return this.size;
+	}
+
+	/**
+	 * Counts the operations of a path item that are converted, without parsing it.
+	 * @param pathLink the path url
+	 * @param pathItem the path item
+	 * @return the number of selected operations that are not ignored
+	 */
+	private int countConverted(String pathLink, JsonNode pathItem) {
+		OperationSelection selection = this.options.getSelection();
+		if (!selection.isSelected(pathLink)) {
+			return 0;
+		}
+		int count = 0;
+		for (String method : OPERATIONS) {
+			JsonNode operation = pathItem.get(method);
+			if (operation != null && !isIgnored(operation)
+					&& selection.isSelected(pathLink,
+							HttpMethod.valueOf(method.toUpperCase(Locale.ROOT)),
+							tags(operation), operation.path(OPERATION_ID).textValue())) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private int countOperations(JsonNode pathItem) {
+		int count = 0;
+		for (String method : OPERATIONS) {
+			if (pathItem.has(method)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private boolean isIgnored(JsonNode operation) {
+		JsonNode ignore = operation.get(SwaggerFields.X_IGNORE.field());
+		return ignore != null && ignore.booleanValue();
+	}
+
+	private List<String> tags(JsonNode operation) {
+		List<String> tags = new ArrayList<>();
+		operation.path(TAGS).forEach(tag -> tags.add(tag.asText()));
+		return tags;
+	}
+
+	/**
+	 * Parses the given path item as Swagger document that shares the definitions of the
+	 * Swagger file.
+	 * @param pathLink the path url
+	 * @param pathItem the path item
+	 * @return the Swagger document with the single path and the context to convert it
+	 */
+	private Map.Entry<Swagger, SwaggerConversionContext> parsePath(String pathLink,
+			JsonNode pathItem) {
+		if (this.skeleton == null) {
+			ObjectNode skeleton = this.reader.readSkeleton();
+			Swagger definitionsDocument = parse(skeleton);
+			Map<String, Model> definitions = definitionsDocument.getDefinitions() != null
+					? definitionsDocument.getDefinitions() : new LinkedHashMap<>();
+			this.context = new SwaggerConversionContext(
+					this.file.getParentFile().toPath(), definitions, this.options,
+					this.referencedFileCache, this.validationCache);
+			skeleton.remove(DEFINITIONS);
+			this.skeleton = skeleton;
+		}
+		ObjectNode document = this.skeleton.objectNode();
+		document.setAll(this.skeleton);
+		document.putObject(StreamingSwaggerReader.PATHS).set(pathLink, pathItem);
+		Swagger swagger = parse(document);
+		SwaggerConversionContext pathContext = this.context;
+		Map<String, Model> pathDefinitions = swagger.getDefinitions();
+		if (pathDefinitions != null && !this.context.getDefinitions().keySet()
+				.containsAll(pathDefinitions.keySet())) {
+			Map<String, Model> definitions = new LinkedHashMap<>(pathDefinitions);
+			definitions.putAll(this.context.getDefinitions());
+			pathContext = this.context.withDefinitions(definitions);
+		}
+		swagger.setDefinitions(pathContext.getDefinitions());
+		return new AbstractMap.SimpleImmutableEntry<>(swagger, pathContext);
+	}
+
+	/**
+	 * Parses the given document like {@link SwaggerParser#read(String)} parses a file.
+	 * The document is parsed from its Json text, since parsing the tree directly drops
+	 * the vendor extensions of parameters.
+	 * @param document the Swagger document
+	 * @return the resolved Swagger document
+	 */
+	private Swagger parse(ObjectNode document) {
+		try {
+			Swagger swagger = new Swagger20Parser().parse(document.toString());
+			return new SwaggerResolver(swagger, null, this.file.getPath()).resolve();
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException(
+					"Could not parse Swagger file: " + this.file, e);
+		}
+	}
+
+	private final class ContractIterator implements Iterator<Contract> {
+
+		private final StreamingSwaggerReader.PathIterator paths;
+
+		private final Cleaner.Cleanable cleanable;
+
+		private final AtomicInteger priority = new AtomicInteger(1);
+
+		private Iterator<Contract> contracts = Collections.emptyIterator();
+
+		private int count;
+
+		private ContractIterator() {
+			StreamingSwaggerReader.PathIterator paths = StreamingContractCollection.this.reader
+					.readPaths();
+			this.paths = paths;
+			this.cleanable = CLEANER.register(this, paths::close);
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while (!this.contracts.hasNext()) {
+					if (!this.paths.hasNext()) {
+						this.cleanable.clean();
+						StreamingContractCollection.this.size = this.count;
+						return false;
+					}
+					Map.Entry<String, JsonNode> pathEntry = this.paths.next();
+					if (countConverted(pathEntry.getKey(), pathEntry.getValue()) == 0) {
+						this.priority.addAndGet(countOperations(pathEntry.getValue()));
+						continue;
+					}
+					Map.Entry<Swagger, SwaggerConversionContext> path = parsePath(
+							pathEntry.getKey(), pathEntry.getValue());
+					this.contracts = new LazyContractCollection(path.getKey(),
+							path.getValue(),
+							StreamingContractCollection.this.contractFactory)
+									.iterator(this.priority);
+				}
+				return true;
+			}
+			catch (RuntimeException e) {
+				this.cleanable.clean();
+				throw e;
+			}
+		}
+
+		@Override
+		public Contract next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			this.count++;
+			return this.contracts.next();
+		}
+
+	}
+
+}
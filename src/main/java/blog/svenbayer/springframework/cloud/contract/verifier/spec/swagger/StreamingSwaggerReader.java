@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Reads a Swagger file with a streaming parser, so only one path item is held in memory
+ * at a time.
+ *
+ * @author Sven Bayer
+ */
+final class StreamingSwaggerReader {
+
+	static final String PATHS = "paths";
+
+	private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+	private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+	private final File file;
+
+	private final ObjectMapper mapper;
+
+	/**
+	 * Creates a reader of the given Swagger file.
+	 * @param file the Json or Yaml Swagger file
+	 */
+	StreamingSwaggerReader(File file) {
+		this.file = file;
+		this.mapper = file.getName().endsWith(".json") ? JSON_MAPPER : YAML_MAPPER;
+	}
+
+	/**
+	 * Reads all top level fields of the Swagger file except its paths.
+	 * @return the Swagger document without paths
+	 */
+	ObjectNode readSkeleton() {
+		try (JsonParser parser = open()) {
+			ObjectNode skeleton = this.mapper.createObjectNode();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+				if (PATHS.equals(field)) {
+					parser.skipChildren();
+				}
+				else {
+					skeleton.set(field, parser.readValueAsTree());
+				}
+			}
+			return skeleton;
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException(
+					"Could not read Swagger file: " + this.file, e);
+		}
+	}
+
+	/**
+	 * Reads the path items of the Swagger file one after another.
+	 * @return the iterator of the path urls and their path items
+	 */
+	PathIterator readPaths() {
+		try {
+			return new PathIterator(open());
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException(
+					"Could not read Swagger file: " + this.file, e);
+		}
+	}
+
+	/**
+	 * Opens a parser that is positioned at the start of the Swagger document.
+	 */
+	private JsonParser open() throws IOException {
+		JsonParser parser = this.mapper.getFactory().createParser(this.file);
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			parser.close();
+			throw new SwaggerContractConverterException(
+					"Swagger file is not a Json or Yaml object: " + this.file);
+		}
+		return parser;
+	}
+
+	/**
+	 * Iterates the path items of a Swagger file and closes the file once all path items
+	 * are read.
+	 */
+	final class PathIterator implements Iterator<Map.Entry<String, JsonNode>>, Closeable {
+
+		private final JsonParser parser;
+
+		private boolean inPaths;
+
+		private Map.Entry<String, JsonNode> next;
+
+		private PathIterator(JsonParser parser) {
+			this.parser = parser;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.next == null && !this.parser.isClosed()) {
+				try {
+					this.next = readNext();
+				}
+				catch (IOException e) {
+					close();
+					throw new SwaggerContractConverterException("Could not read paths of "
+							+ "Swagger file: " + StreamingSwaggerReader.this.file, e);
+				}
+				if (this.next == null) {
+					close();
+				}
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public Map.Entry<String, JsonNode> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<String, JsonNode> pathItem = this.next;
+			this.next = null;
+			return pathItem;
+		}
+
+		private Map.Entry<String, JsonNode> readNext() throws IOException {
+			while (!this.inPaths) {
+				if (this.parser.nextToken() != JsonToken.FIELD_NAME) {
+					return null;
+				}
+				String field = this.parser.getCurrentName();
+				JsonToken value = this.parser.nextToken();
+				if (PATHS.equals(field) && value == JsonToken.START_OBJECT) {
+					this.inPaths = true;
+				}
+				else {
+					this.parser.skipChildren();
+				}
+			}
+			if (this.parser.nextToken() != JsonToken.FIELD_NAME) {
+				return null;
+			}
+			String pathLink = this.parser.getCurrentName();
+			this.parser.nextToken();
+			JsonNode pathItem = this.parser.readValueAsTree();
+			return new AbstractMap.SimpleImmutableEntry<>(pathLink, pathItem);
+		}
+
+		@Override
+		public void close() {
+			try {
+				this.parser.close();
+			}
+			catch (IOException ignore) {
+				// nothing left to read
+			}
+		}
+
+	}
+
+}
@@ -17,20 +17,35 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.ContractNameBuilder;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.DslValueBuilder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.PathTemplate;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.RequestBodyParamBuilder;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.ResponseBodyBuilder;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.ResponseHeaderValueBuilder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ConversionCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.PatternCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ReferencedFileCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ValidationCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.SwaggerDocumentCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ContractSnapshot;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ParameterSnapshot;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields;
-import groovy.lang.Closure;
 import io.swagger.models.HttpMethod;
 import io.swagger.models.Operation;
 import io.swagger.models.Response;
@@ -43,13 +58,12 @@ import io.swagger.models.parameters.PathParameter;
 import io.swagger.models.parameters.QueryParameter;
 import io.swagger.parser.SwaggerParser;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.contract.spec.Contract;
 import org.springframework.cloud.contract.spec.ContractConverter;
 import org.springframework.cloud.contract.spec.internal.DslProperty;
-import org.springframework.cloud.contract.spec.internal.Headers;
-import org.springframework.cloud.contract.spec.internal.QueryParameters;
-import org.springframework.cloud.contract.spec.internal.Request;
 
 /**
  * Converts a Swagger contract to a Spring Cloud contract.
@@ -58,6 +72,8 @@ import org.springframework.cloud.contract.spec.internal.Request;
  */
 public final class SwaggerContractConverter implements ContractConverter<Swagger> {
 
+	private static final Log LOG = LogFactory.getLog(SwaggerContractConverter.class);
+
 	private static final String TAG_SEP = "_";
 
 	private final ResponseHeaderValueBuilder responseHeaderValueBuilder = new ResponseHeaderValueBuilder();
@@ -66,19 +82,84 @@ public final class SwaggerContractConverter implements ContractConverter<Swagger
 
 	private final ResponseBodyBuilder responseBodyBuilder = new ResponseBodyBuilder();
 
-	private final DslValueBuilder dslValueBuilder = new DslValueBuilder();
+	private final PatternCache patternCache = new PatternCache();
+
+	private final DslValueBuilder dslValueBuilder = new DslValueBuilder(
+			this.patternCache);
 
 	private final ContractNameBuilder contractNameBuilder = new ContractNameBuilder();
 
+	private final SwaggerDocumentCache documentCache = new SwaggerDocumentCache();
+
+	private final ReferencedFileCache referencedFileCache;
+
+	private final SpecificationSniffer specificationSniffer = new SpecificationSniffer();
+
+	private final SwaggerConverterOptions options;
+
+	private final ConversionCache conversionCache;
+
+	private final ValidationCache validationCache;
+
+	private final boolean lazyContracts;
+
+	private final boolean streaming;
+
+	private final boolean parallel;
+
 	/**
-	 * Checks if the given file is a Swagger file.
+	 * Creates a converter with the options of the system properties.
+	 */
+	public SwaggerContractConverter() {
+		this(SwaggerConverterOptions.fromSystemProperties());
+	}
+
+	/**
+	 * Creates a converter with the given options.
+	 * @param options the converter options
+	 */
+	public SwaggerContractConverter(SwaggerConverterOptions options) {
+		this.options = options;
+		this.referencedFileCache = new ReferencedFileCache(
+				options.getReferenceCacheMaxSize());
+		this.conversionCache = options.isConversionCacheEnabled()
+				? new ConversionCache(options.getCacheDirectory(),
+						options.getCacheMaxSize(), options.getContractConfiguration())
+				: null;
+		this.validationCache = new ValidationCache(this.conversionCache);
+		this.lazyContracts = options.isLazyContracts() || options.isStreaming();
+		this.streaming = options.isStreaming();
+		this.parallel = options.isParallel();
+	}
+
+	/**
+	 * Checks if the given file is a Swagger file. Only files whose first bytes do not
+	 * already rule out a Swagger document are parsed, unless the conversion cache already
+	 * has the contracts of the file.
 	 * @param file the file to check
 	 * @return true if the file is a Swagger file
 	 */
 	@Override
 	public boolean isAccepted(File file) {
+		if (file == null) {
+			return false;
+		}
+		SpecificationSniffer.Result sniffed = this.specificationSniffer
+				.sniff(file.toPath());
+		if (sniffed != SpecificationSniffer.Result.SWAGGER_2
+				&& sniffed != SpecificationSniffer.Result.UNKNOWN) {
+			return false;
+		}
+		if (sniffed == SpecificationSniffer.Result.SWAGGER_2
+				&& this.conversionCache != null && this.conversionCache.contains(file)) {
+			return true;
+		}
+		if (this.streaming) {
+			return sniffed == SpecificationSniffer.Result.SWAGGER_2
+					|| isStreamedSwagger(file);
+		}
 		try {
-			Swagger swagger = new SwaggerParser().read(file.getPath());
+			Swagger swagger = this.documentCache.getOrLoad(file, this::parse);
 			return swagger != null;
 		}
 		catch (Exception ignore) {
@@ -87,45 +168,282 @@ public final class SwaggerContractConverter implements ContractConverter<Swagger
 	}
 
 	/**
-	 * Converts a Swagger file to Spring Cloud contracts.
+	 * Converts a Swagger file to Spring Cloud contracts. With lazy contracts, each
+	 * contract is only built while the returned collection is iterated and converted
+	 * contracts are not stored in the conversion cache. With streaming, the Swagger file
+	 * is also read path by path while iterating. Otherwise, the operations are converted
+	 * in parallel if enabled.
 	 * @param file the Swagger file
 	 * @return the Spring Cloud contracts
 	 */
 	@Override
 	public Collection<Contract> convertFrom(File file) {
-		Swagger swagger = new SwaggerParser().read(file.getPath());
+		try {
+			List<ContractSnapshot> snapshots = this.conversionCache != null
+					? this.conversionCache.lookup(file) : null;
+			if (snapshots == null && this.streaming) {
+				return new StreamingContractCollection(file, this.options,
+						this.referencedFileCache, this.validationCache,
+						this::createLazyContract);
+			}
+			if (snapshots == null && this.lazyContracts) {
+				return createLazyContracts(file);
+			}
+			if (snapshots == null) {
+				snapshots = createAndStoreSnapshots(file);
+			}
+			if (this.lazyContracts) {
+				return toLazyContracts(snapshots);
+			}
+			return snapshots.stream().map(ContractSnapshot::toContract)
+					.collect(Collectors.toList());
+		}
+		finally {
+			this.documentCache.evict(file);
+		}
+	}
+
+	/**
+	 * Converts a Swagger file to the plain data of its contracts, without building the
+	 * Spring Cloud contracts. The snapshots are always converted up front, even with lazy
+	 * or streamed contracts, and are shared with the conversion cache.
+	 * @param file the Swagger file
+	 * @return the snapshots of the Spring Cloud contracts
+	 */
+	List<ContractSnapshot> convertToSnapshots(File file) {
+		try {
+			List<ContractSnapshot> snapshots = this.conversionCache != null
+					? this.conversionCache.lookup(file) : null;
+			return snapshots != null ? snapshots : createAndStoreSnapshots(file);
+		}
+		finally {
+			this.documentCache.evict(file);
+		}
+	}
+
+	/**
+	 * Converts the operations of a Swagger file and stores them in the conversion cache
+	 * if it is enabled.
+	 * @param file the Swagger file
+	 * @return the snapshots of the Spring Cloud contracts
+	 */
+	private List<ContractSnapshot> createAndStoreSnapshots(File file) {
+		Swagger swagger = this.documentCache.getOrLoad(file, this::parse);
+		SwaggerConversionContext context = swagger != null ? createContext(file, swagger)
+				: null;
+		List<ContractSnapshot> snapshots = createSnapshots(file, swagger, context);
+		if (this.conversionCache != null) {
+			this.conversionCache.store(file, snapshots, context != null
+					? context.getReadFiles() : Collections.<Path>emptySet());
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Checks the version of a Swagger file without reading its paths.
+	 * @param file the file to check
+	 * @return true if the file is a Swagger 2 document
+	 */
+	private boolean isStreamedSwagger(File file) {
+		try {
+			return new StreamingSwaggerReader(file).readSkeleton().path("swagger")
+					.asText().startsWith("2");
+		}
+		catch (Exception ignore) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates the contracts of a Swagger file that are built while they are iterated.
+	 * @param file the Swagger file
+	 * @return the Spring Cloud contracts
+	 */
+	private Collection<Contract> createLazyContracts(File file) {
+		Swagger swagger = this.documentCache.getOrLoad(file, this::parse);
+		if (swagger == null) {
+			return Collections.emptyList();
+		}
+		return new LazyContractCollection(swagger, createContext(file, swagger),
+				this::createLazyContract);
+	}
+
+	/**
+	 * Builds the contract of an operation while the contracts are iterated.
+	 * @param swagger the Swagger document
+	 * @param context the conversion context
+	 * @param priority the index of the path and operation
+	 * @param pathLink the path url
+	 * @param operationEntry the operation (GET, POST, PUT, DELETE)
+	 * @return the Spring Cloud contract
+	 */
+	private Contract createLazyContract(Swagger swagger, SwaggerConversionContext context,
+			AtomicInteger priority, String pathLink,
+			Map.Entry<HttpMethod, Operation> operationEntry) {
+		return createContract(swagger, context, priority.getAndIncrement(), pathLink,
+				operationEntry).toContract();
+	}
+
+	/**
+	 * Creates the context of the conversion of the given Swagger file.
+	 * @param file the Swagger file
+	 * @param swagger the Swagger document
+	 * @return the conversion context
+	 */
+	private SwaggerConversionContext createContext(File file, Swagger swagger) {
+		return new SwaggerConversionContext(file.getParentFile().toPath(),
+				swagger.getDefinitions(), this.options, this.referencedFileCache,
+				this.validationCache);
+	}
+
+	/**
+	 * Creates the contracts of the given snapshots while they are iterated.
+	 * @param snapshots the contract snapshots
+	 * @return the Spring Cloud contracts
+	 */
+	private static Collection<Contract> toLazyContracts(
+			List<ContractSnapshot> snapshots) {
+		return new AbstractCollection<Contract>() {
+
+			@Override
+			public Iterator<Contract> iterator() {
+				Iterator<ContractSnapshot> iterator = snapshots.iterator();
+				return new Iterator<Contract>() {
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Contract next() {
+						return iterator.next().toContract();
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return snapshots.size();
+			}
+
+		};
+	}
+
+	/**
+	 * Converts the operations of a Swagger file that are not ignored. The priorities are
+	 * assigned in the order of the paths and operations before any contract is built, so
+	 * a parallel conversion creates the same contracts as a sequential one. Ignored and
+	 * unselected operations keep their priority, but none of their parameters, bodies or
+	 * x-ref files are resolved.
+	 * @param file the Swagger file
+	 * @param swagger the Swagger document or null if the file is no Swagger document
+	 * @param context the conversion context of the Swagger document
+	 * @return the snapshots of the Spring Cloud contracts
+	 */
+	private List<ContractSnapshot> createSnapshots(File file, Swagger swagger,
+			SwaggerConversionContext context) {
 		if (swagger == null || swagger.getPaths() == null) {
 			return Collections.emptyList();
 		}
-		SwaggerFileFolder.instance().setPathToSwaggerFile(file.getParentFile().toPath());
+		final OperationSelection selection = this.options.getSelection();
+		final List<OperationEntry> operations = new ArrayList<>();
 		final AtomicInteger priority = new AtomicInteger(1);
-		return swagger.getPaths().entrySet().stream().flatMap(pathEntry -> {
-			String pathLink = pathEntry.getKey();
-			return pathEntry.getValue().getOperationMap().entrySet().stream()
-					.map(operationEntry -> createContract(swagger, priority, pathLink,
-							operationEntry));
-		}).filter(contract -> !contract.isIgnored()).collect(Collectors.toList());
+		swagger.getPaths().forEach((pathLink, path) -> path.getOperationMap().entrySet()
+				.forEach(operationEntry -> {
+					int operationPriority = priority.getAndIncrement();
+					if (isConverted(selection, pathLink, operationEntry)) {
+						operations.add(new OperationEntry(operationPriority, pathLink,
+								operationEntry));
+					}
+				}));
+		Stream<OperationEntry> operationStream = this.parallel
+				? operations.parallelStream() : operations.stream();
+		List<ContractSnapshot> snapshots = operationStream
+				.map(operation -> createContract(swagger, context, operation.priority,
+						operation.pathLink, operation.operationEntry))
+				.collect(Collectors.toList());
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Converted Swagger file '" + file + "' with "
+					+ context.getDefinitionCache() + " and " + this.patternCache);
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Parses the Swagger file at the given location.
+	 * @param location the path of the Swagger file
+	 * @return the Swagger document or null if the file is not a Swagger document
+	 */
+	private Swagger parse(String location) {
+		return new SwaggerParser().read(location);
+	}
+
+	/**
+	 * Returns the cache that shares parsed documents between {@link #isAccepted(File)}
+	 * and {@link #convertFrom(File)}.
+	 * @return the document cache
+	 */
+	SwaggerDocumentCache getDocumentCache() {
+		return this.documentCache;
+	}
+
+	/**
+	 * Returns the cache of x-ref files that is shared by all conversions.
+	 * @return the referenced file cache
+	 */
+	ReferencedFileCache getReferencedFileCache() {
+		return this.referencedFileCache;
+	}
+
+	/**
+	 * Returns the cache of compiled parameter patterns that is shared by all conversions.
+	 * @return the pattern cache
+	 */
+	PatternCache getPatternCache() {
+		return this.patternCache;
+	}
+
+	/**
+	 * Returns the cache of x-ref file validations that is shared by all conversions.
+	 * @return the validation cache
+	 */
+	ValidationCache getValidationCache() {
+		return this.validationCache;
+	}
+
+	/**
+	 * Returns the persistent conversion cache.
+	 * @return the conversion cache or null if it is disabled
+	 */
+	ConversionCache getConversionCache() {
+		return this.conversionCache;
 	}
 
 	/**
 	 * Creates the Spring Cloud contract for the given path and operation of the Swagger
 	 * document.
 	 * @param swagger the Swagger document
+	 * @param context the conversion context
 	 * @param priority the index of the path and operation
 	 * @param pathLink the path url
 	 * @param operationEntry the operation (GET, POST, PUT, DELETE)
-	 * @return the Spring Cloud contract
+	 * @return the snapshot of the Spring Cloud contract
 	 */
-	private Contract createContract(Swagger swagger, AtomicInteger priority,
-			String pathLink, Map.Entry<HttpMethod, Operation> operationEntry) {
-		Contract contract = Contract.make(Closure.IDENTITY);
+	private ContractSnapshot createContract(Swagger swagger,
+			SwaggerConversionContext context, int priority, String pathLink,
+			Map.Entry<HttpMethod, Operation> operationEntry) {
+		ContractSnapshot contract = new ContractSnapshot();
+		PathTemplate pathTemplate = pathLink != null ? context.getPathTemplate(pathLink)
+				: null;
 
-		createMetaData(priority, pathLink, operationEntry, contract);
+		createMetaData(priority, pathTemplate, operationEntry, contract);
 
-		createRequest(swagger, pathLink, operationEntry, contract);
+		createRequest(swagger, context, pathTemplate, operationEntry, contract);
 
 		Operation operation = operationEntry.getValue();
-		createResponse(swagger, contract, operation);
+		createResponse(context, contract, operation);
 		// Async / Callback urls not supported yet async()
 		// No support for bodyMatchers
 		return contract;
@@ -135,124 +453,140 @@ public final class SwaggerContractConverter implements ContractConverter<Swagger
 	 * Sets meta data from a Swagger operation for a Spring Cloud contract, like name,
 	 * description, label, priority, ignored.
 	 * @param priority the index of the path and operation
-	 * @param pathLink the path url
+	 * @param pathTemplate the parsed path url
 	 * @param operationEntry the operation (GET, POST, PUT, DELETE)
 	 * @param contract the Spring Cloud contract to modify
 	 */
-	private void createMetaData(AtomicInteger priority, String pathLink,
-			Map.Entry<HttpMethod, Operation> operationEntry, Contract contract) {
+	private void createMetaData(int priority, PathTemplate pathTemplate,
+			Map.Entry<HttpMethod, Operation> operationEntry, ContractSnapshot contract) {
 		Operation operation = operationEntry.getValue();
 
 		String contractName = this.contractNameBuilder.createContractName(priority,
-				pathLink, operationEntry.getKey(), operation.getOperationId());
+				pathTemplate, operationEntry.getKey(), operation.getOperationId());
 		contract.setName(contractName);
 
 		if (operation.getDescription() != null) {
-			contract.description(operation.getDescription());
+			contract.setDescription(operation.getDescription());
 		}
 		if (operation.getTags() != null) {
 			contract.setLabel(String.join(TAG_SEP, operation.getTags()));
 		}
 
-		contract.setPriority(priority.getAndIncrement());
-		contract.setIgnored(operation.getVendorExtensions() != null
+		contract.setPriority(priority);
+		contract.setIgnored(isIgnored(operation));
+	}
+
+	/**
+	 * Checks if the operation is ignored by an {@code x-ignore: true} field.
+	 * @param operation the operation (GET, POST, PUT, DELETE)
+	 * @return true if no contract should be created for the operation
+	 */
+	static boolean isIgnored(Operation operation) {
+		return operation.getVendorExtensions() != null
 				&& operation.getVendorExtensions()
 						.get(SwaggerFields.X_IGNORE.field()) != null
 				&& (Boolean) operation.getVendorExtensions()
-						.get(SwaggerFields.X_IGNORE.field()));
+						.get(SwaggerFields.X_IGNORE.field());
+	}
+
+	/**
+	 * Checks if a contract is created for the operation, because it is neither ignored
+	 * nor left out by the operation selection.
+	 * @param selection the operation selection
+	 * @param pathLink the path url
+	 * @param operationEntry the operation (GET, POST, PUT, DELETE)
+	 * @return true if a contract should be created for the operation
+	 */
+	static boolean isConverted(OperationSelection selection, String pathLink,
+			Map.Entry<HttpMethod, Operation> operationEntry) {
+		return !isIgnored(operationEntry.getValue()) && selection.isSelected(pathLink,
+				operationEntry.getKey(), operationEntry.getValue());
 	}
 
 	/**
 	 * Sets the response data for the Spring Cloud contract for the given operation.
-	 * @param swagger the Swagger document
+	 * @param context the conversion context
 	 * @param contract the Spring Cloud contract
 	 * @param operation the operation (GET, POST, PUT, DELETE)
 	 */
-	private void createResponse(Swagger swagger, Contract contract, Operation operation) {
-		org.springframework.cloud.contract.spec.internal.Response response = new org.springframework.cloud.contract.spec.internal.Response();
-		contract.setResponse(response);
-
+	private void createResponse(SwaggerConversionContext context,
+			ContractSnapshot contract, Operation operation) {
 		Map.Entry<String, Response> responseEntry = operation.getResponses().entrySet()
 				.iterator().next();
 		String responseStatus = responseEntry.getKey();
-		response.status(Integer.parseInt(responseStatus));
-
-		response.headers(Closure.IDENTITY);
-		Headers responseHeaders = response.getHeaders();
+		contract.setStatus(Integer.parseInt(responseStatus));
 
 		if (responseEntry.getValue().getHeaders() != null) {
 			responseEntry.getValue().getHeaders().forEach((key, value) -> {
 				if (key != null) {
 					DslProperty serverValue = this.responseHeaderValueBuilder
-							.createDslResponseHeaderValue(key, value,
-									swagger.getDefinitions());
-					responseHeaders.header(key, serverValue);
+							.createDslResponseHeaderValue(key, value, context);
+					contract.getResponseHeaders().add(new ParameterSnapshot(key, null,
+							serverValue.getServerValue()));
 				}
 			});
 		}
 		if (operation.getProduces() != null) {
-			operation.getProduces().forEach(contentType -> {
-				if (contentType.equals("*/*")) {
-					responseHeaders.contentType("*/*");
-				}
-				else {
-					responseHeaders.contentType(contentType);
-				}
-			});
+			contract.getResponseContentTypes().addAll(operation.getProduces());
 		}
 
 		// Cookie parameters are not supported by Swagger 2.0 ?
 		if (responseEntry.getValue().getResponseSchema() != null) {
-			String bodyValue = this.responseBodyBuilder.createValueForResponseBody(
-					responseEntry.getValue(), swagger.getDefinitions());
-			response.body(bodyValue);
+			String bodyValue = this.responseBodyBuilder
+					.createValueForResponseBody(responseEntry.getValue(), context);
+			contract.setResponseBody(bodyValue);
 		}
 	}
 
 	/**
 	 * Sets the request data for the given operation.entry.
 	 * @param swagger the Swagger document
-	 * @param pathLink the path url
+	 * @param context the conversion context
+	 * @param pathTemplate the parsed path url
 	 * @param operationEntry the operation (GET, PUT, POST, DELETE)
 	 * @param contract the Spring Cloud contract
 	 */
-	private void createRequest(final Swagger swagger, final String pathLink,
-			final Map.Entry<HttpMethod, Operation> operationEntry, final Contract contract) {
+	private void createRequest(final Swagger swagger,
+			final SwaggerConversionContext context, final PathTemplate pathTemplate,
+			final Map.Entry<HttpMethod, Operation> operationEntry,
+			final ContractSnapshot contract) {
 		final var operation = operationEntry.getValue();
-		final var request = new Request();
-		contract.setRequest(request);
 
 		final var httpMethod = operationEntry.getKey();
 		if (httpMethod != null) {
-			request.method(httpMethod.name());
+			contract.setMethod(httpMethod.name());
 		}
-		if (pathLink != null) {
-			request.urlPath(swagger.getBasePath() + pathLink);
+		if (pathTemplate != null) {
+			final String basePath = String.valueOf(swagger.getBasePath());
+			if (CollectionUtils.isEmpty(operation.getParameters())
+					|| pathTemplate.getVariables().isEmpty()) {
+				contract.setUrlPath(basePath + pathTemplate.getPath());
+			}
+			else {
+				final Map<String, String> pathValues = new HashMap<>();
+				operation.getParameters().stream().filter(PathParameter.class::isInstance)
+						.map(PathParameter.class::cast).forEach(param -> pathValues
+								.putIfAbsent(param.getName(), extractExample(param)));
+				contract.setUrlPath(pathTemplate.expand(basePath, pathValues::get));
+			}
 			if (CollectionUtils.isNotEmpty(operation.getParameters())) {
-				operation.getParameters().stream()
-						.filter(PathParameter.class::isInstance)
-						.map(PathParameter.class::cast)
-						.forEach(param -> request
-								.urlPath(request.getUrlPath().getClientValue().toString()
-										.replace("{" + param.getName() + "}",
-												extractExample(param))));
-
-				final var queryParameters = new QueryParameters();
-				request.getUrlPath().setQueryParameters(queryParameters);
+
+				final List<ParameterSnapshot> queryParameters = new ArrayList<>();
+				contract.setQueryParameters(queryParameters);
 				operation.getParameters().stream()
 						.filter(QueryParameter.class::isInstance)
-						.map(AbstractSerializableParameter.class::cast)
-						.forEach(param -> {
+						.map(AbstractSerializableParameter.class::cast).forEach(param -> {
 							DslProperty<Object> value = this.dslValueBuilder
 									.createDslValueForParameter(param);
 							if (value != null) {
-								queryParameters.parameter(param.getName(), value);
+								queryParameters
+										.add(toParameterSnapshot(param.getName(), value));
 							}
 						});
 			}
 		}
 
-		createRequestHeaders(swagger, operation, request);
+		createRequestHeaders(context, operation, contract);
 	}
 
 	private String extractExample(final PathParameter parameter) {
@@ -264,27 +598,23 @@ public final class SwaggerContractConverter implements ContractConverter<Swagger
 
 	/**
 	 * Creates headers for the request.
-	 * @param swagger the Swagger document
+	 * @param context the conversion context
 	 * @param operation the operation (GET, PUT, POST, DELETE)
-	 * @param request the contract request
+	 * @param contract the Spring Cloud contract
 	 */
-	private void createRequestHeaders(Swagger swagger, Operation operation,
-			Request request) {
-		request.headers(Closure.IDENTITY);
-		Headers requestHeaders = request.getHeaders();
-
+	private void createRequestHeaders(SwaggerConversionContext context,
+			Operation operation, ContractSnapshot contract) {
 		if (operation.getParameters() != null) {
-			operation.getParameters()
-					.forEach(param -> createRequestHeaderBodyParameters(swagger, request,
-							requestHeaders, param));
+			operation.getParameters().forEach(
+					param -> createRequestHeaderBodyParameters(context, contract, param));
 		}
 		if (operation.getConsumes() != null) {
 			operation.getConsumes().forEach(contentType -> {
 				if (contentType.equals("*/*")) {
-					requestHeaders.contentType("");
+					contract.getRequestContentTypes().add("");
 				}
 				else {
-					requestHeaders.contentType(contentType);
+					contract.getRequestContentTypes().add(contentType);
 				}
 			});
 		}
@@ -292,32 +622,44 @@ public final class SwaggerContractConverter implements ContractConverter<Swagger
 
 	/**
 	 * Create the parameters for request header and body.
-	 * @param swagger the Swagger document
-	 * @param request the contract request
-	 * @param requestHeaders the contract headers
+	 * @param context the conversion context
+	 * @param contract the Spring Cloud contract
 	 * @param param the Swagger parameters
 	 */
-	private void createRequestHeaderBodyParameters(Swagger swagger, Request request,
-			Headers requestHeaders, Parameter param) {
+	private void createRequestHeaderBodyParameters(SwaggerConversionContext context,
+			ContractSnapshot contract, Parameter param) {
 		if (param instanceof HeaderParameter) {
 			HeaderParameter headerParameter = (HeaderParameter) param;
-			DslProperty clientValue = this.dslValueBuilder
+			DslProperty<Object> clientValue = this.dslValueBuilder
 					.createDslValueForParameter(headerParameter);
 			if (clientValue != null && headerParameter.getName() != null) {
-				requestHeaders.header(headerParameter.getName(), clientValue);
+				contract.getRequestHeaders()
+						.add(toParameterSnapshot(headerParameter.getName(), clientValue));
 			}
 		}
 		// Cookie parameters are not supported by Swagger 2.0
 		if (param instanceof BodyParameter) {
 			BodyParameter bodyParameter = (BodyParameter) param;
 			String value = this.requestBodyParamBuilder
-					.createValueForRequestBody(bodyParameter, swagger.getDefinitions());
+					.createValueForRequestBody(bodyParameter, context);
 			if (value != null) {
-				request.body(value);
+				contract.setRequestBody(value);
 			}
 		}
 	}
 
+	/**
+	 * Creates the snapshot of a parameter whose client value is a pattern.
+	 * @param name the parameter name
+	 * @param value the pattern and value of the parameter
+	 * @return the parameter snapshot
+	 */
+	private ParameterSnapshot toParameterSnapshot(String name,
+			DslProperty<Object> value) {
+		return new ParameterSnapshot(name, (Pattern) value.getClientValue(),
+				value.getServerValue());
+	}
+
 	/**
 	 * This is not supported!
 	 * @param contract the contract that will not be converted
@@ -328,4 +670,24 @@ public final class SwaggerContractConverter implements ContractConverter<Swagger
 		return new Swagger();
 	}
 
+	/**
+	 * An operation of a Swagger document with the priority of its contract.
+	 */
+	private static final class OperationEntry {
+
+		private final int priority;
+
+		private final String pathLink;
+
+		private final Map.Entry<HttpMethod, Operation> operationEntry;
+
+		private OperationEntry(int priority, String pathLink,
+				Map.Entry<HttpMethod, Operation> operationEntry) {
+			this.priority = priority;
+			this.pathLink = pathLink;
+			this.operationEntry = operationEntry;
+		}
+
+	}
+
 }
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.PathTemplate;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.DefinitionCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ReferencedFileCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ValidationCache;
+import io.swagger.models.Model;
+
+/**
+ * The state of the conversion of a single Swagger file that is passed to the builders and
+ * reference resolvers.
+ * <p>
+ * The folder, definitions and options of a context never change. Its thread-safe
+ * {@link DefinitionCache}, parsed paths and the files it read fill up while the Swagger
+ * file is converted.
+ * The caches of x-ref files and of their validations are only shared between the
+ * conversions of different Swagger files if the same instances are passed to the
+ * constructor, as the converters do. The shorter constructors and {@link #of(Path, Map)}
+ * create caches that only this context and its copies use.
+ * <p>
+ * While a reference is resolved, the builders and resolvers receive a copy of the context
+ * with the {@link DefinitionExpansion} of that reference, which shares all caches of the
+ * context. A copy with other definitions has a definition cache of its own.
+ *
+ * @author Sven Bayer
+ */
+public final class SwaggerConversionContext {
+
+	private final Path swaggerFolder;
+
+	private final Map<String, Model> definitions;
+
+	private final SwaggerConverterOptions options;
+
+	private final ReferencedFileCache referencedFileCache;
+
+	private final ValidationCache validationCache;
+
+	private final DefinitionCache definitionCache;
+
+	private final Map<String, PathTemplate> pathTemplates;
+
+	private final Set<Path> readFiles;
+
+	private final DefinitionExpansion definitionExpansion;
+
+	/**
+	 * Creates the context of the conversion of a Swagger file with caches of x-ref files
+	 * and of their validations that are not shared with other contexts.
+	 * @param swaggerFolder the folder of the Swagger file that x-ref files are relative
+	 * to
+	 * @param definitions the Swagger model definitions or null if there are none
+	 * @param options the converter options
+	 */
+	public SwaggerConversionContext(Path swaggerFolder, Map<String, Model> definitions,
+			SwaggerConverterOptions options) {
+		this(swaggerFolder, definitions, options,
+				new ReferencedFileCache(options.getReferenceCacheMaxSize()));
+	}
+
+	/**
+	 * Creates the context of the conversion of a Swagger file that reads x-ref files
+	 * through the given cache. The validations of x-ref files are cached for this context
+	 * only.
+	 * @param swaggerFolder the folder of the Swagger file that x-ref files are relative
+	 * to
+	 * @param definitions the Swagger model definitions or null if there are none
+	 * @param options the converter options
+	 * @param referencedFileCache the cache of x-ref files that is shared between
+	 * conversions
+	 */
+	public SwaggerConversionContext(Path swaggerFolder, Map<String, Model> definitions,
+			SwaggerConverterOptions options, ReferencedFileCache referencedFileCache) {
+		this(swaggerFolder, definitions, options, referencedFileCache,
+				new ValidationCache());
+	}
+
+	/**
+	 * Creates the context of the conversion of a Swagger file that reads and validates
+	 * x-ref files through the given caches.
+	 * @param swaggerFolder the folder of the Swagger file that x-ref files are relative
+	 * to
+	 * @param definitions the Swagger model definitions or null if there are none
+	 * @param options the converter options
+	 * @param referencedFileCache the cache of x-ref files that is shared between
+	 * conversions
+	 * @param validationCache the cache of x-ref file validations that is shared between
+	 * conversions
+	 */
+	public SwaggerConversionContext(Path swaggerFolder, Map<String, Model> definitions,
+			SwaggerConverterOptions options, ReferencedFileCache referencedFileCache,
+			ValidationCache validationCache) {
+		this.swaggerFolder = swaggerFolder;
+		this.definitions = definitions;
+		this.options = options;
+		this.referencedFileCache = referencedFileCache;
+		this.validationCache = validationCache;
+		this.definitionCache = new DefinitionCache();
+		this.pathTemplates = new ConcurrentHashMap<>();
+		this.readFiles = ConcurrentHashMap.newKeySet();
+		this.definitionExpansion = null;
+	}
+
+	private SwaggerConversionContext(SwaggerConversionContext context,
+			DefinitionExpansion definitionExpansion) {
+		this.swaggerFolder = context.swaggerFolder;
+		this.definitions = context.definitions;
+		this.options = context.options;
+		this.referencedFileCache = context.referencedFileCache;
+		this.validationCache = context.validationCache;
+		this.definitionCache = context.definitionCache;
+		this.pathTemplates = context.pathTemplates;
+		this.readFiles = context.readFiles;
+		this.definitionExpansion = definitionExpansion;
+	}
+
+	private SwaggerConversionContext(SwaggerConversionContext context,
+			Map<String, Model> definitions) {
+		this.swaggerFolder = context.swaggerFolder;
+		this.definitions = definitions;
+		this.options = context.options;
+		this.referencedFileCache = context.referencedFileCache;
+		this.validationCache = context.validationCache;
+		this.definitionCache = new DefinitionCache();
+		this.pathTemplates = context.pathTemplates;
+		this.readFiles = context.readFiles;
+		this.definitionExpansion = null;
+	}
+
+	/**
+	 * Creates the context of the conversion of a Swagger file with the default options
+	 * and caches that are not shared with other contexts.
+	 * @param swaggerFolder the folder of the Swagger file that x-ref files are relative
+	 * to
+	 * @param definitions the Swagger model definitions or null if there are none
+	 * @return the conversion context
+	 */
+	public static SwaggerConversionContext of(Path swaggerFolder,
+			Map<String, Model> definitions) {
+		return new SwaggerConversionContext(swaggerFolder, definitions,
+				SwaggerConverterOptions.defaults());
+	}
+
+	public Path getSwaggerFolder() {
+		return this.swaggerFolder;
+	}
+
+	/**
+	 * Returns the Swagger model definitions.
+	 * @return the definitions or null if the Swagger file has none
+	 */
+	public Map<String, Model> getDefinitions() {
+		return this.definitions;
+	}
+
+	public SwaggerConverterOptions getOptions() {
+		return this.options;
+	}
+
+	/**
+	 * Returns the cache of the x-ref files.
+	 * @return the referenced file cache
+	 */
+	public ReferencedFileCache getReferencedFileCache() {
+		return this.referencedFileCache;
+	}
+
+	/**
+	 * Returns the cache of the validations of x-ref files.
+	 * @return the validation cache
+	 */
+	public ValidationCache getValidationCache() {
+		return this.validationCache;
+	}
+
+	/**
+	 * Returns the cache of the resolved model definitions of the Swagger file.
+	 * @return the definition cache
+	 */
+	public DefinitionCache getDefinitionCache() {
+		return this.definitionCache;
+	}
+
+	/**
+	 * Returns the parsed path of the Swagger file, parsing it only once for all of its
+	 * operations.
+	 * @param pathLink the path url
+	 * @return the path template
+	 */
+	public PathTemplate getPathTemplate(String pathLink) {
+		return this.pathTemplates.computeIfAbsent(pathLink, PathTemplate::parse);
+	}
+
+	/**
+	 * Records a file that the conversion read besides the Swagger file, so the
+	 * conversion cache can tell when its contracts are outdated.
+	 * @param file the file that was read
+	 */
+	public void fileRead(Path file) {
+		this.readFiles.add(file);
+	}
+
+	/**
+	 * Returns the files that the conversion read besides the Swagger file so far.
+	 * @return the read files
+	 */
+	public Set<Path> getReadFiles() {
+		return this.readFiles;
+	}
+
+	/**
+	 * Returns the expansion of the reference that is being resolved.
+	 * @return the definition expansion or null if no reference is being resolved
+	 */
+	public DefinitionExpansion getDefinitionExpansion() {
+		return this.definitionExpansion;
+	}
+
+	/**
+	 * Returns a context with other model definitions that shares the caches of x-ref
+	 * files and parsed paths, but not the definition cache, since the same name may stand
+	 * for another definition.
+	 * @param definitions the Swagger model definitions
+	 * @return the context with the given definitions
+	 */
+	public SwaggerConversionContext withDefinitions(Map<String, Model> definitions) {
+		return new SwaggerConversionContext(this, definitions);
+	}
+
+	/**
+	 * Returns a context for resolving a reference. If no reference is being resolved yet,
+	 * the returned context starts a new {@link DefinitionExpansion} that is bounded by
+	 * the options of this context.
+	 * @return the context with a definition expansion
+	 */
+	public SwaggerConversionContext withDefinitionExpansion() {
+		if (this.definitionExpansion != null) {
+			return this;
+		}
+		return new SwaggerConversionContext(this,
+				new DefinitionExpansion(this.options.getMaxExpansionDepth(),
+						this.options.getMaxExpandedDefinitions()));
+	}
+
+}
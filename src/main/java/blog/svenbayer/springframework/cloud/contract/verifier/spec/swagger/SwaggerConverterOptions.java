@@ -0,0 +1,619 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.PropertyValueGenerator;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.ResponseHeaderValueBuilder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ReferencedFileCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.BodySerializationMode;
+import io.swagger.models.properties.Property;
+
+/**
+ * Options of the {@link SwaggerContractConverter}.
+ * <p>
+ * Spring Cloud Contract creates the converter with its default constructor, so the
+ * options are read from system properties with the prefix {@value #PROPERTY_PREFIX}. The
+ * defaults keep the behaviour of previous versions.
+ *
+ * @author Sven Bayer
+ */
+public final class SwaggerConverterOptions {
+
+	/**
+	 * The prefix of all system properties of the converter.
+	 */
+	public static final String PROPERTY_PREFIX = "spring.cloud.contract.swagger.";
+
+	/**
+	 * The directory of the persistent conversion cache.
+	 */
+	public static final String CACHE_DIRECTORY = PROPERTY_PREFIX + "cache.directory";
+
+	/**
+	 * The maximum size of the persistent conversion cache in bytes.
+	 */
+	public static final String CACHE_MAX_SIZE = PROPERTY_PREFIX + "cache.max-size";
+
+	/**
+	 * The default maximum size of the persistent conversion cache, 256 MB.
+	 */
+	public static final long DEFAULT_CACHE_MAX_SIZE = 256L * 1024 * 1024;
+
+	/**
+	 * The maximum size in bytes of the x-ref files that are kept in memory.
+	 */
+	public static final String REFERENCE_CACHE_MAX_SIZE = PROPERTY_PREFIX
+			+ "reference-cache.max-size";
+
+	/**
+	 * Whether the contracts are built lazily while they are iterated.
+	 */
+	public static final String LAZY_CONTRACTS = PROPERTY_PREFIX + "lazy-contracts";
+
+	/**
+	 * Whether the Swagger file is read path by path while the contracts are iterated.
+	 */
+	public static final String STREAMING = PROPERTY_PREFIX + "streaming";
+
+	/**
+	 * Whether the operations of a Swagger file are converted in parallel.
+	 */
+	public static final String PARALLEL = PROPERTY_PREFIX + "parallel";
+
+	/**
+	 * The maximum number of nested model definitions a reference is expanded to.
+	 */
+	public static final String MAX_EXPANSION_DEPTH = PROPERTY_PREFIX
+			+ "max-expansion-depth";
+
+	/**
+	 * The default maximum number of nested model definitions.
+	 */
+	public static final int DEFAULT_MAX_EXPANSION_DEPTH = 32;
+
+	/**
+	 * The maximum number of model definitions that are expanded for a single reference.
+	 */
+	public static final String MAX_EXPANDED_DEFINITIONS = PROPERTY_PREFIX
+			+ "max-expanded-definitions";
+
+	/**
+	 * The default maximum number of model definitions expanded for a single reference.
+	 */
+	public static final int DEFAULT_MAX_EXPANDED_DEFINITIONS = 10_000;
+
+	/**
+	 * How resolved Json bodies are written, compact, pretty or canonical.
+	 */
+	public static final String BODY_SERIALIZATION = PROPERTY_PREFIX
+			+ "body-serialization";
+
+	/**
+	 * The comma separated tags of the operations that are converted.
+	 */
+	public static final String INCLUDE_TAGS = PROPERTY_PREFIX + "selection.include-tags";
+
+	/**
+	 * The comma separated tags of the operations that are not converted.
+	 */
+	public static final String EXCLUDE_TAGS = PROPERTY_PREFIX + "selection.exclude-tags";
+
+	/**
+	 * The comma separated globs of the paths whose operations are converted.
+	 */
+	public static final String PATHS = PROPERTY_PREFIX + "selection.paths";
+
+	/**
+	 * The comma separated HTTP methods of the operations that are converted.
+	 */
+	public static final String METHODS = PROPERTY_PREFIX + "selection.methods";
+
+	/**
+	 * The comma separated patterns of the ids of the operations that are converted.
+	 */
+	public static final String OPERATION_IDS = PROPERTY_PREFIX
+			+ "selection.operation-ids";
+
+	private final Path cacheDirectory;
+
+	private final long cacheMaxSize;
+
+	private final long referenceCacheMaxSize;
+
+	private final boolean lazyContracts;
+
+	private final boolean streaming;
+
+	private final boolean parallel;
+
+	private final int maxExpansionDepth;
+
+	private final int maxExpandedDefinitions;
+
+	private final BodySerializationMode bodySerialization;
+
+	private final OperationSelection selection;
+
+	private final Map<Class<? extends Property>, PropertyValueGenerator> generators;
+
+	private final PropertyValueGenerator valueGenerator;
+
+	private SwaggerConverterOptions(Builder builder) {
+		this.cacheDirectory = builder.cacheDirectory;
+		this.cacheMaxSize = builder.cacheMaxSize;
+		this.referenceCacheMaxSize = builder.referenceCacheMaxSize;
+		this.lazyContracts = builder.lazyContracts;
+		this.streaming = builder.streaming;
+		this.parallel = builder.parallel;
+		this.maxExpansionDepth = builder.maxExpansionDepth;
+		this.maxExpandedDefinitions = builder.maxExpandedDefinitions;
+		this.bodySerialization = builder.bodySerialization;
+		this.selection = builder.selection;
+		this.generators = Collections
+				.unmodifiableMap(new LinkedHashMap<>(builder.generators));
+		this.valueGenerator = ResponseHeaderValueBuilder.valueGenerator(this.generators);
+	}
+
+	/**
+	 * Returns the default options.
+	 * @return the default options
+	 */
+	public static SwaggerConverterOptions defaults() {
+		return builder().build();
+	}
+
+	/**
+	 * Reads the options from the system properties.
+	 * @return the options
+	 */
+	public static SwaggerConverterOptions fromSystemProperties() {
+		return fromProperties(System.getProperties());
+	}
+
+	/**
+	 * Reads the options from the given properties.
+	 * @param properties the properties
+	 * @return the options
+	 */
+	public static SwaggerConverterOptions fromProperties(Properties properties) {
+		Builder builder = builder();
+		String cacheDirectory = properties.getProperty(CACHE_DIRECTORY);
+		if (cacheDirectory != null && !cacheDirectory.trim().isEmpty()) {
+			builder.cacheDirectory(Paths.get(cacheDirectory.trim()));
+		}
+		String cacheMaxSize = properties.getProperty(CACHE_MAX_SIZE);
+		if (cacheMaxSize != null) {
+			builder.cacheMaxSize(parseLong(CACHE_MAX_SIZE, cacheMaxSize));
+		}
+		String referenceCacheMaxSize = properties.getProperty(REFERENCE_CACHE_MAX_SIZE);
+		if (referenceCacheMaxSize != null) {
+			builder.referenceCacheMaxSize(
+					parseLong(REFERENCE_CACHE_MAX_SIZE, referenceCacheMaxSize));
+		}
+		String lazyContracts = properties.getProperty(LAZY_CONTRACTS);
+		if (lazyContracts != null) {
+			builder.lazyContracts(Boolean.parseBoolean(lazyContracts.trim()));
+		}
+		String streaming = properties.getProperty(STREAMING);
+		if (streaming != null) {
+			builder.streaming(Boolean.parseBoolean(streaming.trim()));
+		}
+		String parallel = properties.getProperty(PARALLEL);
+		if (parallel != null) {
+			builder.parallel(Boolean.parseBoolean(parallel.trim()));
+		}
+		String maxExpansionDepth = properties.getProperty(MAX_EXPANSION_DEPTH);
+		if (maxExpansionDepth != null) {
+			builder.maxExpansionDepth(parseInt(MAX_EXPANSION_DEPTH, maxExpansionDepth));
+		}
+		String maxExpandedDefinitions = properties.getProperty(MAX_EXPANDED_DEFINITIONS);
+		if (maxExpandedDefinitions != null) {
+			builder.maxExpandedDefinitions(
+					parseInt(MAX_EXPANDED_DEFINITIONS, maxExpandedDefinitions));
+		}
+		String bodySerialization = properties.getProperty(BODY_SERIALIZATION);
+		if (bodySerialization != null) {
+			builder.bodySerialization(BodySerializationMode.of(bodySerialization));
+		}
+		OperationSelection selection = selectionFromProperties(properties);
+		if (!selection.isAll()) {
+			builder.selection(selection);
+		}
+		return builder.build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private static OperationSelection selectionFromProperties(Properties properties) {
+		OperationSelection.Builder selection = OperationSelection.builder();
+		String includeTags = properties.getProperty(INCLUDE_TAGS);
+		if (includeTags != null) {
+			selection.includeTags(
+					OperationSelection.split(includeTags).toArray(new String[0]));
+		}
+		String excludeTags = properties.getProperty(EXCLUDE_TAGS);
+		if (excludeTags != null) {
+			selection.excludeTags(
+					OperationSelection.split(excludeTags).toArray(new String[0]));
+		}
+		String paths = properties.getProperty(PATHS);
+		if (paths != null) {
+			selection.paths(OperationSelection.split(paths).toArray(new String[0]));
+		}
+		String methods = properties.getProperty(METHODS);
+		if (methods != null) {
+			selection.methods(OperationSelection.split(methods).toArray(new String[0]));
+		}
+		String operationIds = properties.getProperty(OPERATION_IDS);
+		if (operationIds != null) {
+			selection.operationIds(
+					OperationSelection.split(operationIds).toArray(new String[0]));
+		}
+		return selection.build();
+	}
+
+	private static long parseLong(String property, String value) {
+		try {
+			return Long.parseLong(value.trim());
+		}
+		catch (NumberFormatException e) {
+			throw new SwaggerContractConverterException("The property '" + property
+					+ "' must be a number but was '" + value + "'", e);
+		}
+	}
+
+	private static int parseInt(String property, String value) {
+		long number = parseLong(property, value);
+		if (number > Integer.MAX_VALUE || number < Integer.MIN_VALUE) {
+			throw new SwaggerContractConverterException("The property '" + property
+					+ "' must be an int but was '" + value + "'");
+		}
+		return (int) number;
+	}
+
+	private static void requirePositive(String name, int value) {
+		if (value < 1) {
+			throw new SwaggerContractConverterException(
+					"The " + name + " must be positive but was " + value);
+		}
+	}
+
+	/**
+	 * Returns the directory of the persistent conversion cache.
+	 * @return the cache directory or null if the cache is disabled
+	 */
+	public Path getCacheDirectory() {
+		return this.cacheDirectory;
+	}
+
+	/**
+	 * Returns whether converted contracts are stored in the persistent conversion cache.
+	 * The cache is not used if a generator has no cache key, because its values could
+	 * change without a change of the configuration.
+	 * @return true if the cache directory is set and every generator has a cache key
+	 */
+	public boolean isConversionCacheEnabled() {
+		return this.cacheDirectory != null && this.generators.values().stream()
+				.allMatch(generator -> generator.cacheKey() != null);
+	}
+
+	public long getCacheMaxSize() {
+		return this.cacheMaxSize;
+	}
+
+	/**
+	 * Returns the maximum length of the contents of the x-ref files that are kept in
+	 * memory.
+	 * @return the maximum length in characters
+	 */
+	public long getReferenceCacheMaxSize() {
+		return this.referenceCacheMaxSize;
+	}
+
+	/**
+	 * Returns whether the contracts are built lazily while they are iterated.
+	 * @return true if the contracts are built on demand
+	 */
+	public boolean isLazyContracts() {
+		return this.lazyContracts;
+	}
+
+	/**
+	 * Returns whether the Swagger file is read path by path while the contracts are
+	 * iterated. Streaming contracts are always built lazily.
+	 * @return true if the Swagger file is streamed
+	 */
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+	/**
+	 * Returns whether the operations of a Swagger file are converted in parallel. Lazy
+	 * and streamed contracts are always built one after another.
+	 * @return true if the operations are converted in parallel
+	 */
+	public boolean isParallel() {
+		return this.parallel;
+	}
+
+	/**
+	 * Returns the maximum number of nested model definitions a reference is expanded to.
+	 * Deeper definitions are rendered as null or as an empty array.
+	 * @return the maximum expansion depth
+	 */
+	public int getMaxExpansionDepth() {
+		return this.maxExpansionDepth;
+	}
+
+	/**
+	 * Returns the maximum number of model definitions that are expanded for a single
+	 * reference. Further definitions are rendered as null or as an empty array.
+	 * @return the node budget of a reference
+	 */
+	public int getMaxExpandedDefinitions() {
+		return this.maxExpandedDefinitions;
+	}
+
+	/**
+	 * Returns how resolved Json bodies are written.
+	 * @return the body serialization mode
+	 */
+	public BodySerializationMode getBodySerialization() {
+		return this.bodySerialization;
+	}
+
+	/**
+	 * Returns the selection of the operations that are converted.
+	 * @return the operation selection
+	 */
+	public OperationSelection getSelection() {
+		return this.selection;
+	}
+
+	/**
+	 * Returns the generators of the values of custom property types.
+	 * @return the generators by property type
+	 */
+	public Map<Class<? extends Property>, PropertyValueGenerator> getGenerators() {
+		return this.generators;
+	}
+
+	/**
+	 * Returns the generator of property values that dispatches to the built-in generators
+	 * and the generators of custom property types by the class of a property.
+	 * @return the generator of property values
+	 */
+	public PropertyValueGenerator getValueGenerator() {
+		return this.valueGenerator;
+	}
+
+	/**
+	 * Describes the options that change the converted contracts, so the conversion cache
+	 * does not reuse contracts that were converted with different options. Generators are
+	 * described by their cache keys.
+	 * @return the configuration of the contracts
+	 */
+	public String getContractConfiguration() {
+		String configuration = MAX_EXPANSION_DEPTH + "=" + this.maxExpansionDepth + ","
+				+ MAX_EXPANDED_DEFINITIONS + "=" + this.maxExpandedDefinitions + ","
+				+ BODY_SERIALIZATION + "=" + this.bodySerialization;
+		if (!this.selection.isAll()) {
+			configuration += "," + this.selection;
+		}
+		if (!this.generators.isEmpty()) {
+			configuration += ",generators=" + this.generators.entrySet().stream()
+					.sorted(Comparator.comparing(entry -> entry.getKey().getName()))
+					.map(entry -> entry.getKey().getName() + ":"
+							+ entry.getValue().cacheKey())
+					.collect(Collectors.joining(";", "[", "]"));
+		}
+		return configuration;
+	}
+
+	/**
+	 * Builds {@link SwaggerConverterOptions}.
+	 */
+	public static final class Builder {
+
+		private Path cacheDirectory;
+
+		private long cacheMaxSize = DEFAULT_CACHE_MAX_SIZE;
+
+		private long referenceCacheMaxSize = ReferencedFileCache.DEFAULT_MAX_SIZE;
+
+		private boolean lazyContracts;
+
+		private boolean streaming;
+
+		private boolean parallel;
+
+		private int maxExpansionDepth = DEFAULT_MAX_EXPANSION_DEPTH;
+
+		private int maxExpandedDefinitions = DEFAULT_MAX_EXPANDED_DEFINITIONS;
+
+		private BodySerializationMode bodySerialization = BodySerializationMode.PRETTY;
+
+		private OperationSelection selection = OperationSelection.all();
+
+		private final Map<Class<? extends Property>, PropertyValueGenerator> generators = new LinkedHashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Enables the persistent conversion cache in the given directory.
+		 * @param cacheDirectory the cache directory or null to disable the cache
+		 * @return this builder
+		 */
+		public Builder cacheDirectory(Path cacheDirectory) {
+			this.cacheDirectory = cacheDirectory;
+			return this;
+		}
+
+		/**
+		 * Sets the size in bytes the persistent conversion cache is pruned to.
+		 * @param cacheMaxSize the maximum cache size
+		 * @return this builder
+		 */
+		public Builder cacheMaxSize(long cacheMaxSize) {
+			if (cacheMaxSize < 0) {
+				throw new SwaggerContractConverterException(
+						"The maximum cache size must not be negative");
+			}
+			this.cacheMaxSize = cacheMaxSize;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum length in characters of the contents of the x-ref files that
+		 * are kept in memory.
+		 * @param referenceCacheMaxSize the maximum length or 0 to always read the files
+		 * @return this builder
+		 */
+		public Builder referenceCacheMaxSize(long referenceCacheMaxSize) {
+			if (referenceCacheMaxSize < 0) {
+				throw new SwaggerContractConverterException(
+						"The maximum reference cache size must not be negative");
+			}
+			this.referenceCacheMaxSize = referenceCacheMaxSize;
+			return this;
+		}
+
+		/**
+		 * Builds each contract only when it is iterated instead of converting all
+		 * operations up front.
+		 * @param lazyContracts true to build the contracts on demand
+		 * @return this builder
+		 */
+		public Builder lazyContracts(boolean lazyContracts) {
+			this.lazyContracts = lazyContracts;
+			return this;
+		}
+
+		/**
+		 * Reads the Swagger file path by path while the contracts are iterated, instead
+		 * of parsing the whole document up front.
+		 * @param streaming true to stream the Swagger file
+		 * @return this builder
+		 */
+		public Builder streaming(boolean streaming) {
+			this.streaming = streaming;
+			return this;
+		}
+
+		/**
+		 * Converts the operations of a Swagger file on the common fork join pool. The
+		 * contracts are the same as the contracts of a sequential conversion.
+		 * @param parallel true to convert the operations in parallel
+		 * @return this builder
+		 */
+		public Builder parallel(boolean parallel) {
+			this.parallel = parallel;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of nested model definitions a reference is expanded to.
+		 * @param maxExpansionDepth the maximum expansion depth
+		 * @return this builder
+		 */
+		public Builder maxExpansionDepth(int maxExpansionDepth) {
+			requirePositive("maximum expansion depth", maxExpansionDepth);
+			this.maxExpansionDepth = maxExpansionDepth;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of model definitions that are expanded for a single
+		 * reference.
+		 * @param maxExpandedDefinitions the node budget of a reference
+		 * @return this builder
+		 */
+		public Builder maxExpandedDefinitions(int maxExpandedDefinitions) {
+			requirePositive("maximum number of expanded definitions",
+					maxExpandedDefinitions);
+			this.maxExpandedDefinitions = maxExpandedDefinitions;
+			return this;
+		}
+
+		/**
+		 * Sets how resolved Json bodies are written.
+		 * @param bodySerialization the body serialization mode
+		 * @return this builder
+		 */
+		public Builder bodySerialization(BodySerializationMode bodySerialization) {
+			if (bodySerialization == null) {
+				throw new SwaggerContractConverterException(
+						"The body serialization mode must not be null");
+			}
+			this.bodySerialization = bodySerialization;
+			return this;
+		}
+
+		/**
+		 * Converts only the operations of the given selection.
+		 * @param selection the operation selection
+		 * @return this builder
+		 */
+		public Builder selection(OperationSelection selection) {
+			if (selection == null) {
+				throw new SwaggerContractConverterException(
+						"The operation selection must not be null");
+			}
+			this.selection = selection;
+			return this;
+		}
+
+		/**
+		 * Registers the generator of the values of the given property type and its
+		 * subclasses, replacing the generator of the closest registered superclass. The
+		 * generator is only used for properties without an example or default value.
+		 * The conversion cache is only used if the generator has a
+		 * {@link PropertyValueGenerator#cacheKey() cache key}.
+		 * @param type the property type
+		 * @param generator the generator of the values
+		 * @return this builder
+		 */
+		public Builder generator(Class<? extends Property> type,
+				PropertyValueGenerator generator) {
+			if (type == null || generator == null) {
+				throw new SwaggerContractConverterException(
+						"The property type and its generator must not be null");
+			}
+			this.generators.put(type, generator);
+			return this;
+		}
+
+		public SwaggerConverterOptions build() {
+			return new SwaggerConverterOptions(this);
+		}
+
+	}
+
+}
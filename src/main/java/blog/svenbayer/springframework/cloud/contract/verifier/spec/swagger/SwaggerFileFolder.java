@@ -17,12 +17,22 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
 
 import java.nio.file.Path;
+import java.util.Map;
+
+import io.swagger.models.Model;
 
 /**
  * Stores the location of the Swagger file.
+ * <p>
+ * The converters no longer set or read this global folder, since concurrent conversions
+ * overwrote each other's folder. They resolve x-ref files against the folder of the
+ * {@link SwaggerConversionContext} of each Swagger file instead.
  *
  * @author Sven Bayer
+ * @deprecated since 1.2.13 for removal in the next release in favor of
+ * {@link SwaggerConversionContext}
  */
+@Deprecated
 public final class SwaggerFileFolder {
 
 	private static SwaggerFileFolder swaggerFileFolder;
@@ -47,4 +57,14 @@ public final class SwaggerFileFolder {
 		this.pathToSwaggerFile = pathToSwaggerFile;
 	}
 
+	/**
+	 * Creates the context of the conversion of a Swagger file in the stored folder with
+	 * the default options.
+	 * @param definitions the Swagger model definitions or null if there are none
+	 * @return the conversion context
+	 */
+	public SwaggerConversionContext toConversionContext(Map<String, Model> definitions) {
+		return SwaggerConversionContext.of(this.pathToSwaggerFile, definitions);
+	}
+
 }
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ContractSnapshot;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ParameterSnapshot;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.cloud.contract.spec.util.RegexpUtils;
+
+/**
+ * Writes WireMock stub mappings of a Swagger file directly from the snapshots of its
+ * contracts.
+ * <p>
+ * The Spring Cloud contracts and their Groovy object graph are never built, the mappings
+ * are streamed with a Jackson generator instead. This is enough for consumers that only
+ * run the stubs. Headers and content types are matched and returned like the WireMock
+ * stubs that Spring Cloud Contract generates from the contracts.
+ *
+ * @author Sven Bayer
+ */
+public final class SwaggerStubMappingEmitter {
+
+	private static final String MAPPING_SUFFIX = ".json";
+
+	private static final String CONTENT_TYPE = "Content-Type";
+
+	private static final String ANY_PARAMETERS = ".*";
+
+	private static final Pattern UNSAFE_FILE_NAME_CHARS = Pattern
+			.compile("[^A-Za-z0-9._-]");
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final SwaggerContractConverter converter;
+
+	/**
+	 * Creates an emitter with the options of the system properties.
+	 */
+	public SwaggerStubMappingEmitter() {
+		this(new SwaggerContractConverter());
+	}
+
+	/**
+	 * Creates an emitter that converts Swagger files with the given converter.
+	 * @param converter the converter of the Swagger files
+	 */
+	public SwaggerStubMappingEmitter(SwaggerContractConverter converter) {
+		this.converter = converter;
+	}
+
+	/**
+	 * Writes the stub mappings of a Swagger file as a single WireMock document with a
+	 * {@code mappings} array.
+	 * @param swaggerFile the Swagger file
+	 * @param writer the writer of the mappings
+	 */
+	public void write(File swaggerFile, Writer writer) {
+		List<ContractSnapshot> snapshots = this.converter.convertToSnapshots(swaggerFile);
+		try (JsonGenerator generator = createGenerator(writer)) {
+			generator.writeStartObject();
+			generator.writeArrayFieldStart("mappings");
+			for (ContractSnapshot snapshot : snapshots) {
+				writeMapping(snapshot, generator);
+			}
+			generator.writeEndArray();
+			generator.writeEndObject();
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException(
+					"Could not write stub mappings of Swagger file: " + swaggerFile, e);
+		}
+	}
+
+	/**
+	 * Writes every stub mapping of a Swagger file to a file of its own in the given
+	 * directory, named after its contract.
+	 * @param swaggerFile the Swagger file
+	 * @param directory the mappings directory
+	 * @return the written mapping files
+	 */
+	public List<Path> writeMappings(File swaggerFile, Path directory) {
+		List<ContractSnapshot> snapshots = this.converter.convertToSnapshots(swaggerFile);
+		List<Path> mappingFiles = new ArrayList<>(snapshots.size());
+		try {
+			Files.createDirectories(directory);
+			for (ContractSnapshot snapshot : snapshots) {
+				Path mappingFile = directory.resolve(fileNameOf(snapshot));
+				try (Writer writer = Files.newBufferedWriter(mappingFile,
+						StandardCharsets.UTF_8);
+						JsonGenerator generator = createGenerator(writer)) {
+					writeMapping(snapshot, generator);
+				}
+				mappingFiles.add(mappingFile);
+			}
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException(
+					"Could not write stub mappings of Swagger file: " + swaggerFile, e);
+		}
+		return mappingFiles;
+	}
+
+	private JsonGenerator createGenerator(Writer writer) throws IOException {
+		return JSON_FACTORY.createGenerator(writer).useDefaultPrettyPrinter();
+	}
+
+	private String fileNameOf(ContractSnapshot snapshot) {
+		return UNSAFE_FILE_NAME_CHARS.matcher(snapshot.getName()).replaceAll("_")
+				+ MAPPING_SUFFIX;
+	}
+
+	/**
+	 * Writes the stub mapping of a contract.
+	 * @param snapshot the snapshot of the contract
+	 * @param generator the generator of the mappings
+	 * @throws IOException if the mapping cannot be written
+	 */
+	private void writeMapping(ContractSnapshot snapshot, JsonGenerator generator)
+			throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("name", snapshot.getName());
+		generator.writeNumberField("priority", snapshot.getPriority());
+		writeRequest(snapshot, generator);
+		writeResponse(snapshot, generator);
+		generator.writeEndObject();
+	}
+
+	private void writeRequest(ContractSnapshot snapshot, JsonGenerator generator)
+			throws IOException {
+		generator.writeObjectFieldStart("request");
+		if (snapshot.getMethod() != null) {
+			generator.writeStringField("method", snapshot.getMethod());
+		}
+		if (snapshot.getUrlPath() != null) {
+			generator.writeStringField("urlPath", snapshot.getUrlPath());
+		}
+		if (snapshot.getQueryParameters() != null
+				&& !snapshot.getQueryParameters().isEmpty()) {
+			generator.writeObjectFieldStart("queryParameters");
+			for (ParameterSnapshot parameter : snapshot.getQueryParameters()) {
+				writeValuePattern(parameter, generator);
+			}
+			generator.writeEndObject();
+		}
+		Map<String, ParameterSnapshot> headers = new LinkedHashMap<>();
+		snapshot.getRequestHeaders()
+				.forEach(header -> headers.put(header.getName(), header));
+		String contentType = requestContentType(snapshot);
+		if (contentType != null) {
+			headers.remove(CONTENT_TYPE);
+		}
+		if (!headers.isEmpty() || contentType != null) {
+			generator.writeObjectFieldStart("headers");
+			for (ParameterSnapshot header : headers.values()) {
+				writeValuePattern(header, generator);
+			}
+			if (contentType != null) {
+				generator.writeObjectFieldStart(CONTENT_TYPE);
+				generator.writeStringField("matches", contentType);
+				generator.writeEndObject();
+			}
+			generator.writeEndObject();
+		}
+		if (snapshot.getRequestBody() != null) {
+			generator.writeArrayFieldStart("bodyPatterns");
+			generator.writeStartObject();
+			if (isJson(snapshot.getRequestBody())) {
+				generator.writeStringField("equalToJson", snapshot.getRequestBody());
+			}
+			else {
+				generator.writeStringField("equalTo", snapshot.getRequestBody());
+			}
+			generator.writeEndObject();
+			generator.writeEndArray();
+		}
+		generator.writeEndObject();
+	}
+
+	private void writeResponse(ContractSnapshot snapshot, JsonGenerator generator)
+			throws IOException {
+		generator.writeObjectFieldStart("response");
+		generator.writeNumberField("status", snapshot.getStatus());
+		Map<String, Set<String>> headers = new LinkedHashMap<>();
+		snapshot.getResponseHeaders()
+				.forEach(header -> headers
+						.computeIfAbsent(header.getName(), name -> new LinkedHashSet<>())
+						.add(String.valueOf(header.getValue())));
+		snapshot.getResponseContentTypes().forEach(type -> headers
+				.computeIfAbsent(CONTENT_TYPE, name -> new LinkedHashSet<>()).add(type));
+		if (!headers.isEmpty()) {
+			generator.writeObjectFieldStart("headers");
+			for (Map.Entry<String, Set<String>> header : headers.entrySet()) {
+				if (header.getValue().size() == 1) {
+					generator.writeStringField(header.getKey(),
+							header.getValue().iterator().next());
+				}
+				else {
+					generator.writeArrayFieldStart(header.getKey());
+					for (String value : header.getValue()) {
+						generator.writeString(value);
+					}
+					generator.writeEndArray();
+				}
+			}
+			generator.writeEndObject();
+		}
+		if (snapshot.getResponseBody() != null) {
+			generator.writeStringField("body", snapshot.getResponseBody());
+		}
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Writes a query parameter or header that matches its pattern, or equals its value if
+	 * it has no pattern.
+	 * @param parameter the parameter
+	 * @param generator the generator of the mappings
+	 * @throws IOException if the parameter cannot be written
+	 */
+	private void writeValuePattern(ParameterSnapshot parameter, JsonGenerator generator)
+			throws IOException {
+		generator.writeObjectFieldStart(parameter.getName());
+		if (parameter.getPattern() != null) {
+			generator.writeStringField("matches", parameter.getPattern().pattern());
+		}
+		else {
+			generator.writeStringField("equalTo", String.valueOf(parameter.getValue()));
+		}
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Creates the pattern of the consumed content type like the contract does. The
+	 * contract matches each content type in turn, so the last one wins. The content type
+	 * is escaped, so only parameters like a charset may follow it, and the empty content
+	 * type of a wildcard matches any content type.
+	 * @param snapshot the snapshot of the contract
+	 * @return the pattern or null if the contract has no content type
+	 */
+	private String requestContentType(ContractSnapshot snapshot) {
+		List<String> contentTypes = snapshot.getRequestContentTypes();
+		if (contentTypes.isEmpty()) {
+			return null;
+		}
+		return RegexpUtils.escapeSpecialRegexWithSingleEscape(
+				contentTypes.get(contentTypes.size() - 1)) + ANY_PARAMETERS;
+	}
+
+	private boolean isJson(String body) {
+		String trimmed = body.trim();
+		return trimmed.startsWith("{") || trimmed.startsWith("[");
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.batch;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The results of a batch of Swagger files and the throughput of their conversion.
+ *
+ * @author Sven Bayer
+ */
+public final class BatchConversionResult {
+
+	private final List<FileConversionResult> results;
+
+	private final Duration duration;
+
+	BatchConversionResult(List<FileConversionResult> results, Duration duration) {
+		this.results = Collections.unmodifiableList(results);
+		this.duration = duration;
+	}
+
+	/**
+	 * Returns the results of all files of the batch.
+	 * @return the results in the order of the files
+	 */
+	public List<FileConversionResult> getResults() {
+		return this.results;
+	}
+
+	/**
+	 * Returns the results of the files that were converted.
+	 * @return the successful results
+	 */
+	public List<FileConversionResult> getConverted() {
+		return this.results.stream().filter(FileConversionResult::isConverted)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the results of the files that could not be converted.
+	 * @return the failed results
+	 */
+	public List<FileConversionResult> getFailures() {
+		return this.results.stream().filter(result -> !result.isConverted())
+				.collect(Collectors.toList());
+	}
+
+	public boolean hasFailures() {
+		return this.results.stream().anyMatch(result -> !result.isConverted());
+	}
+
+	/**
+	 * Returns the number of contracts of all converted files.
+	 * @return the number of contracts
+	 */
+	public int getContractCount() {
+		return this.results.stream().mapToInt(result -> result.getContracts().size())
+				.sum();
+	}
+
+	/**
+	 * Returns the wall time of the conversion of the batch.
+	 * @return the duration of the batch
+	 */
+	public Duration getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Returns the number of files that were converted or failed per second.
+	 * @return the files per second
+	 */
+	public double getFilesPerSecond() {
+		return perSecond(this.results.size());
+	}
+
+	/**
+	 * Returns the number of contracts that were created per second.
+	 * @return the contracts per second
+	 */
+	public double getContractsPerSecond() {
+		return perSecond(getContractCount());
+	}
+
+	private double perSecond(int count) {
+		long nanos = Math.max(1, this.duration.toNanos());
+		return count * 1_000_000_000d / nanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				"Converted %d of %d Swagger files to %d contracts in %d ms "
+						+ "(%.1f files/s, %.1f contracts/s)",
+				getConverted().size(), this.results.size(), getContractCount(),
+				this.duration.toMillis(), getFilesPerSecond(), getContractsPerSecond());
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.batch;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.cloud.contract.spec.Contract;
+
+/**
+ * The result of the conversion of a single Swagger file of a batch, either its contracts
+ * or the failure that stopped the conversion.
+ *
+ * @author Sven Bayer
+ */
+public final class FileConversionResult {
+
+	private final File file;
+
+	private final List<Contract> contracts;
+
+	private final RuntimeException failure;
+
+	private FileConversionResult(File file, List<Contract> contracts,
+			RuntimeException failure) {
+		this.file = file;
+		this.contracts = contracts;
+		this.failure = failure;
+	}
+
+	static FileConversionResult converted(File file, List<Contract> contracts) {
+		return new FileConversionResult(file, Collections.unmodifiableList(contracts),
+				null);
+	}
+
+	static FileConversionResult failed(File file, RuntimeException failure) {
+		return new FileConversionResult(file, Collections.emptyList(), failure);
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Returns the contracts of the Swagger file.
+	 * @return the contracts or an empty list if the conversion failed
+	 */
+	public List<Contract> getContracts() {
+		return this.contracts;
+	}
+
+	/**
+	 * Returns the failure of the conversion.
+	 * @return the failure or null if the file was converted
+	 */
+	public RuntimeException getFailure() {
+		return this.failure;
+	}
+
+	public boolean isConverted() {
+		return this.failure == null;
+	}
+
+	@Override
+	public String toString() {
+		return this.file + (isConverted() ? ": " + this.contracts.size() + " contracts"
+				: ": " + this.failure.getMessage());
+	}
+
+}
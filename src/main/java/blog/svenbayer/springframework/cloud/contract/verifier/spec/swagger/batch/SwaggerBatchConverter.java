@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerContractConverter;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.contract.spec.Contract;
+
+/**
+ * Converts many Swagger files concurrently with one {@link SwaggerContractConverter}.
+ * <p>
+ * The files are converted on a bounded pool of platform threads or, if the Java runtime
+ * supports them, on virtual threads. In both cases only a bounded number of files is
+ * converted, and so held in memory, at the same time. A file that cannot be converted
+ * does not stop the conversion of the other files, its failure is part of the result
+ * instead.
+ *
+ * @author Sven Bayer
+ */
+public final class SwaggerBatchConverter {
+
+	private static final Log LOG = LogFactory.getLog(SwaggerBatchConverter.class);
+
+	private static final String VIRTUAL_THREAD_EXECUTOR = "newVirtualThreadPerTaskExecutor";
+
+	private final SwaggerContractConverter converter;
+
+	private final int threads;
+
+	private final boolean virtualThreads;
+
+	private SwaggerBatchConverter(SwaggerContractConverter converter, int threads,
+			boolean virtualThreads) {
+		this.converter = converter;
+		this.threads = threads;
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Creates a batch converter with one platform thread per available processor.
+	 * @param converter the converter of a single Swagger file
+	 * @return the batch converter
+	 */
+	public static SwaggerBatchConverter withPlatformThreads(
+			SwaggerContractConverter converter) {
+		return withPlatformThreads(converter, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a batch converter with a bounded pool of platform threads.
+	 * @param converter the converter of a single Swagger file
+	 * @param threads the maximum number of files that are converted at the same time
+	 * @return the batch converter
+	 */
+	public static SwaggerBatchConverter withPlatformThreads(
+			SwaggerContractConverter converter, int threads) {
+		if (threads < 1) {
+			throw new SwaggerContractConverterException(
+					"The number of threads must be positive but was " + threads);
+		}
+		return new SwaggerBatchConverter(converter, threads, false);
+	}
+
+	/**
+	 * Creates a batch converter that converts every file on a virtual thread of its own,
+	 * at most one file per available processor at the same time. On Java runtimes
+	 * without virtual threads, one platform thread per available processor is used
+	 * instead.
+	 * @param converter the converter of a single Swagger file
+	 * @return the batch converter
+	 */
+	public static SwaggerBatchConverter withVirtualThreads(
+			SwaggerContractConverter converter) {
+		return withVirtualThreads(converter, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a batch converter that converts every file on a virtual thread of its own.
+	 * On Java runtimes without virtual threads, a bounded pool of platform threads is
+	 * used instead.
+	 * @param converter the converter of a single Swagger file
+	 * @param threads the maximum number of files that are converted at the same time
+	 * @return the batch converter
+	 */
+	public static SwaggerBatchConverter withVirtualThreads(
+			SwaggerContractConverter converter, int threads) {
+		if (threads < 1) {
+			throw new SwaggerContractConverterException(
+					"The number of threads must be positive but was " + threads);
+		}
+		return new SwaggerBatchConverter(converter, threads, true);
+	}
+
+	/**
+	 * Converts all Swagger files in the given directory and its sub directories. Files
+	 * that are not accepted by the converter are skipped.
+	 * @param directory the directory of the Swagger files
+	 * @return the results of the accepted files
+	 */
+	public BatchConversionResult convert(Path directory) {
+		List<File> files;
+		try (Stream<Path> paths = Files.walk(directory)) {
+			files = paths.filter(Files::isRegularFile).sorted().map(Path::toFile)
+					.collect(Collectors.toList());
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException(
+					"Could not read Swagger files of directory: " + directory, e);
+		}
+		return convert(files, true);
+	}
+
+	/**
+	 * Converts the given Swagger files.
+	 * @param files the Swagger files
+	 * @return the results of the files in the given order
+	 */
+	public BatchConversionResult convert(List<File> files) {
+		return convert(files, false);
+	}
+
+	private BatchConversionResult convert(List<File> files, boolean onlyAccepted) {
+		long start = System.nanoTime();
+		List<FileConversionResult> results = new ArrayList<>(files.size());
+		if (!files.isEmpty()) {
+			ExecutorService executor = createExecutor(files.size());
+			Semaphore permits = new Semaphore(this.threads);
+			try {
+				List<Future<FileConversionResult>> futures = new ArrayList<>(
+						files.size());
+				for (File file : files) {
+					futures.add(executor
+							.submit(() -> convert(file, onlyAccepted, permits)));
+				}
+				for (Future<FileConversionResult> future : futures) {
+					FileConversionResult result = await(future);
+					if (result != null) {
+						results.add(result);
+					}
+				}
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+		return new BatchConversionResult(results,
+				Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	/**
+	 * Converts a single Swagger file once one of the permits is available. Every file
+	 * gets a virtual thread of its own, so the permits bound the number of Swagger
+	 * documents that are parsed and held in memory at the same time.
+	 * @param file the Swagger file
+	 * @param onlyAccepted whether files that are not accepted are skipped
+	 * @param permits the permits of the files that are converted at the same time
+	 * @return the result or null if the file is skipped
+	 */
+	private FileConversionResult convert(File file, boolean onlyAccepted,
+			Semaphore permits) {
+		try {
+			permits.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return FileConversionResult.failed(file,
+					new SwaggerContractConverterException(
+							"Interrupted while converting Swagger file: " + file, e));
+		}
+		try {
+			return convert(file, onlyAccepted);
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Converts a single Swagger file. The contracts are copied, so lazy contracts are
+	 * built on the worker thread as well.
+	 * @param file the Swagger file
+	 * @param onlyAccepted whether files that are not accepted are skipped
+	 * @return the result or null if the file is skipped
+	 */
+	private FileConversionResult convert(File file, boolean onlyAccepted) {
+		try {
+			if (onlyAccepted && !this.converter.isAccepted(file)) {
+				return null;
+			}
+			List<Contract> contracts = new ArrayList<>(this.converter.convertFrom(file));
+			return FileConversionResult.converted(file, contracts);
+		}
+		catch (RuntimeException e) {
+			return FileConversionResult.failed(file, e);
+		}
+	}
+
+	private FileConversionResult await(Future<FileConversionResult> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SwaggerContractConverterException(
+					"Interrupted while converting Swagger files", e);
+		}
+		catch (ExecutionException e) {
+			throw new SwaggerContractConverterException("Could not convert Swagger file",
+					e.getCause());
+		}
+	}
+
+	/**
+	 * Creates the executor of a batch. Virtual threads are created by reflection, so the
+	 * converter still runs on Java runtimes without them.
+	 * @param files the number of files of the batch
+	 * @return the executor
+	 */
+	private ExecutorService createExecutor(int files) {
+		if (this.virtualThreads) {
+			try {
+				return (ExecutorService) Executors.class
+						.getMethod(VIRTUAL_THREAD_EXECUTOR).invoke(null);
+			}
+			catch (NoSuchMethodException | IllegalAccessException
+					| InvocationTargetException | UnsupportedOperationException e) {
+				LOG.debug("Virtual threads are not available, converting Swagger files "
+						+ "on platform threads", e);
+			}
+		}
+		return Executors.newFixedThreadPool(Math.min(this.threads, files));
+	}
+
+	/**
+	 * Returns whether the files are converted on virtual threads.
+	 * @return true if every file is converted on a virtual thread of its own
+	 */
+	public boolean isVirtualThreads() {
+		return this.virtualThreads && isVirtualThreadsSupported();
+	}
+
+	/**
+	 * Returns whether the Java runtime supports virtual threads.
+	 * @return true if virtual threads can be created
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		try {
+			Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR);
+			return true;
+		}
+		catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A table of handlers that are looked up by the class of a value, as an alternative to a
+ * chain of <code>instanceof</code> checks.
+ * <p>
+ * A class is handled by the handler of its closest registered superclass, like the first
+ * matching check of a chain that tests subclasses before their superclasses. The handler
+ * of every class is resolved once and then looked up directly.
+ *
+ * @param <T> the type of the handlers
+ * @author Sven Bayer
+ */
+final class ClassDispatch<T> {
+
+	private static final Object NONE = new Object();
+
+	private final Map<Class<?>, T> registered = new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, Object> resolved = new ConcurrentHashMap<>();
+
+	/**
+	 * Registers the handler of the given class and its subclasses.
+	 * @param type the class
+	 * @param handler the handler
+	 * @return this dispatch table
+	 */
+	ClassDispatch<T> register(Class<?> type, T handler) {
+		this.registered.put(type, handler);
+		this.resolved.clear();
+		return this;
+	}
+
+	/**
+	 * Returns a copy of this dispatch table that further handlers can be registered with.
+	 * @return the copy
+	 */
+	ClassDispatch<T> copy() {
+		ClassDispatch<T> copy = new ClassDispatch<>();
+		copy.registered.putAll(this.registered);
+		return copy;
+	}
+
+	/**
+	 * Returns the handler of the given class.
+	 * @param type the class
+	 * @return the handler of the closest registered superclass or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	T get(Class<?> type) {
+		Object handler = this.resolved.computeIfAbsent(type, this::resolve);
+		return handler != NONE ? (T) handler : null;
+	}
+
+	private Object resolve(Class<?> type) {
+		for (Class<?> superclass = type; superclass != null; superclass = superclass
+				.getSuperclass()) {
+			T handler = this.registered.get(superclass);
+			if (handler != null) {
+				return handler;
+			}
+		}
+		return NONE;
+	}
+
+}
@@ -18,8 +18,6 @@ package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.buil
 
 import javax.annotation.Nullable;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
 import io.swagger.models.HttpMethod;
@@ -32,41 +30,58 @@ import org.springframework.util.StringUtils;
  */
 public class ContractNameBuilder {
 
-	private static final String PATH_SEP = "_";
+	private static final char PATH_SEP = '_';
 
 	/**
-	 * Extract the path without the leading slash and without the last closing
-	 * curly-brace.
+	 * Creates a contract name for a given path and http method.
+	 * @param priority the order of the method
+	 * @param pathLink the path of the endpoint
+	 * @param httpMethod the operation (GET, POST, PUT, DELETE)
+	 * @param operationId the unique operation id
+	 * @return the formatted contract name
 	 */
-	private static final String PATH_EXTRACT = "([^\\/].*[^\\}])";
+	public String createContractName(AtomicInteger priority, String pathLink,
+			HttpMethod httpMethod, @Nullable String operationId) {
+		return createContractName(priority.get(), pathLink, httpMethod, operationId);
+	}
 
 	/**
-	 * Replace all curly-braces and slashes.
+	 * Creates a contract name for a given path and http method.
+	 * @param priority the order of the method
+	 * @param pathLink the path of the endpoint
+	 * @param httpMethod the operation (GET, POST, PUT, DELETE)
+	 * @param operationId the unique operation id
+	 * @return the formatted contract name
 	 */
-	private static final String PATH_CLEANUP = "(\\}\\/\\{|\\/\\{|\\}\\/|\\}|\\/)";
+	public String createContractName(int priority, String pathLink, HttpMethod httpMethod,
+			@Nullable String operationId) {
+		return createContractName(priority, PathTemplate.parse(pathLink), httpMethod,
+				operationId);
+	}
 
 	/**
-	 * Creates a contract name for a given path and http method.
+	 * Creates a contract name for a given parsed path and http method.
 	 * @param priority the order of the method
-	 * @param pathLink the path of the endpoint
+	 * @param pathTemplate the parsed path of the endpoint
 	 * @param httpMethod the operation (GET, POST, PUT, DELETE)
 	 * @param operationId the unique operation id
 	 * @return the formatted contract name
 	 */
-	public String createContractName(AtomicInteger priority, String pathLink,
+	public String createContractName(int priority, PathTemplate pathTemplate,
 			HttpMethod httpMethod, @Nullable String operationId) {
-		Matcher pathMatcher = Pattern.compile(PATH_EXTRACT).matcher(pathLink);
-		if (!pathMatcher.find()) {
+		String pathName = pathTemplate.getContractName();
+		if (pathName == null) {
 			throw new SwaggerContractConverterException(
-					"Could not extract path of method from Swagger file: " + pathLink);
+					"Could not extract path of method from Swagger file: "
+							+ pathTemplate.getPath());
 		}
-		String extractedPath = pathMatcher.group(1);
-		String cleanedUpPathLink = extractedPath.replaceAll(PATH_CLEANUP, PATH_SEP);
-		if (StringUtils.isEmpty(operationId)) {
-			return priority + PATH_SEP + cleanedUpPathLink + PATH_SEP + httpMethod.name();
+		StringBuilder contractName = new StringBuilder(pathName.length() + 32)
+				.append(priority).append(PATH_SEP).append(pathName).append(PATH_SEP)
+				.append(httpMethod.name());
+		if (!StringUtils.isEmpty(operationId)) {
+			contractName.append(PATH_SEP).append(operationId);
 		}
-		return priority + PATH_SEP + cleanedUpPathLink + PATH_SEP + httpMethod.name()
-				+ PATH_SEP + operationId;
+		return contractName.toString();
 	}
 
 }
@@ -2,9 +2,11 @@ package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.buil
 
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields.X_EXAMPLE;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.PatternCache;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.DefaultValues;
 import io.swagger.models.parameters.AbstractSerializableParameter;
+import java.math.BigDecimal;
 import java.util.regex.Pattern;
 import org.springframework.cloud.contract.spec.internal.DslProperty;
 
@@ -19,6 +21,23 @@ public final class DslValueBuilder {
 
 	private final DefaultValues defaultValues = new DefaultValues();
 
+	private final PatternCache patternCache;
+
+	/**
+	 * Creates a builder with a pattern cache of its own.
+	 */
+	public DslValueBuilder() {
+		this(new PatternCache());
+	}
+
+	/**
+	 * Creates a builder that compiles the patterns of parameters through the given cache.
+	 * @param patternCache the cache of compiled patterns
+	 */
+	public DslValueBuilder(PatternCache patternCache) {
+		this.patternCache = patternCache;
+	}
+
 	/**
 	 * Creates a dsl value for a query or header parameter.
 	 * @param param the query or header parameter
@@ -37,17 +56,33 @@ public final class DslValueBuilder {
 				return null;
 			}
 		}
-		Object value = createServerValueForParameter(param);
-		String type = param.getType();
-		String format = param.getFormat();
-		String name = param.getName();
+		return createDslValue(param.getName(), createServerValueForParameter(param),
+				param.getType(), param.getFormat(), param.getMinimum(),
+				param.getMaximum(), param.pattern);
+	}
+
+	/**
+	 * Creates a dsl value for a query or header parameter from its plain fields, so
+	 * parameters of other models than Swagger 2 get the same values and patterns.
+	 * @param name the name of the parameter
+	 * @param example the example value or null to create a default value
+	 * @param type the primitive type
+	 * @param format the specific format or null
+	 * @param min minimum value or null
+	 * @param max maximum value or null
+	 * @param regex the pattern of the parameter or null to use the one of its type
+	 * @return the dsl value
+	 */
+	public DslProperty<Object> createDslValue(String name, Object example, String type,
+			String format, BigDecimal min, BigDecimal max, String regex) {
+		Object value = example;
 		if (value == null) {
-			value = this.defaultValues.createDefaultValueForType(type, format, name,
-					param.getMinimum(), param.getMaximum());
+			value = this.defaultValues.createDefaultValueForType(type, format, name, min,
+					max);
 		}
 		Pattern pattern;
-		if (param.pattern != null) {
-			pattern = Pattern.compile(param.pattern);
+		if (regex != null) {
+			pattern = this.patternCache.compile(regex);
 		}
 		else {
 			pattern = this.patternBuilder.createPatternForParameter(type, format);
@@ -56,7 +91,7 @@ public final class DslValueBuilder {
 		if (!isPatternMatches) {
 			throw new SwaggerContractConverterException("The pattern '"
 					+ pattern.pattern() + "' does not match for the value '" + value
-					+ "' for the given param '" + param.getName() + "'");
+					+ "' for the given param '" + name + "'");
 		}
 		return new DslProperty<>(pattern, value);
 	}
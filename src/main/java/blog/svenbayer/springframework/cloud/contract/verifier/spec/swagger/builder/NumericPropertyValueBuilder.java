@@ -8,9 +8,9 @@ import io.swagger.models.properties.BaseIntegerProperty;
 import io.swagger.models.properties.DecimalProperty;
 import io.swagger.models.properties.DoubleProperty;
 import io.swagger.models.properties.FloatProperty;
-import io.swagger.models.properties.IntegerProperty;
 import io.swagger.models.properties.LongProperty;
 import java.math.BigDecimal;
+import java.util.function.Function;
 
 /**
  * Creates default values for {@link AbstractNumericProperty}.
@@ -19,6 +19,13 @@ import java.math.BigDecimal;
  */
 public class NumericPropertyValueBuilder {
 
+	private static final ClassDispatch<Function<BigDecimal, Object>> TYPED_VALUES = new ClassDispatch<Function<BigDecimal, Object>>()
+			.register(LongProperty.class, BigDecimal::longValue)
+			.register(BaseIntegerProperty.class, BigDecimal::intValue)
+			.register(DoubleProperty.class, BigDecimal::doubleValue)
+			.register(FloatProperty.class, BigDecimal::floatValue)
+			.register(DecimalProperty.class, value -> value);
+
 	private final DefaultValues defaultValues = new DefaultValues();
 
 	/**
@@ -62,23 +69,8 @@ public class NumericPropertyValueBuilder {
 					numeric.getFormat(), numeric.getName(), numeric.getMinimum(),
 					numeric.getMaximum());
 		}
-		if (numeric instanceof LongProperty) {
-			return numericPropertyValue.longValue();
-		}
-		if (numeric instanceof IntegerProperty
-				|| numeric instanceof BaseIntegerProperty) {
-			return numericPropertyValue.intValue();
-		}
-		if (numeric instanceof DoubleProperty) {
-			return numericPropertyValue.doubleValue();
-		}
-		if (numeric instanceof FloatProperty) {
-			return numericPropertyValue.floatValue();
-		}
-		if (numeric instanceof DecimalProperty) {
-			return numericPropertyValue;
-		}
-		return DEFAULT_INT;
+		Function<BigDecimal, Object> typedValue = TYPED_VALUES.get(numeric.getClass());
+		return typedValue != null ? typedValue.apply(numericPropertyValue) : DEFAULT_INT;
 	}
 
 }
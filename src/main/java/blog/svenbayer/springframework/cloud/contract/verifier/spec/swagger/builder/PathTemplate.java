@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A path of a Swagger document that is parsed once into literal segments and
+ * <code>{name}</code> variables, so the contract names and urls of all operations of the
+ * path are written in a single pass each.
+ *
+ * @author Sven Bayer
+ */
+public final class PathTemplate {
+
+	private static final char PATH_SEP = '_';
+
+	private final String path;
+
+	private final List<String> literals;
+
+	private final List<String> variables;
+
+	private final String contractName;
+
+	private PathTemplate(String path, List<String> literals, List<String> variables) {
+		this.path = path;
+		this.literals = literals;
+		this.variables = variables;
+		this.contractName = createContractName(path);
+	}
+
+	/**
+	 * Parses the given path.
+	 * @param path the path of the Swagger document
+	 * @return the path template
+	 */
+	public static PathTemplate parse(String path) {
+		List<String> literals = new ArrayList<>();
+		List<String> variables = new ArrayList<>();
+		int literalStart = 0;
+		int variableStart = path.indexOf('{');
+		while (variableStart >= 0) {
+			int variableEnd = path.indexOf('}', variableStart + 1);
+			if (variableEnd < 0) {
+				break;
+			}
+			literals.add(path.substring(literalStart, variableStart));
+			variables.add(path.substring(variableStart + 1, variableEnd));
+			literalStart = variableEnd + 1;
+			variableStart = path.indexOf('{', literalStart);
+		}
+		literals.add(path.substring(literalStart));
+		return new PathTemplate(path, Collections.unmodifiableList(literals),
+				Collections.unmodifiableList(variables));
+	}
+
+	public String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Returns the names of the variables in the order of the path.
+	 * @return the variable names
+	 */
+	public List<String> getVariables() {
+		return this.variables;
+	}
+
+	/**
+	 * Returns the part of the contract name for this path. The leading slashes and the
+	 * trailing closing curly-braces are dropped, and the slashes and curly-braces in
+	 * between are replaced by underscores.
+	 * @return the contract name of the path or null if the path has no name
+	 */
+	public String getContractName() {
+		return this.contractName;
+	}
+
+	/**
+	 * Writes the url of this path with the values of its variables.
+	 * @param prefix the prefix of the url, for example the base path
+	 * @param values returns the value of a variable or null to keep the variable
+	 * @return the url
+	 */
+	public String expand(String prefix, Function<String, String> values) {
+		StringBuilder url = new StringBuilder(prefix.length() + this.path.length() + 16)
+				.append(prefix).append(this.literals.get(0));
+		for (int i = 0; i < this.variables.size(); i++) {
+			String variable = this.variables.get(i);
+			String value = values.apply(variable);
+			if (value != null) {
+				url.append(value);
+			}
+			else {
+				url.append('{').append(variable).append('}');
+			}
+			url.append(this.literals.get(i + 1));
+		}
+		return url.toString();
+	}
+
+	/**
+	 * Creates the contract name of the given path, from its first character that is not a
+	 * slash to its last character that is not a closing curly-brace. A closing
+	 * curly-brace followed by a slash and an opening curly-brace, a slash followed by an
+	 * opening curly-brace, a closing curly-brace followed by a slash, a single closing
+	 * curly-brace and a single slash are each replaced by one underscore.
+	 */
+	private static String createContractName(String path) {
+		int start = 0;
+		while (start < path.length() && path.charAt(start) == '/') {
+			start++;
+		}
+		int end = path.length() - 1;
+		while (end >= 0 && path.charAt(end) == '}') {
+			end--;
+		}
+		if (end <= start) {
+			return null;
+		}
+		StringBuilder name = new StringBuilder(end - start + 1);
+		int i = start;
+		while (i <= end) {
+			char c = path.charAt(i);
+			if (c == '}') {
+				name.append(PATH_SEP);
+				i++;
+				if (i <= end && path.charAt(i) == '/') {
+					i++;
+					if (i <= end && path.charAt(i) == '{') {
+						i++;
+					}
+				}
+			}
+			else if (c == '/') {
+				name.append(PATH_SEP);
+				i++;
+				if (i <= end && path.charAt(i) == '{') {
+					i++;
+				}
+			}
+			else {
+				name.append(c);
+				i++;
+			}
+		}
+		return name.toString();
+	}
+
+}
@@ -1,12 +1,6 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
 
-import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFormats.DOUBLE;
-import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFormats.FLOAT;
-import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerTypes.BOOLEAN;
-import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerTypes.INTEGER;
-import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerTypes.NUMBER;
-import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerTypes.STRING;
-
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.TypeFormatTable;
 import java.util.regex.Pattern;
 
 /**
@@ -17,37 +11,14 @@ import java.util.regex.Pattern;
 class PatternBuilder {
 
 	/**
-	 * Creates a pattern for a given parameter.
+	 * Returns the pattern for a given parameter. The patterns are compiled once and
+	 * shared, since there is only one per type and format.
 	 * @param type the primitive type
 	 * @param format the parameter
 	 * @return the pattern
 	 */
 	Pattern createPatternForParameter(String type, String format) {
-		String regex = createRegexForDefaultValue(type, format);
-		return Pattern.compile(regex);
-	}
-
-	/**
-	 * Creates a regex for a given parameter.
-	 * @param type the primitive type
-	 * @param format the parameter
-	 * @return the regex
-	 */
-	private String createRegexForDefaultValue(String type, String format) {
-		if (STRING.type().equals(type)) {
-			return ".+";
-		}
-		if ((NUMBER.type().equals(type))
-				&& (DOUBLE.format().equals(format) || FLOAT.format().equals(format))) {
-			return "[0-9]+\\.[0-9]+";
-		}
-		if (INTEGER.type().equals(type)) {
-			return "[0-9]+";
-		}
-		if (BOOLEAN.type().equals(type)) {
-			return "(true|false)";
-		}
-		return ".+";
+		return TypeFormatTable.pattern(type, format);
 	}
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConverterOptions;
+import io.swagger.models.properties.Property;
+
+/**
+ * Creates the value of a property of a specific type.
+ *
+ * @author Sven Bayer
+ * @see SwaggerConverterOptions.Builder#generator(Class, PropertyValueGenerator)
+ */
+@FunctionalInterface
+public interface PropertyValueGenerator {
+
+	/**
+	 * Creates the value of the given property that has no example or default value.
+	 * @param key the key of the property
+	 * @param property the property
+	 * @param context the conversion context with the Swagger model definitions
+	 * @return the value of the property
+	 */
+	Object createValue(String key, Property property, SwaggerConversionContext context);
+
+	/**
+	 * Returns a key that stays the same between builds as long as the generator creates
+	 * the same values. It is part of the key of the persistent conversion cache, which is
+	 * only used if every generator of a converter has a cache key.
+	 * @return the cache key or null if contracts with values of this generator must not
+	 * be cached
+	 */
+	default String cacheKey() {
+		return null;
+	}
+
+}
@@ -1,12 +1,11 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference.ReferenceResolverFactory;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference.SwaggerReferenceResolver;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields;
-import io.swagger.models.Model;
 import io.swagger.models.parameters.BodyParameter;
-import java.util.Map;
 
 /**
  * Creates the value for a request body.
@@ -20,11 +19,11 @@ public final class RequestBodyParamBuilder {
 	/**
 	 * Creates the value for a request body.
 	 * @param param the request body
-	 * @param definitions the Swagger model definitions
+	 * @param context the conversion context with the Swagger model definitions
 	 * @return the value for the request body
 	 */
 	public String createValueForRequestBody(BodyParameter param,
-			Map<String, Model> definitions) {
+			SwaggerConversionContext context) {
 		if (param.getExamples() != null && !param.getExamples().values().isEmpty()
 				&& param.getExamples().values().toArray()[0] != null) {
 			return String
@@ -48,7 +47,7 @@ public final class RequestBodyParamBuilder {
 				String reference = param.getSchema().getReference();
 				SwaggerReferenceResolver swaggerReferenceResolver = this.refFactory
 						.getReferenceResolver(reference, param.getVendorExtensions());
-				return swaggerReferenceResolver.resolveReference(definitions);
+				return swaggerReferenceResolver.resolveReference(context);
 			}
 		}
 		throw new SwaggerContractConverterException("Could not parse body for request");
@@ -2,12 +2,11 @@ package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.buil
 
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields.X_EXAMPLE;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference.ReferenceResolverFactory;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference.SwaggerReferenceResolver;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
-import io.swagger.models.Model;
 import io.swagger.models.Response;
-import java.util.Map;
 
 /**
  * Creates the value for a response body.
@@ -21,11 +20,11 @@ public final class ResponseBodyBuilder {
 	/**
 	 * Creates the value for a response body and given Swagger model definitions.
 	 * @param response the Swagger response
-	 * @param definitions the Swagger model definitions
+	 * @param context the conversion context with the Swagger model definitions
 	 * @return the value for the response body
 	 */
 	public String createValueForResponseBody(Response response,
-			Map<String, Model> definitions) {
+			SwaggerConversionContext context) {
 		if (response.getExamples() != null && !response.getExamples().values().isEmpty()
 				&& response.getExamples().values().toArray()[0] != null) {
 			return String.valueOf(response.getExamples().values().toArray()[0]);
@@ -48,7 +47,7 @@ public final class ResponseBodyBuilder {
 				String reference = response.getResponseSchema().getReference();
 				SwaggerReferenceResolver resolver = this.refFactory
 						.getReferenceResolver(reference, response.getVendorExtensions());
-				return resolver.resolveReference(definitions);
+				return resolver.resolveReference(context);
 			}
 			else {
 				throw new SwaggerContractConverterException(
@@ -5,10 +5,13 @@ import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagge
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFormats.INT_32;
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFormats.INT_64;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference.ReferenceResolverFactory;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference.SwaggerReferenceResolver;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.BodySerializationMode;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.JsonBodyRenderer;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields;
-import io.swagger.models.Model;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.models.properties.AbstractNumericProperty;
 import io.swagger.models.properties.ArrayProperty;
 import io.swagger.models.properties.BooleanProperty;
@@ -20,8 +23,11 @@ import io.swagger.models.properties.Property;
 import io.swagger.models.properties.RefProperty;
 import io.swagger.models.properties.StringProperty;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import org.springframework.cloud.contract.spec.internal.DslProperty;
 
 /**
@@ -31,9 +37,37 @@ import org.springframework.cloud.contract.spec.internal.DslProperty;
  */
 public final class ResponseHeaderValueBuilder {
 
-	private final ReferenceResolverFactory refFactory = new ReferenceResolverFactory();
+	private static final ReferenceResolverFactory REF_FACTORY = new ReferenceResolverFactory();
 
-	private final NumericPropertyValueBuilder numericPropertyValueBuilder = new NumericPropertyValueBuilder();
+	private static final NumericPropertyValueBuilder NUMERIC_PROPERTY_VALUE_BUILDER = new NumericPropertyValueBuilder();
+
+	private static final ClassDispatch<Function<Property, Object>> DEFAULT_VALUES = new ClassDispatch<Function<Property, Object>>()
+			.register(DoubleProperty.class,
+					property -> ((DoubleProperty) property).getDefault())
+			.register(FloatProperty.class,
+					property -> ((FloatProperty) property).getDefault())
+			.register(LongProperty.class,
+					property -> ((LongProperty) property).getDefault())
+			.register(IntegerProperty.class,
+					property -> ((IntegerProperty) property).getDefault())
+			.register(BooleanProperty.class,
+					property -> ((BooleanProperty) property).getDefault())
+			.register(StringProperty.class,
+					property -> ((StringProperty) property).getDefault());
+
+	private static final ClassDispatch<PropertyValueGenerator> GENERATORS = new ClassDispatch<PropertyValueGenerator>()
+			.register(RefProperty.class, ResponseHeaderValueBuilder::createReferenceValue)
+			.register(ArrayProperty.class, ResponseHeaderValueBuilder::createArrayValue)
+			.register(AbstractNumericProperty.class,
+					(key, property, context) -> NUMERIC_PROPERTY_VALUE_BUILDER
+							.createDefaultNumericValue(
+									(AbstractNumericProperty) property))
+			.register(BooleanProperty.class, (key, property, context) -> DEFAULT_BOOLEAN)
+			.register(StringProperty.class,
+					ResponseHeaderValueBuilder::createStringValue);
+
+	private static final PropertyValueGenerator DEFAULT_VALUE_GENERATOR = valueGenerator(
+			GENERATORS);
 
 	/**
 	 * Creates a dsl value for a response header property.
@@ -41,24 +75,59 @@ public final class ResponseHeaderValueBuilder {
 	 * Note: Pattern does not appear for Property types
 	 * @param key the key of the header
 	 * @param property the response header property
-	 * @param definitions the Swagger model definition
+	 * @param context the conversion context with the Swagger model definitions
 	 * @return the value for the given response header property
 	 */
 	public DslProperty createDslResponseHeaderValue(String key, Property property,
-			Map<String, Model> definitions) {
-		Object value = createResponseHeaderValue(key, property, definitions);
-		return new DslProperty<>(value);
+			SwaggerConversionContext context) {
+		Object value = createResponseHeaderValue(key, property, context);
+		return new DslProperty<>(
+				renderJson(value, context.getOptions().getBodySerialization()));
+	}
+
+	/**
+	 * Renders the Json trees of resolved references, also inside arrays, so the header
+	 * value only contains strings, numbers and booleans like the ones of x-example.
+	 */
+	private static Object renderJson(Object value, BodySerializationMode mode) {
+		if (value instanceof JsonNode) {
+			return JsonBodyRenderer.render((JsonNode) value, mode);
+		}
+		if (value instanceof Collection) {
+			List<Object> rendered = new ArrayList<>(((Collection<?>) value).size());
+			((Collection<?>) value).forEach(item -> rendered.add(renderJson(item, mode)));
+			return rendered;
+		}
+		return value;
 	}
 
 	/**
-	 * Creates a value for a response header property.
+	 * Creates a value for a response header property. A reference is resolved to its Json
+	 * tree. A reference to a recursive definition that is truncated has no value, and an
+	 * array of such references is empty. Properties without example or default value are
+	 * generated by the value generator of the options of the context.
 	 * @param key the key of the header
 	 * @param property the response header property
-	 * @param definitions the Swagger model definition
-	 * @return the value for the given response header property
+	 * @param context the conversion context with the Swagger model definitions
+	 * @return the value for the given response header property or null if it is truncated
 	 */
-	public Object createResponseHeaderValue(String key, Property property,
-			Map<String, Model> definitions) {
+	public static Object createResponseHeaderValue(String key, Property property,
+			SwaggerConversionContext context) {
+		Object example = createExampleValue(property);
+		if (example != null) {
+			return example;
+		}
+		PropertyValueGenerator generator = context != null
+				? context.getOptions().getValueGenerator() : DEFAULT_VALUE_GENERATOR;
+		return generator.createValue(key, property, context);
+	}
+
+	/**
+	 * Returns the example, x-example or default value of a property.
+	 * @param property the property
+	 * @return the value or null if the property has none, so it has to be generated
+	 */
+	public static Object createExampleValue(Property property) {
 		if (property.getExample() != null) {
 			return postFormatNumericValue(property, property.getExample());
 		}
@@ -67,40 +136,71 @@ public final class ResponseHeaderValueBuilder {
 			return postFormatNumericValue(property,
 					property.getVendorExtensions().get(SwaggerFields.X_EXAMPLE.field()));
 		}
-		Object defaultValue = getDefaultValue(property);
-		if (defaultValue != null) {
-			return defaultValue;
-		}
-		if (property instanceof RefProperty) {
-			RefProperty refProperty = (RefProperty) property;
-			String ref = refProperty.get$ref();
-			SwaggerReferenceResolver resolver = this.refFactory.getReferenceResolver(ref,
-					refProperty.getVendorExtensions());
-			return resolver.resolveReference(definitions);
-		}
-		if (property instanceof ArrayProperty) {
-			ArrayProperty arrayProperty = (ArrayProperty) property;
-			if (arrayProperty.getItems() == null) {
-				return new ArrayList<>(Collections.singleton(DEFAULT_INT));
-			}
-			else {
-				return new ArrayList<>(
-						Collections.singletonList(createResponseHeaderValue(key,
-								arrayProperty.getItems(), definitions)));
-			}
-		}
-		if (property instanceof AbstractNumericProperty) {
-			return this.numericPropertyValueBuilder
-					.createDefaultNumericValue((AbstractNumericProperty) property);
-		}
-		if (property instanceof BooleanProperty) {
-			return DEFAULT_BOOLEAN;
-		}
-		if (property instanceof StringProperty) {
-			StringProperty stringProperty = (StringProperty) property;
-			if (stringProperty.getEnum() != null) {
-				return stringProperty.getEnum().get(0);
-			}
+		return defaultValueOf(property);
+	}
+
+	/**
+	 * Creates the generator of the values of properties without example or default
+	 * value. It looks up the generator of the class of a property among the built-in
+	 * generators and the given generators, which replace the built-in generators of their
+	 * property types, and falls back to the key of the property.
+	 * @param generators the generators of custom property types
+	 * @return the generator of property values
+	 */
+	public static PropertyValueGenerator valueGenerator(
+			Map<Class<? extends Property>, PropertyValueGenerator> generators) {
+		if (generators.isEmpty()) {
+			return DEFAULT_VALUE_GENERATOR;
+		}
+		ClassDispatch<PropertyValueGenerator> dispatch = GENERATORS.copy();
+		generators.forEach(dispatch::register);
+		return valueGenerator(dispatch);
+	}
+
+	/**
+	 * Creates the value of an array from the value of its items. An array of a truncated
+	 * reference is empty.
+	 * @param item the value of the items or null if they are truncated
+	 * @return the array value
+	 */
+	public static List<Object> createArrayValue(Object item) {
+		return item != null ? new ArrayList<>(Collections.singletonList(item))
+				: new ArrayList<>();
+	}
+
+	private static PropertyValueGenerator valueGenerator(
+			ClassDispatch<PropertyValueGenerator> dispatch) {
+		return (key, property, context) -> {
+			PropertyValueGenerator generator = dispatch.get(property.getClass());
+			return generator != null ? generator.createValue(key, property, context)
+					: key;
+		};
+	}
+
+	private static Object createReferenceValue(String key, Property property,
+			SwaggerConversionContext context) {
+		RefProperty refProperty = (RefProperty) property;
+		String ref = refProperty.get$ref();
+		SwaggerReferenceResolver resolver = REF_FACTORY.getReferenceResolver(ref,
+				refProperty.getVendorExtensions());
+		return resolver.resolveReferenceNode(context);
+	}
+
+	private static Object createArrayValue(String key, Property property,
+			SwaggerConversionContext context) {
+		ArrayProperty arrayProperty = (ArrayProperty) property;
+		if (arrayProperty.getItems() == null) {
+			return new ArrayList<>(Collections.singleton(DEFAULT_INT));
+		}
+		return createArrayValue(
+				createResponseHeaderValue(key, arrayProperty.getItems(), context));
+	}
+
+	private static Object createStringValue(String key, Property property,
+			SwaggerConversionContext context) {
+		StringProperty stringProperty = (StringProperty) property;
+		if (stringProperty.getEnum() != null) {
+			return stringProperty.getEnum().get(0);
 		}
 		return key;
 	}
@@ -112,7 +212,7 @@ public final class ResponseHeaderValueBuilder {
 	 * @param value the value that could be a double
 	 * @return the formatted property
 	 */
-	private Object postFormatNumericValue(Property property, Object value) {
+	private static Object postFormatNumericValue(Property property, Object value) {
 		if (property.getFormat() == null) {
 			return value;
 		}
@@ -129,25 +229,12 @@ public final class ResponseHeaderValueBuilder {
 	 * @return the specified typed property or null if not matching subclass is found
 	 */
 	Object getDefaultValue(Property property) {
-		if (property instanceof DoubleProperty) {
-			return ((DoubleProperty) property).getDefault();
-		}
-		if (property instanceof FloatProperty) {
-			return ((FloatProperty) property).getDefault();
-		}
-		if (property instanceof LongProperty) {
-			return ((LongProperty) property).getDefault();
-		}
-		if (property instanceof IntegerProperty) {
-			return ((IntegerProperty) property).getDefault();
-		}
-		if (property instanceof BooleanProperty) {
-			return ((BooleanProperty) property).getDefault();
-		}
-		if (property instanceof StringProperty) {
-			return ((StringProperty) property).getDefault();
-		}
-		return null;
+		return defaultValueOf(property);
+	}
+
+	private static Object defaultValueOf(Property property) {
+		Function<Property, Object> defaultValue = DEFAULT_VALUES.get(property.getClass());
+		return defaultValue != null ? defaultValue.apply(property) : null;
 	}
 
 }
@@ -1,14 +1,16 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference;
 
-import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerFileFolder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ReferencedFileCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ValidationCache;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.BodySerializationMode;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.JsonBodyRenderer;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.JsonSchemaComparing;
-import io.swagger.models.Model;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.SchemaComparison;
+import com.fasterxml.jackson.databind.JsonNode;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Map;
 
 /**
  * Resolves external Json files that are referenced with x-ref fields in a Swagger
@@ -29,44 +31,101 @@ public class JsonFileResolverSwagger implements SwaggerReferenceResolver {
 		this.refResolverSwagger = new SwaggerDefinitionsRefResolverSwagger(reference);
 	}
 
+	/**
+	 * Reads the external Json file. In the pretty body serialization mode, the file is
+	 * used as it is, otherwise it is written again in the mode of the converter options.
+	 * @param context the conversion context with the Swagger model definitions
+	 * @return the Json of the external file
+	 */
 	@Override
-	public String resolveReference(Map<String, Model> definitions) {
-		Path swaggerFileFolder = SwaggerFileFolder.instance().getPathToSwaggerFile();
-		File pathToRef = new File(swaggerFileFolder.toString(), this.referenceFile);
-		if (!pathToRef.exists() || pathToRef.isDirectory()) {
-			throw new SwaggerContractConverterException(
-					"Swagger file must only referenceFile files that exist. Could not find file '"
-							+ pathToRef + "'");
+	public String resolveReference(SwaggerConversionContext context) {
+		String externalJson = readExternalJson(context);
+		BodySerializationMode mode = context.getOptions().getBodySerialization();
+		if (mode == BodySerializationMode.PRETTY) {
+			return externalJson;
 		}
-		String externalJson;
+		return JsonBodyRenderer.render(JsonBodyRenderer.parse(externalJson), mode);
+	}
+
+	@Override
+	public JsonNode resolveReferenceNode(SwaggerConversionContext context) {
+		return JsonBodyRenderer.parse(readExternalJson(context));
+	}
+
+	/**
+	 * Reads the external Json file through the referenced file cache and validates it.
+	 * @param context the conversion context with the Swagger model definitions
+	 * @return the Json of the external file
+	 */
+	private String readExternalJson(SwaggerConversionContext context) {
+		File pathToRef = new File(context.getSwaggerFolder().toString(),
+				this.referenceFile);
+		ReferencedFileCache.ReferencedFile externalFile;
 		try {
-			externalJson = new String(Files.readAllBytes(pathToRef.toPath()));
+			externalFile = context.getReferencedFileCache().readFile(pathToRef.toPath());
 		}
 		catch (IOException e) {
 			throw new SwaggerContractConverterException(
 					"Could not read external file '" + this.referenceFile + "'", e);
 		}
-		validateExternalJson(externalJson, definitions);
-		return externalJson;
+		if (externalFile == null) {
+			throw new SwaggerContractConverterException(
+					"Swagger file must only referenceFile files that exist. Could not find file '"
+							+ pathToRef + "'");
+		}
+		context.fileRead(pathToRef.toPath());
+		validateExternalJson(externalFile.getContent(), externalFile.getDigest(),
+				context);
+		return externalFile.getContent();
 	}
 
 	/**
 	 * Validates if the given Json from the external Json file matches the Swagger model
 	 * definitions.
 	 * @param externalJson the external Json
-	 * @param definitions the Swagger model definitions
+	 * @param context the conversion context with the Swagger model definitions
+	 */
+	void validateExternalJson(String externalJson, SwaggerConversionContext context) {
+		validateExternalJson(externalJson, ValidationCache.digest(externalJson), context);
+	}
+
+	/**
+	 * Validates if the given Json from the external Json file matches the Swagger model
+	 * definitions. A successful validation is recorded in the validation cache, so the
+	 * same file and definition are only compared once. The validation is keyed by the
+	 * digests that the definition cache and the referenced file cache keep, so a cached
+	 * validation neither writes nor digests the definition or the file again.
+	 * @param externalJson the external Json
+	 * @param externalDigest the digest of the external Json
+	 * @param context the conversion context with the Swagger model definitions
 	 */
-	void validateExternalJson(String externalJson, Map<String, Model> definitions) {
-		if (definitions == null || definitions.isEmpty()) {
+	private void validateExternalJson(String externalJson, String externalDigest,
+			SwaggerConversionContext context) {
+		if (context.getDefinitions() == null || context.getDefinitions().isEmpty()) {
 			return;
 		}
-		String resolvedJson = this.refResolverSwagger.resolveReference(definitions);
-		boolean isJsonEquals = this.jsonSchemaComparing.isEquals(resolvedJson,
+		JsonNode resolvedNode = this.refResolverSwagger.resolveReferenceNode(context);
+		String definitionName = this.refResolverSwagger.getReferenceName();
+		ValidationCache validationCache = context.getValidationCache();
+		String validation = resolvedNode != null
+				? ValidationCache.key(definitionName, context.getDefinitionCache()
+						.fingerprint(definitionName, resolvedNode), externalDigest)
+				: null;
+		if (validation != null && validationCache.isValidated(validation)) {
+			return;
+		}
+		String resolvedJson = resolvedNode != null ? JsonBodyRenderer.render(resolvedNode,
+				context.getOptions().getBodySerialization()) : null;
+		SchemaComparison comparison = this.jsonSchemaComparing.compare(resolvedJson,
 				externalJson);
-		if (!isJsonEquals) {
+		if (!comparison.isEqual()) {
 			throw new SwaggerContractConverterException(
-					"Swagger definitions and Json file should be equal but was not for:\nExpected:\n"
-							+ resolvedJson + "\n\nActual:\n" + externalJson);
+					"Swagger definitions and Json file should be equal but was not for:\n"
+							+ "Definition '" + definitionName + "' and file '"
+							+ this.referenceFile + "'\n" + comparison);
+		}
+		if (validation != null) {
+			validationCache.validated(validation);
 		}
 	}
 
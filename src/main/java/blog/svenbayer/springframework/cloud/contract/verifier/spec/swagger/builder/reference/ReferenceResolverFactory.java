@@ -22,8 +22,7 @@ public class ReferenceResolverFactory {
 			Map<String, Object> vendorExtensions) {
 		if (vendorExtensions != null && vendorExtensions.get(X_REF.field()) != null) {
 			String refFile = String.valueOf(vendorExtensions.get(X_REF.field()));
-			String cleanedUpRefFile = refFile.replaceAll("\\.\\/", "");
-			return new JsonFileResolverSwagger(cleanedUpRefFile, reference);
+			return new JsonFileResolverSwagger(cleanUpReferenceFile(refFile), reference);
 		}
 		else {
 			if (reference == null || reference.isEmpty()) {
@@ -35,4 +34,14 @@ public class ReferenceResolverFactory {
 
 	}
 
+	/**
+	 * Cleans up the path of an x-ref file, so it can be resolved relative to the folder
+	 * of the Swagger file.
+	 * @param referenceFile the value of the x-ref field
+	 * @return the cleaned-up path
+	 */
+	public static String cleanUpReferenceFile(String referenceFile) {
+		return referenceFile.replaceAll("\\.\\/", "");
+	}
+
 }
@@ -16,15 +16,19 @@
 
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference;
 
-import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.DefinitionExpansion;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.ResponseHeaderValueBuilder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.DefinitionCache;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.JsonBodyRenderer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.models.Model;
 import io.swagger.models.ModelImpl;
 import org.apache.commons.collections.CollectionUtils;
@@ -36,12 +40,6 @@ import org.apache.commons.collections.CollectionUtils;
  */
 public class SwaggerDefinitionsRefResolverSwagger implements SwaggerReferenceResolver {
 
-	private static final Map<String, String> REPLACEMENTS = Map.of("\\\\r\\\\n",
-			System.lineSeparator(), "\\\\n", "\n", "\\\\r", "\r", "\\\\\"", "\"", "\"\\{",
-			"{", "\\}\"", "}");
-
-	private final ResponseHeaderValueBuilder responseHeaderValueBuilder = new ResponseHeaderValueBuilder();
-
 	private final String reference;
 
 	public SwaggerDefinitionsRefResolverSwagger(String reference) {
@@ -50,51 +48,64 @@ public class SwaggerDefinitionsRefResolverSwagger implements SwaggerReferenceRes
 
 	/**
 	 * Creates a key-value representation for the given reference and Swagger model
-	 * definitions.
-	 * @param definitions the Swagger model definitions
+	 * definitions, written in the body serialization mode of the converter options.
+	 * @param context the conversion context with the Swagger model definitions
 	 * @return a json representation of the Swagger model definition
 	 */
 	@Override
-	public String resolveReference(final Map<String, Model> definitions) {
-		final Object json = resolveDefinitionsRef(this.reference, definitions);
+	public String resolveReference(final SwaggerConversionContext context) {
+		final JsonNode json = resolveReferenceNode(context);
+		return json != null ? JsonBodyRenderer.render(json,
+				context.getOptions().getBodySerialization()) : null;
+	}
 
-		if (json instanceof String) {
-			return String.valueOf(json);
+	/**
+	 * Creates the Json tree for the given reference and Swagger model definitions. Each
+	 * definition is only resolved once per conversion context. Recursive definitions are
+	 * expanded only once, and the expansion of a reference is bounded by the maximum
+	 * depth and number of definitions of the converter options, whether a definition is
+	 * cached or not.
+	 * @param context the conversion context with the Swagger model definitions
+	 * @return a json tree of the Swagger model definition or null if the reference is
+	 * truncated
+	 */
+	@Override
+	public JsonNode resolveReferenceNode(final SwaggerConversionContext context) {
+		final DefinitionCache definitionCache = context.getDefinitionCache();
+		final String referenceName = getReferenceName(this.reference);
+		final SwaggerConversionContext expansionContext = context
+				.withDefinitionExpansion();
+		final DefinitionExpansion expansion = expansionContext.getDefinitionExpansion();
+		JsonNode value = definitionCache.get(referenceName, expansion);
+		if (value != null) {
+			return value;
+		}
+		if (!expansion.enter(referenceName)) {
+			return null;
 		}
+		DefinitionExpansion.Subtree subtree;
 		try {
-			final ObjectMapper mapper = new ObjectMapper()
-					.enable(SerializationFeature.INDENT_OUTPUT);
-			final String jsonString = mapper.writeValueAsString(json);
-			final String cleanJson = cleanupJson(jsonString);
-			return mapper.writerWithDefaultPrettyPrinter()
-					.writeValueAsString(mapper.readTree(cleanJson));
+			value = resolveDefinitionsRef(this.reference, expansionContext);
 		}
-		catch (IOException e) {
-			throw new SwaggerContractConverterException("Could not parse jsonMap!", e);
+		finally {
+			subtree = expansion.leave(referenceName);
 		}
-	}
-
-	/**
-	 * Cleans up a json-field Json string.
-	 * @param jsonString the Json string that got mapped to often by ObjectMapper
-	 * @return the cleaned-up Json string
-	 */
-	private String cleanupJson(String jsonString) {
-		for (Map.Entry<String, String> repl : REPLACEMENTS.entrySet()) {
-			jsonString = jsonString.replaceAll(repl.getKey(), repl.getValue());
+		if (subtree != null) {
+			definitionCache.put(referenceName, value, subtree);
 		}
-		return jsonString;
+		return value;
 	}
 
 	/**
 	 * Resolves a Swagger reference with the given Swagger definitions.
 	 * @param reference the Swagger reference
-	 * @param definitions the Swagger definitions
-	 * @return the key-value representation of the Swagger reference
+	 * @param context the conversion context with the Swagger definitions
+	 * @return the Json tree of the Swagger reference
 	 */
-	private Object resolveDefinitionsRef(final String reference,
-			final Map<String, Model> definitions) {
-		final String referenceName = reference.substring(reference.lastIndexOf('/') + 1);
+	private JsonNode resolveDefinitionsRef(final String reference,
+			final SwaggerConversionContext context) {
+		final Map<String, Model> definitions = context.getDefinitions();
+		final String referenceName = getReferenceName(reference);
 		if (definitions == null) {
 			throw new SwaggerContractConverterException(
 					"Could not resolve reference '" + reference + "'");
@@ -108,15 +119,31 @@ public class SwaggerDefinitionsRefResolverSwagger implements SwaggerReferenceRes
 
 		if (isReferenceEnum(referenceModel)) {
 			ModelImpl referenceModelImpl = (ModelImpl) referenceModel;
-			return String
+			return JsonNodeFactory.instance.textNode(String
 					.valueOf(Optional.ofNullable(referenceModelImpl.getDefaultValue())
-							.orElse(referenceModelImpl.getEnum().get(0)));
+							.orElse(referenceModelImpl.getEnum().get(0))));
 		}
-		return definitions.get(referenceName).getProperties().entrySet().stream()
-				.collect(Collectors.toMap(Map.Entry::getKey,
-						entry -> this.responseHeaderValueBuilder
-								.createResponseHeaderValue(entry.getKey(),
-										entry.getValue(), definitions)));
+		// fields are written in the order of a hash map like previous versions did
+		final Map<String, JsonNode> fields = new HashMap<>();
+		referenceModel.getProperties()
+				.forEach((key, property) -> fields.put(key,
+						JsonBodyRenderer.toNode(ResponseHeaderValueBuilder
+								.createResponseHeaderValue(key, property, context))));
+		final ObjectNode json = JsonNodeFactory.instance.objectNode();
+		json.setAll(fields);
+		return json;
+	}
+
+	/**
+	 * Returns the name of the referenced model definition.
+	 * @return the definition name
+	 */
+	String getReferenceName() {
+		return getReferenceName(this.reference);
+	}
+
+	private String getReferenceName(final String reference) {
+		return reference.substring(reference.lastIndexOf('/') + 1);
 	}
 
 	private boolean isReferenceValid(final Model referenceModel) {
@@ -1,7 +1,7 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference;
 
-import io.swagger.models.Model;
-import java.util.Map;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
+import com.fasterxml.jackson.databind.JsonNode;
 
 /**
  * Resolves a swagger reference.
@@ -11,10 +11,18 @@ import java.util.Map;
 public interface SwaggerReferenceResolver {
 
 	/**
-	 * Resolves a swagger reference for the given Swagger definitions.
-	 * @param definitions the Swagger definitions
+	 * Resolves a swagger reference for the given conversion.
+	 * @param context the conversion context with the Swagger definitions
 	 * @return the json
 	 */
-	String resolveReference(Map<String, Model> definitions);
+	String resolveReference(SwaggerConversionContext context);
+
+	/**
+	 * Resolves a swagger reference as Json tree, so it can be nested into the tree of
+	 * another body without writing it first.
+	 * @param context the conversion context with the Swagger definitions
+	 * @return the json tree or null if the reference is truncated
+	 */
+	JsonNode resolveReferenceNode(SwaggerConversionContext context);
 
 }
@@ -0,0 +1,549 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ContractSnapshot;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ContractSnapshotCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A persistent cache of converted contracts that survives between builds.
+ * <p>
+ * Entries are addressed by a digest of the Swagger file content, the converter version
+ * and the converter configuration. The converter version is written into a resource by
+ * the build, together with the build time, which distinguishes the builds of a snapshot
+ * version. Without it, the cache is disabled, since entries of different builds of the
+ * converter could not be told apart. Every entry records the digests of the files the
+ * Swagger file references, so a change to a referenced file invalidates the entry. A
+ * corrupt or unreadable entry is treated as a miss and the cache never fails a
+ * conversion. The cache directory is pruned to its maximum size by removing the least
+ * recently used entries. The directory is scanned on the first store and afterwards only
+ * when a running estimate of its size exceeds the maximum size. A scan also removes
+ * temporary files that builds left behind when they were killed while storing.
+ * <p>
+ * Besides contracts, the cache records which x-ref files were already validated against
+ * their model definitions, so an unchanged pair is not compared again in the next build.
+ *
+ * @author Sven Bayer
+ */
+public class ConversionCache {
+
+	private static final Log LOG = LogFactory.getLog(ConversionCache.class);
+
+	static final int FORMAT_VERSION = 1;
+
+	static final String ENTRY_SUFFIX = ".contracts.gz";
+
+	static final String VALIDATION_SUFFIX = ".validation";
+
+	static final String TEMP_SUFFIX = ".tmp";
+
+	static final long TEMP_FILE_GRACE_PERIOD = TimeUnit.MINUTES.toMillis(5);
+
+	private static final String VERSION_RESOURCE = "converter-version.properties";
+
+	private static final String CONVERTER_VERSION = readConverterVersion();
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final ContractSnapshotCodec codec = new ContractSnapshotCodec();
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	private final String configuration;
+
+	private final String converterVersion;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * The estimated size of the cache directory or -1 before the first scan.
+	 */
+	private final AtomicLong estimatedSize = new AtomicLong(-1);
+
+	/**
+	 * Creates a cache in the given directory.
+	 * @param directory the cache directory, created on first store
+	 * @param maxSize the size in bytes the cache directory is pruned to
+	 * @param configuration the converter configuration that affects the conversion
+	 */
+	public ConversionCache(Path directory, long maxSize, String configuration) {
+		this(directory, maxSize, configuration, CONVERTER_VERSION);
+	}
+
+	/**
+	 * Creates a cache in the given directory for the given converter version.
+	 * @param directory the cache directory, created on first store
+	 * @param maxSize the size in bytes the cache directory is pruned to
+	 * @param configuration the converter configuration that affects the conversion
+	 * @param converterVersion the converter version or null to disable the cache
+	 */
+	ConversionCache(Path directory, long maxSize, String configuration,
+			String converterVersion) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.configuration = configuration;
+		this.converterVersion = converterVersion;
+		if (converterVersion == null) {
+			LOG.warn("The conversion cache in '" + directory
+					+ "' is disabled, since the converter version is unknown");
+		}
+	}
+
+	/**
+	 * Returns if the cache is used, which requires a known converter version.
+	 * @return true if entries are looked up and stored
+	 */
+	public boolean isEnabled() {
+		return this.converterVersion != null;
+	}
+
+	/**
+	 * Checks if there is an entry for the given Swagger file without reading it. The
+	 * entry may still be outdated if a referenced file changed.
+	 * @param swaggerFile the Swagger file
+	 * @return true if an entry exists
+	 */
+	public boolean contains(File swaggerFile) {
+		if (!isEnabled()) {
+			return false;
+		}
+		try {
+			return Files.isRegularFile(entryFor(swaggerFile.toPath()));
+		}
+		catch (IOException | RuntimeException e) {
+			LOG.debug(
+					"Could not check the conversion cache entry of '" + swaggerFile + "'",
+					e);
+			return false;
+		}
+	}
+
+	/**
+	 * Looks up the contracts of the given Swagger file.
+	 * @param swaggerFile the Swagger file
+	 * @return the contract snapshots or null if there is no valid entry
+	 */
+	public List<ContractSnapshot> lookup(File swaggerFile) {
+		if (!isEnabled()) {
+			this.misses.incrementAndGet();
+			return null;
+		}
+		try {
+			Path entry = entryFor(swaggerFile.toPath());
+			if (!Files.isRegularFile(entry)) {
+				this.misses.incrementAndGet();
+				return null;
+			}
+			JsonNode root;
+			try (InputStream in = new GZIPInputStream(Files.newInputStream(entry))) {
+				root = this.mapper.readTree(in);
+			}
+			if (root == null || root.path("format").intValue() != FORMAT_VERSION
+					|| !referencesUnchanged(swaggerFile.toPath(),
+							root.path("references"))) {
+				this.misses.incrementAndGet();
+				return null;
+			}
+			List<ContractSnapshot> snapshots = this.codec.read(root.path("contracts"));
+			Files.setLastModifiedTime(entry,
+					FileTime.fromMillis(System.currentTimeMillis()));
+			this.hits.incrementAndGet();
+			return snapshots;
+		}
+		catch (IOException | RuntimeException e) {
+			LOG.debug(
+					"Could not read the conversion cache entry of '" + swaggerFile + "'",
+					e);
+			this.misses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the contracts of the given Swagger file. Failures are logged and ignored.
+	 * @param swaggerFile the Swagger file
+	 * @param snapshots the contract snapshots
+	 * @param readFiles the files the conversion read besides the Swagger file, like the
+	 * Json files of x-ref fields
+	 */
+	public void store(File swaggerFile, List<ContractSnapshot> snapshots,
+			Collection<Path> readFiles) {
+		if (!isEnabled()) {
+			return;
+		}
+		Path temp = null;
+		try {
+			Path swaggerPath = swaggerFile.toPath();
+			byte[] content = Files.readAllBytes(swaggerPath);
+			Path entry = entryFor(content);
+			Map<Path, String> references = ReferencedFiles.collect(swaggerPath, content,
+					readFiles);
+			Files.createDirectories(this.directory);
+			temp = Files.createTempFile(this.directory, "entry", TEMP_SUFFIX);
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp));
+					JsonGenerator generator = this.mapper.getFactory()
+							.createGenerator(out)) {
+				generator.writeStartObject();
+				generator.writeNumberField("format", FORMAT_VERSION);
+				generator.writeArrayFieldStart("references");
+				Path swaggerFolder = swaggerPath.toAbsolutePath().normalize().getParent();
+				for (Map.Entry<Path, String> reference : references.entrySet()) {
+					generator.writeStartObject();
+					generator.writeStringField("path",
+							swaggerFolder.relativize(reference.getKey()).toString()
+									.replace(File.separatorChar, '/'));
+					generator.writeStringField("digest", reference.getValue());
+					generator.writeEndObject();
+				}
+				generator.writeEndArray();
+				generator.writeFieldName("contracts");
+				this.codec.write(snapshots, generator);
+				generator.writeEndObject();
+			}
+			move(temp, entry);
+			temp = null;
+			grown(Files.size(entry));
+		}
+		catch (IOException | RuntimeException e) {
+			LOG.debug(
+					"Could not store the conversion cache entry of '" + swaggerFile + "'",
+					e);
+		}
+		finally {
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				}
+				catch (IOException ignore) {
+					// a stale temporary file is removed by a later prune
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if the validation with the given key succeeded in an earlier build.
+	 * @param validation the key of the validation
+	 * @return true if the validation is recorded
+	 */
+	public boolean isValidated(String validation) {
+		if (!isEnabled()) {
+			return false;
+		}
+		try {
+			Path marker = markerFor(validation);
+			if (!Files.isRegularFile(marker)) {
+				return false;
+			}
+			Files.setLastModifiedTime(marker,
+					FileTime.fromMillis(System.currentTimeMillis()));
+			return true;
+		}
+		catch (IOException | RuntimeException e) {
+			LOG.debug("Could not read the validation cache entry '" + validation + "'",
+					e);
+			return false;
+		}
+	}
+
+	/**
+	 * Records a successful validation. Failures are logged and ignored.
+	 * @param validation the key of the validation
+	 */
+	public void storeValidation(String validation) {
+		if (!isEnabled()) {
+			return;
+		}
+		Path temp = null;
+		try {
+			Path marker = markerFor(validation);
+			if (Files.isRegularFile(marker)) {
+				return;
+			}
+			Files.createDirectories(this.directory);
+			temp = Files.createTempFile(this.directory, "validation", TEMP_SUFFIX);
+			Files.write(temp, validation.getBytes(StandardCharsets.UTF_8));
+			move(temp, marker);
+			temp = null;
+			grown(Files.size(marker));
+		}
+		catch (IOException | RuntimeException e) {
+			LOG.debug("Could not store the validation cache entry '" + validation + "'",
+					e);
+		}
+		finally {
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				}
+				catch (IOException ignore) {
+					// a stale temporary file is removed by a later prune
+				}
+			}
+		}
+	}
+
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Returns the entry file of the given Swagger file.
+	 */
+	private Path entryFor(Path swaggerFile) throws IOException {
+		return entryFor(Files.readAllBytes(swaggerFile));
+	}
+
+	/**
+	 * Returns the entry file of a Swagger file with the given content.
+	 */
+	private Path entryFor(byte[] content) {
+		MessageDigest digest = sha256();
+		digest.update(this.converterVersion.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(this.configuration.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(content);
+		return this.directory.resolve(hex(digest.digest()) + ENTRY_SUFFIX);
+	}
+
+	/**
+	 * Returns the marker file of the given validation.
+	 */
+	private Path markerFor(String validation) {
+		MessageDigest digest = sha256();
+		digest.update(this.converterVersion.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(validation.getBytes(StandardCharsets.UTF_8));
+		return this.directory.resolve(hex(digest.digest()) + VALIDATION_SUFFIX);
+	}
+
+	private boolean referencesUnchanged(Path swaggerFile, JsonNode references)
+			throws IOException {
+		Path swaggerFolder = swaggerFile.toAbsolutePath().normalize().getParent();
+		for (JsonNode reference : references) {
+			Path path = swaggerFolder.resolve(reference.path("path").asText())
+					.normalize();
+			if (!digestOf(path).equals(reference.path("digest").asText())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the digest of the given file or an empty string if the file is missing.
+	 */
+	static String digestOf(Path file) throws IOException {
+		if (!Files.isRegularFile(file)) {
+			return "";
+		}
+		return hex(sha256().digest(Files.readAllBytes(file)));
+	}
+
+	private void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Adds the size of a stored file to the estimated size and prunes the cache if it may
+	 * no longer fit its maximum size.
+	 */
+	private void grown(long size) throws IOException {
+		long estimate = this.estimatedSize
+				.updateAndGet(current -> current < 0 ? current : current + size);
+		if (estimate < 0 || estimate > this.maxSize) {
+			prune();
+		}
+	}
+
+	/**
+	 * Removes stale temporary files and the least recently used entries until the cache
+	 * fits its maximum size.
+	 */
+	private synchronized void prune() throws IOException {
+		List<Path> files;
+		try (Stream<Path> list = Files.list(this.directory)) {
+			files = list.collect(Collectors.toList());
+		}
+		long staleBefore = System.currentTimeMillis() - TEMP_FILE_GRACE_PERIOD;
+		List<CacheEntry> cacheEntries = new ArrayList<>(files.size());
+		long totalSize = 0;
+		for (Path file : files) {
+			try {
+				CacheEntry cacheEntry = new CacheEntry(file, Files.size(file),
+						Files.getLastModifiedTime(file).toMillis());
+				if (isTempFile(file)) {
+					if (cacheEntry.lastUsed < staleBefore) {
+						Files.deleteIfExists(file);
+					}
+					else {
+						totalSize += cacheEntry.size;
+					}
+				}
+				else if (isCacheFile(file)) {
+					cacheEntries.add(cacheEntry);
+					totalSize += cacheEntry.size;
+				}
+			}
+			catch (IOException ignore) {
+				// removed concurrently
+			}
+		}
+		cacheEntries.sort(Comparator.comparingLong(cacheEntry -> cacheEntry.lastUsed));
+		for (CacheEntry cacheEntry : cacheEntries) {
+			if (totalSize <= this.maxSize) {
+				break;
+			}
+			Files.deleteIfExists(cacheEntry.path);
+			totalSize -= cacheEntry.size;
+		}
+		this.estimatedSize.set(totalSize);
+	}
+
+	private static boolean isCacheFile(Path file) {
+		String fileName = file.getFileName().toString();
+		return fileName.endsWith(ENTRY_SUFFIX) || fileName.endsWith(VALIDATION_SUFFIX);
+	}
+
+	private static boolean isTempFile(Path file) {
+		return file.getFileName().toString().endsWith(TEMP_SUFFIX);
+	}
+
+	/**
+	 * Reads the converter version that the build writes into the version resource.
+	 * @return the version or null if the resource is missing or was not filtered
+	 */
+	static String readConverterVersion() {
+		try (InputStream in = ConversionCache.class
+				.getResourceAsStream(VERSION_RESOURCE)) {
+			if (in == null) {
+				return null;
+			}
+			Properties properties = new Properties();
+			properties.load(in);
+			return converterVersion(properties);
+		}
+		catch (IOException e) {
+			LOG.debug("Could not read the converter version", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the converter version of the given version properties. A snapshot version
+	 * is only known together with the time of its build, since every build of a snapshot
+	 * may convert differently.
+	 * @param properties the version properties
+	 * @return the version or null if the properties were not filtered
+	 */
+	static String converterVersion(Properties properties) {
+		String version = properties.getProperty("version");
+		if (!isFiltered(version)) {
+			return null;
+		}
+		if (!version.endsWith("-SNAPSHOT")) {
+			return version;
+		}
+		String build = properties.getProperty("build");
+		return isFiltered(build) ? version + '+' + build : null;
+	}
+
+	private static boolean isFiltered(String value) {
+		return value != null && !value.isEmpty() && !value.contains("${");
+	}
+
+	static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	static String hex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(chars);
+	}
+
+	private static final class CacheEntry {
+
+		private final Path path;
+
+		private final long size;
+
+		private final long lastUsed;
+
+		private CacheEntry(Path path, long size, long lastUsed) {
+			this.path = path;
+			this.size = size;
+			this.lastUsed = lastUsed;
+		}
+
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.DefinitionExpansion;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.BodySerializationMode;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Cache of the Json trees of the model definitions of a single Swagger document, so a
+ * definition that is referenced by many operations is only resolved once.
+ * <p>
+ * Resolving a definition resolves the definitions it references, so values are looked up
+ * and stored separately instead of being computed inside the map. Two threads may
+ * therefore resolve the same definition at the same time, which is harmless since they
+ * build the same tree.
+ * <p>
+ * Only completely expanded definitions are stored, together with the shape of their
+ * expansion. A value is only served where expanding the definition again would give the
+ * same tree, so the maximum depth and node budget of an expansion hold for cached values
+ * too.
+ *
+ * @author Sven Bayer
+ */
+public final class DefinitionCache {
+
+	private final Map<String, Entry> values = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Returns the Json tree of the given definition, if it may be reused by the given
+	 * expansion.
+	 * @param definitionName the name of the model definition
+	 * @param expansion the expansion the definition is referenced from
+	 * @return the Json tree or null if the definition was not resolved yet or would be
+	 * truncated by the expansion
+	 */
+	public JsonNode get(String definitionName, DefinitionExpansion expansion) {
+		Entry entry = this.values.get(definitionName);
+		if (entry != null && expansion.reuse(entry.subtree)) {
+			this.hits.incrementAndGet();
+			return entry.value;
+		}
+		this.misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Stores the Json tree of the given definition. The tree must not be modified
+	 * afterwards, since it is shared by every body that references the definition.
+	 * @param definitionName the name of the model definition
+	 * @param value the Json tree
+	 * @param subtree the completely expanded subtree of the definition
+	 */
+	public void put(String definitionName, JsonNode value,
+			DefinitionExpansion.Subtree subtree) {
+		this.values.put(definitionName, new Entry(value, subtree));
+	}
+
+	/**
+	 * Returns the digest of the canonical Json of a resolved definition. The digest of a
+	 * cached tree is computed only once, the digest of any other tree every time.
+	 * @param definitionName the name of the model definition
+	 * @param value the Json tree of the definition
+	 * @return the digest of the definition
+	 */
+	public String fingerprint(String definitionName, JsonNode value) {
+		Entry entry = this.values.get(definitionName);
+		if (entry == null || entry.value != value) {
+			return fingerprintOf(value);
+		}
+		String fingerprint = entry.fingerprint;
+		if (fingerprint == null) {
+			fingerprint = fingerprintOf(value);
+			entry.fingerprint = fingerprint;
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the number of resolved definitions.
+	 * @return the number of cached definitions
+	 */
+	public int size() {
+		return this.values.size();
+	}
+
+	/**
+	 * Returns how often a definition was served from the cache.
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns how often a definition had to be resolved.
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	private static String fingerprintOf(JsonNode value) {
+		return ValidationCache.digest(BodySerializationMode.CANONICAL.write(value));
+	}
+
+	@Override
+	public String toString() {
+		return "DefinitionCache{definitions=" + size() + ", hits=" + getHits()
+				+ ", misses=" + getMisses() + "}";
+	}
+
+	private static final class Entry {
+
+		private final JsonNode value;
+
+		private final DefinitionExpansion.Subtree subtree;
+
+		private volatile String fingerprint;
+
+		private Entry(JsonNode value, DefinitionExpansion.Subtree subtree) {
+			this.value = value;
+			this.subtree = subtree;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of the compiled patterns of parameters, so a regex that many parameters
+ * share is only compiled once. Compiled patterns are immutable and can be shared by
+ * contracts that are built on different threads. The least recently used patterns are
+ * dropped once the cache holds the maximum number of patterns.
+ *
+ * @author Sven Bayer
+ */
+public final class PatternCache {
+
+	/**
+	 * The default maximum number of cached patterns.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	private final Map<String, Pattern> patterns;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	public PatternCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public PatternCache(int maxSize) {
+		if (maxSize < 0) {
+			throw new IllegalArgumentException(
+					"The maximum number of cached patterns must not be negative");
+		}
+		this.patterns = new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+				return size() > maxSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Returns the compiled pattern of the given regex, compiling it only if it is not
+	 * cached.
+	 * @param regex the regex
+	 * @return the compiled pattern
+	 * @throws java.util.regex.PatternSyntaxException if the regex is invalid
+	 */
+	public Pattern compile(String regex) {
+		synchronized (this.patterns) {
+			Pattern pattern = this.patterns.get(regex);
+			if (pattern != null) {
+				this.hits.incrementAndGet();
+				return pattern;
+			}
+		}
+		this.misses.incrementAndGet();
+		Pattern pattern = Pattern.compile(regex);
+		synchronized (this.patterns) {
+			Pattern cached = this.patterns.putIfAbsent(regex, pattern);
+			return cached != null ? cached : pattern;
+		}
+	}
+
+	/**
+	 * Returns the number of cached patterns.
+	 * @return the number of patterns
+	 */
+	public int size() {
+		synchronized (this.patterns) {
+			return this.patterns.size();
+		}
+	}
+
+	/**
+	 * Returns how often a pattern was served from the cache.
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns how often a pattern had to be compiled.
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "PatternCache{patterns=" + size() + ", hits=" + getHits() + ", misses="
+				+ getMisses() + "}";
+	}
+
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the decoded content of files that are referenced with x-ref fields, so
+ * a file referenced by many operations is only read once.
+ * <p>
+ * Entries are keyed by the real path, the size and the last modified time of the file, so
+ * a changed file is always read again. Files are decoded as UTF-8, and files larger than
+ * {@value #READ_BUFFER_SIZE} bytes are decoded while they are read, so their bytes are
+ * never held in memory next to their content. The least recently used files are dropped
+ * once the cached contents are longer than the maximum size in total.
+ *
+ * @author Sven Bayer
+ */
+public final class ReferencedFileCache {
+
+	/**
+	 * The default maximum length of all cached contents in characters, 64 M.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * The size of the buffers that larger files are decoded with.
+	 */
+	static final int READ_BUFFER_SIZE = 64 * 1024;
+
+	private final long maxSize;
+
+	private final Map<FileKey, ReferencedFile> contents = new LinkedHashMap<>(16, 0.75f,
+			true);
+
+	private long totalSize;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	public ReferencedFileCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public ReferencedFileCache(long maxSize) {
+		if (maxSize < 0) {
+			throw new IllegalArgumentException(
+					"The maximum size of cached files must not be negative");
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the content of the given file, reading it only if it was not cached or has
+	 * changed.
+	 * @param file the referenced file
+	 * @return the UTF-8 decoded content or null if the file is not a regular file
+	 * @throws IOException if the file could not be read
+	 */
+	public String read(Path file) throws IOException {
+		ReferencedFile referencedFile = readFile(file);
+		return referencedFile != null ? referencedFile.getContent() : null;
+	}
+
+	/**
+	 * Returns the given file with its content and digest, reading it only if it was not
+	 * cached or has changed.
+	 * @param file the referenced file
+	 * @return the file or null if the file is not a regular file
+	 * @throws IOException if the file could not be read
+	 */
+	public ReferencedFile readFile(Path file) throws IOException {
+		FileKey key = FileKey.of(file);
+		if (key == null) {
+			return null;
+		}
+		synchronized (this.contents) {
+			ReferencedFile referencedFile = this.contents.get(key);
+			if (referencedFile != null) {
+				this.hits.incrementAndGet();
+				return referencedFile;
+			}
+		}
+		this.misses.incrementAndGet();
+		ReferencedFile referencedFile = new ReferencedFile(decode(key.path, key.size));
+		long length = referencedFile.getContent().length();
+		if (length <= this.maxSize) {
+			synchronized (this.contents) {
+				ReferencedFile replaced = this.contents.put(key, referencedFile);
+				this.totalSize += length
+						- (replaced != null ? replaced.getContent().length() : 0);
+				evict();
+			}
+		}
+		return referencedFile;
+	}
+
+	/**
+	 * Decodes the given file as UTF-8. Larger files are decoded chunk by chunk while they
+	 * are read.
+	 */
+	private static String decode(Path file, long size) throws IOException {
+		if (size <= READ_BUFFER_SIZE) {
+			return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+		}
+		CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		StringBuilder content = new StringBuilder(
+				(int) Math.min(size, Integer.MAX_VALUE - 8));
+		ByteBuffer bytes = ByteBuffer.allocate(READ_BUFFER_SIZE);
+		CharBuffer chars = CharBuffer.allocate(READ_BUFFER_SIZE);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			boolean endOfInput = false;
+			while (!endOfInput) {
+				endOfInput = channel.read(bytes) < 0;
+				bytes.flip();
+				CoderResult result;
+				do {
+					result = decoder.decode(bytes, chars, endOfInput);
+					append(content, chars);
+				}
+				while (result.isOverflow());
+				bytes.compact();
+			}
+		}
+		CoderResult result;
+		do {
+			result = decoder.flush(chars);
+			append(content, chars);
+		}
+		while (result.isOverflow());
+		return content.toString();
+	}
+
+	private static void append(StringBuilder content, CharBuffer chars) {
+		chars.flip();
+		content.append(chars);
+		chars.clear();
+	}
+
+	/**
+	 * Drops the least recently used files, including older versions of changed files,
+	 * until the cached contents fit into the maximum size.
+	 */
+	private void evict() {
+		Iterator<ReferencedFile> files = this.contents.values().iterator();
+		while (this.totalSize > this.maxSize && files.hasNext()) {
+			this.totalSize -= files.next().getContent().length();
+			files.remove();
+		}
+	}
+
+	/**
+	 * Returns the number of cached files.
+	 * @return the number of cached files
+	 */
+	public int size() {
+		synchronized (this.contents) {
+			return this.contents.size();
+		}
+	}
+
+	/**
+	 * Returns the length of the contents of all cached files.
+	 * @return the length of the cached contents in characters
+	 */
+	public long getTotalSize() {
+		synchronized (this.contents) {
+			return this.totalSize;
+		}
+	}
+
+	/**
+	 * Returns how often a file was served from the cache.
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns how often a file had to be read.
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	/**
+	 * The content of a referenced file and its digest, which is computed on first use.
+	 */
+	public static final class ReferencedFile {
+
+		private final String content;
+
+		private volatile String digest;
+
+		private ReferencedFile(String content) {
+			this.content = content;
+		}
+
+		/**
+		 * Returns the UTF-8 decoded content of the file.
+		 * @return the content
+		 */
+		public String getContent() {
+			return this.content;
+		}
+
+		/**
+		 * Returns the digest of the content, computing it only once.
+		 * @return the hex encoded SHA-256 digest of the content
+		 */
+		public String getDigest() {
+			String digest = this.digest;
+			if (digest == null) {
+				digest = ValidationCache.digest(this.content);
+				this.digest = digest;
+			}
+			return digest;
+		}
+
+	}
+
+	/**
+	 * Identifies a version of a file by its real path, size and last modified time.
+	 */
+	private static final class FileKey {
+
+		private final Path path;
+
+		private final long size;
+
+		private final long lastModified;
+
+		private FileKey(Path path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Creates the key for the current version of the given file.
+		 * @param file the file
+		 * @return the key or null if the file is not a regular file
+		 * @throws IOException if the real path of an existing file cannot be resolved
+		 */
+		static FileKey of(Path file) throws IOException {
+			BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			}
+			catch (IOException e) {
+				return null;
+			}
+			if (!attributes.isRegularFile()) {
+				return null;
+			}
+			return new FileKey(file.toRealPath(), attributes.size(),
+					attributes.lastModifiedTime().toMillis());
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof FileKey)) {
+				return false;
+			}
+			FileKey that = (FileKey) o;
+			return this.size == that.size && this.lastModified == that.lastModified
+					&& this.path.equals(that.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.path, this.size, this.lastModified);
+		}
+
+	}
+
+}
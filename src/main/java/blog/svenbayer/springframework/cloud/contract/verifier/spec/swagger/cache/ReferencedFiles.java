@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects the digests of all files the conversion of a Swagger file depends on: the
+ * files the conversion read, like the Json files of {@code x-ref} fields, and remote
+ * {@code $ref} documents, transitively.
+ * <p>
+ * Remote documents are resolved by the Swagger parser, so they are found by scanning the
+ * text of the documents for {@code $ref} values instead of parsing them again. The scan
+ * may find more documents than the parser reads, for instance in comments, which only
+ * invalidates an entry more often.
+ *
+ * @author Sven Bayer
+ */
+final class ReferencedFiles {
+
+	private static final Pattern REF = Pattern
+			.compile("[\"']?\\$ref[\"']?\\s*:\\s*[\"']?([^\"'#\\s,}]+)");
+
+	private ReferencedFiles() {
+	}
+
+	/**
+	 * Collects the digests of the files the given Swagger file depends on.
+	 * @param swaggerFile the Swagger file
+	 * @param content the content of the Swagger file
+	 * @param readFiles the files the conversion of the Swagger file read
+	 * @return the digests of the referenced files by their path, without the Swagger
+	 * file itself
+	 * @throws IOException if a document could not be read
+	 */
+	static Map<Path, String> collect(Path swaggerFile, byte[] content,
+			Collection<Path> readFiles) throws IOException {
+		Path root = swaggerFile.toAbsolutePath().normalize();
+		Map<Path, String> files = new LinkedHashMap<>();
+		for (Path readFile : readFiles) {
+			Path file = readFile.toAbsolutePath().normalize();
+			if (!file.equals(root)) {
+				files.putIfAbsent(file, ConversionCache.digestOf(file));
+			}
+		}
+		Deque<Path> documents = new ArrayDeque<>();
+		documents.push(root);
+		byte[] documentContent = content;
+		while (!documents.isEmpty()) {
+			Path document = documents.pop();
+			if (documentContent == null) {
+				documentContent = Files.readAllBytes(document);
+				files.put(document, ConversionCache.hex(
+						ConversionCache.sha256().digest(documentContent)));
+			}
+			Matcher ref = REF.matcher(new String(documentContent, StandardCharsets.UTF_8));
+			while (ref.find()) {
+				Path remote = remoteDocument(document, ref.group(1));
+				if (remote == null || remote.equals(root) || files.containsKey(remote)) {
+					continue;
+				}
+				if (Files.isRegularFile(remote)) {
+					documents.push(remote);
+				}
+				files.put(remote, "");
+			}
+			documentContent = null;
+		}
+		return files;
+	}
+
+	/**
+	 * Returns the document of a remote reference.
+	 * @return the referenced document or null if it is an url reference
+	 */
+	private static Path remoteDocument(Path document, String location) {
+		if (location.contains("://")) {
+			return null;
+		}
+		return document.getParent().resolve(location).normalize();
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import io.swagger.models.Swagger;
+
+/**
+ * Bounded cache of parsed Swagger documents, so that a file parsed by {@code isAccepted}
+ * does not have to be parsed again by {@code convertFrom}.
+ * <p>
+ * Entries are keyed by the absolute path, the size and the last modified time of the
+ * file, so a changed file is always parsed again. The least recently used entry is
+ * dropped once more than the maximum number of documents are cached.
+ *
+ * @author Sven Bayer
+ */
+public final class SwaggerDocumentCache {
+
+	/**
+	 * The default maximum number of cached documents.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 32;
+
+	private final Map<DocumentKey, Swagger> documents;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	public SwaggerDocumentCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	public SwaggerDocumentCache(int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException(
+					"The maximum number of cached documents must be positive");
+		}
+		this.documents = new LinkedHashMap<DocumentKey, Swagger>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<DocumentKey, Swagger> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached document for the given file or loads it with the given loader.
+	 * Documents the loader could not parse are not cached.
+	 * @param file the Swagger file
+	 * @param loader loads the document from the path of the file
+	 * @return the document or null if the loader could not parse the file
+	 */
+	public Swagger getOrLoad(File file, Function<String, Swagger> loader) {
+		DocumentKey key = DocumentKey.of(file);
+		if (key == null) {
+			this.misses.incrementAndGet();
+			return loader.apply(file.getPath());
+		}
+		synchronized (this.documents) {
+			Swagger swagger = this.documents.get(key);
+			if (swagger != null) {
+				this.hits.incrementAndGet();
+				return swagger;
+			}
+		}
+		this.misses.incrementAndGet();
+		Swagger swagger = loader.apply(file.getPath());
+		if (swagger != null) {
+			synchronized (this.documents) {
+				this.documents.put(key, swagger);
+			}
+		}
+		return swagger;
+	}
+
+	/**
+	 * Removes all cached documents of the given file.
+	 * @param file the Swagger file
+	 */
+	public void evict(File file) {
+		Path path = file.toPath().toAbsolutePath().normalize();
+		synchronized (this.documents) {
+			this.documents.keySet().removeIf(key -> key.path.equals(path));
+		}
+	}
+
+	/**
+	 * Returns the number of cached documents.
+	 * @return the number of cached documents
+	 */
+	public int size() {
+		synchronized (this.documents) {
+			return this.documents.size();
+		}
+	}
+
+	/**
+	 * Returns how often a document was served from the cache.
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns how often a document had to be parsed.
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Identifies a version of a file by its path, size and last modified time.
+	 */
+	private static final class DocumentKey {
+
+		private final Path path;
+
+		private final long size;
+
+		private final long lastModified;
+
+		private DocumentKey(Path path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Creates the key for the current version of the given file.
+		 * @param file the file
+		 * @return the key or null if the file is not a readable regular file
+		 */
+		static DocumentKey of(File file) {
+			Path path = file.toPath().toAbsolutePath().normalize();
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(path,
+						BasicFileAttributes.class);
+				if (!attributes.isRegularFile()) {
+					return null;
+				}
+				return new DocumentKey(path, attributes.size(),
+						attributes.lastModifiedTime().toMillis());
+			}
+			catch (IOException e) {
+				return null;
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof DocumentKey)) {
+				return false;
+			}
+			DocumentKey that = (DocumentKey) o;
+			return this.size == that.size && this.lastModified == that.lastModified
+					&& this.path.equals(that.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.path, this.size, this.lastModified);
+		}
+
+	}
+
+}
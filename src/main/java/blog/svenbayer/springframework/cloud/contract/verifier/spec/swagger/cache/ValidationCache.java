@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the successful validations of x-ref files against the model definitions they
+ * reference, so a file that is referenced by many operations is only compared once.
+ * <p>
+ * A validation is keyed by the name of the definition, a digest of the resolved
+ * definition and a digest of the file content. Both digests are computed once and kept
+ * next to the definition in the {@link DefinitionCache} and next to the file content in
+ * the {@link ReferencedFileCache}. A changed definition or file therefore never reuses an
+ * earlier result, which allows the cache to be shared by all conversions of a converter.
+ * If a {@link ConversionCache} is given, validations are also recorded there and survive
+ * between builds. Failed validations are never cached.
+ *
+ * @author Sven Bayer
+ */
+public final class ValidationCache {
+
+	private final Set<String> validations = ConcurrentHashMap.newKeySet();
+
+	private final ConversionCache conversionCache;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates a cache that keeps the validations of the current build only.
+	 */
+	public ValidationCache() {
+		this(null);
+	}
+
+	/**
+	 * Creates a cache that also records the validations in the given conversion cache.
+	 * @param conversionCache the persistent cache or null to keep validations in memory
+	 * only
+	 */
+	public ValidationCache(ConversionCache conversionCache) {
+		this.conversionCache = conversionCache;
+	}
+
+	/**
+	 * Creates the key of a validation.
+	 * @param definitionName the name of the model definition
+	 * @param definitionDigest the digest of the canonical Json of the resolved definition
+	 * @param contentDigest the digest of the content of the x-ref file
+	 * @return the key of the validation
+	 */
+	public static String key(String definitionName, String definitionDigest,
+			String contentDigest) {
+		return definitionName + ':' + definitionDigest + ':' + contentDigest;
+	}
+
+	/**
+	 * Returns the SHA-256 digest of a definition fingerprint or file content as used in
+	 * the keys of validations.
+	 * @param value the text to digest
+	 * @return the hex encoded digest
+	 */
+	public static String digest(String value) {
+		MessageDigest digest = ConversionCache.sha256();
+		return ConversionCache.hex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Checks if the validation with the given key already succeeded.
+	 * @param validation the key of the validation
+	 * @return true if the validation does not have to be repeated
+	 */
+	public boolean isValidated(String validation) {
+		if (this.validations.contains(validation)) {
+			this.hits.incrementAndGet();
+			return true;
+		}
+		if (this.conversionCache != null
+				&& this.conversionCache.isValidated(validation)) {
+			this.validations.add(validation);
+			this.hits.incrementAndGet();
+			return true;
+		}
+		this.misses.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Records a successful validation.
+	 * @param validation the key of the validation
+	 */
+	public void validated(String validation) {
+		if (this.validations.add(validation) && this.conversionCache != null) {
+			this.conversionCache.storeValidation(validation);
+		}
+	}
+
+	/**
+	 * Returns the number of successful validations of this build.
+	 * @return the number of cached validations
+	 */
+	public int size() {
+		return this.validations.size();
+	}
+
+	/**
+	 * Returns how often a validation was skipped.
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns how often a validation had to be done.
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationCache{validations=" + size() + ", hits=" + getHits()
+				+ ", misses=" + getMisses() + "}";
+	}
+
+}
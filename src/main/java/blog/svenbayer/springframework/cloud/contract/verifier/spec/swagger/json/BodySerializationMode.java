@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * How the Json bodies of contracts are written. Every mode uses a pre-built writer that
+ * is shared between threads.
+ *
+ * @author Sven Bayer
+ */
+public enum BodySerializationMode {
+
+	/**
+	 * Writes bodies without any whitespace.
+	 */
+	COMPACT {
+		@Override
+		void write(JsonNode node, StringWriter writer) throws IOException {
+			COMPACT_WRITER.writeValue(writer, node);
+		}
+	},
+	/**
+	 * Writes indented bodies, like previous versions did.
+	 */
+	PRETTY {
+		@Override
+		void write(JsonNode node, StringWriter writer) throws IOException {
+			PRETTY_WRITER.writeValue(writer, node);
+		}
+	},
+	/**
+	 * Writes bodies without any whitespace and with the fields of every object sorted by
+	 * name, so equal bodies are always written the same way.
+	 */
+	CANONICAL {
+		@Override
+		void write(JsonNode node, StringWriter writer) throws IOException {
+			try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+				writeCanonical(node, generator);
+			}
+		}
+	};
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+
+	private static final ObjectWriter COMPACT_WRITER = MAPPER.writer();
+
+	private static final ObjectWriter PRETTY_WRITER = MAPPER
+			.writerWithDefaultPrettyPrinter();
+
+	/**
+	 * Writes the given Json tree.
+	 * @param node the Json tree
+	 * @return the Json body
+	 */
+	public String write(JsonNode node) {
+		StringWriter writer = new StringWriter();
+		try {
+			write(node, writer);
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException("Could not write json body!", e);
+		}
+		return writer.toString();
+	}
+
+	abstract void write(JsonNode node, StringWriter writer) throws IOException;
+
+	/**
+	 * Returns the mode with the given name, ignoring its case.
+	 * @param name the name of the mode
+	 * @return the mode
+	 */
+	public static BodySerializationMode of(String name) {
+		for (BodySerializationMode mode : values()) {
+			if (mode.name().equalsIgnoreCase(name.trim())) {
+				return mode;
+			}
+		}
+		throw new SwaggerContractConverterException("Unknown body serialization mode '"
+				+ name + "', expected one of compact, pretty or canonical");
+	}
+
+	private static void writeCanonical(JsonNode node, JsonGenerator generator)
+			throws IOException {
+		if (node.isObject()) {
+			List<String> fieldNames = new ArrayList<>(node.size());
+			node.fieldNames().forEachRemaining(fieldNames::add);
+			Collections.sort(fieldNames);
+			generator.writeStartObject();
+			for (String fieldName : fieldNames) {
+				generator.writeFieldName(fieldName);
+				writeCanonical(node.get(fieldName), generator);
+			}
+			generator.writeEndObject();
+		}
+		else if (node.isArray()) {
+			generator.writeStartArray();
+			for (Iterator<JsonNode> items = node.elements(); items.hasNext();) {
+				writeCanonical(items.next(), generator);
+			}
+			generator.writeEndArray();
+		}
+		else {
+			generator.writeTree(node);
+		}
+	}
+
+}
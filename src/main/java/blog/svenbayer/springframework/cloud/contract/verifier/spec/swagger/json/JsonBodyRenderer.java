@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * Builds the Json tree of a body from the values of its fields and writes it once in the
+ * {@link BodySerializationMode} of the converter.
+ * <p>
+ * Rendered trees are shared between bodies, for example by the definition cache, so they
+ * must not be modified.
+ *
+ * @author Sven Bayer
+ */
+public final class JsonBodyRenderer {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private JsonBodyRenderer() {
+	}
+
+	/**
+	 * Creates the Json node of a field value. Nested Json nodes are used as they are, and
+	 * Strings that contain a Json object are embedded as object.
+	 * @param value the value of a field or null
+	 * @return the Json node of the value
+	 */
+	public static JsonNode toNode(Object value) {
+		if (value == null) {
+			return JsonNodeFactory.instance.nullNode();
+		}
+		if (value instanceof JsonNode) {
+			return (JsonNode) value;
+		}
+		if (value instanceof Collection) {
+			ArrayNode array = JsonNodeFactory.instance.arrayNode();
+			((Collection<?>) value).forEach(item -> array.add(toNode(item)));
+			return array;
+		}
+		if (value instanceof String) {
+			return toNode((String) value);
+		}
+		return MAPPER.valueToTree(value);
+	}
+
+	private static JsonNode toNode(String value) {
+		String trimmed = value.trim();
+		if (trimmed.startsWith("{") && trimmed.endsWith("}")) {
+			try {
+				JsonNode node = MAPPER.readTree(trimmed);
+				if (node != null && node.isObject()) {
+					return node;
+				}
+			}
+			catch (IOException ignore) {
+				// not a Json object, so the value is a plain String
+			}
+		}
+		return JsonNodeFactory.instance.textNode(value);
+	}
+
+	/**
+	 * Parses a Json document.
+	 * @param json the Json document
+	 * @return the Json tree
+	 */
+	public static JsonNode parse(String json) {
+		try {
+			return MAPPER.readTree(json);
+		}
+		catch (IOException e) {
+			throw new SwaggerContractConverterException("Could not parse json: " + json,
+					e);
+		}
+	}
+
+	/**
+	 * Writes the given Json tree as pretty printed body. A text node is written as its
+	 * plain text.
+	 * @param node the Json tree
+	 * @return the body
+	 */
+	public static String render(JsonNode node) {
+		return render(node, BodySerializationMode.PRETTY);
+	}
+
+	/**
+	 * Writes the given Json tree as body. A text node is written as its plain text.
+	 * @param node the Json tree
+	 * @param mode how the body is written
+	 * @return the body
+	 */
+	public static String render(JsonNode node, BodySerializationMode mode) {
+		if (node.isTextual()) {
+			return node.textValue();
+		}
+		return mode.write(node);
+	}
+
+}
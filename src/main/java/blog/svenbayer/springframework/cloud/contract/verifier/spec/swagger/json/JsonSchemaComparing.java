@@ -17,16 +17,16 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
-import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.model.JsonKeyValuePair;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ValueNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 
 /**
  * Compares two Jsons if they have the same schema.
@@ -35,18 +35,106 @@ import com.fasterxml.jackson.databind.node.ValueNode;
  */
 public class JsonSchemaComparing {
 
-	private final ObjectMapper mapper = new ObjectMapper();
+	/**
+	 * The number of differences a comparison lists by default.
+	 */
+	public static final int DEFAULT_MAX_DIFFERENCES = 20;
+
+	private static final String ROOT = "root";
+
+	private static final String EXPECTED_PARSE_ERROR = "Could not parse JSON of Swagger definitions!";
+
+	private static final String ACTUAL_PARSE_ERROR = "Could not parse JSON of file!";
+
+	private final JsonFactory jsonFactory = new JsonFactory();
 
 	/**
 	 * Compares two Jsons if they have the same schema. Does this not already exist? Are
 	 * we re-inventing the wheel???
+	 * <p>
+	 * The Jsons are compared while they are read, without building Json trees, and
+	 * reading the actual Json stops as soon as it contains a structure the expected Json
+	 * does not have.
 	 * @param expectedJson the expected Json
 	 * @param actualJson the actual Json
 	 * @return true if the Json schemas are equal
 	 */
 	public boolean isEquals(String expectedJson, String actualJson) {
-		JsonNode expectedNode;
-		JsonNode actualNode;
+		requireJsons(expectedJson, actualJson);
+		SchemaFingerprints fingerprints = new SchemaFingerprints();
+		int expected = fingerprint(fingerprints, expectedJson, null,
+				EXPECTED_PARSE_ERROR);
+		fingerprints.seal();
+		int actual = fingerprint(fingerprints, actualJson, null, ACTUAL_PARSE_ERROR);
+		return actual == expected;
+	}
+
+	/**
+	 * Compares two Jsons like {@link #isEquals(String, String)} and lists up to
+	 * {@value #DEFAULT_MAX_DIFFERENCES} differences.
+	 * @param expectedJson the expected Json
+	 * @param actualJson the actual Json
+	 * @return the comparison with the differences of the Json schemas
+	 */
+	public SchemaComparison compare(String expectedJson, String actualJson) {
+		return compare(expectedJson, actualJson, DEFAULT_MAX_DIFFERENCES);
+	}
+
+	/**
+	 * Compares two Jsons like {@link #isEquals(String, String)} and collects the Json
+	 * pointers of the missing and extra fields while the Jsons are read. Reading the
+	 * actual Json stops once the maximum number of extra fields is known.
+	 * @param expectedJson the expected Json
+	 * @param actualJson the actual Json
+	 * @param maxDifferences the maximum number of differences that are listed
+	 * @return the comparison with the differences of the Json schemas
+	 */
+	public SchemaComparison compare(String expectedJson, String actualJson,
+			int maxDifferences) {
+		if (maxDifferences < 1) {
+			throw new SwaggerContractConverterException(
+					"The maximum number of differences must be positive but was "
+							+ maxDifferences);
+		}
+		requireJsons(expectedJson, actualJson);
+		SchemaFingerprints fingerprints = new SchemaFingerprints();
+		Map<String, String> expectedFields = new LinkedHashMap<>();
+		int expected = fingerprint(fingerprints, expectedJson, (path, pointer) -> {
+			expectedFields.putIfAbsent(path, pointer);
+			return true;
+		}, EXPECTED_PARSE_ERROR);
+		fingerprints.seal();
+		Differences differences = new Differences(expectedFields, maxDifferences);
+		int actual = fingerprint(fingerprints, actualJson, differences,
+				ACTUAL_PARSE_ERROR);
+		if (actual == expected) {
+			return SchemaComparison.equal();
+		}
+		String mismatch = differences.mismatch != null ? differences.mismatch : "";
+		List<String> extra = new ArrayList<>(differences.extraFields.values());
+		if (differences.stopped) {
+			return SchemaComparison.different(new ArrayList<>(), extra, 0, false,
+					mismatch);
+		}
+		List<String> missing = new ArrayList<>();
+		int omitted = 0;
+		for (Map.Entry<String, String> field : expectedFields.entrySet()) {
+			if (!differences.foundFields.contains(field.getKey())) {
+				if (missing.size() < maxDifferences) {
+					missing.add(field.getValue());
+				}
+				else {
+					omitted++;
+				}
+			}
+		}
+		int listedExtra = Math.min(extra.size(), maxDifferences - missing.size());
+		omitted += extra.size() - listedExtra;
+		return SchemaComparison.different(missing, extra.subList(0, listedExtra),
+				omitted, true, mismatch);
+	}
+
+	private void requireJsons(String expectedJson, String actualJson) {
 		if (expectedJson == null) {
 			throw new SwaggerContractConverterException(
 					"JSON of Swagger definitions must not be null!");
@@ -54,68 +142,57 @@ public class JsonSchemaComparing {
 		if (actualJson == null) {
 			throw new SwaggerContractConverterException("JSON file must not be null!");
 		}
-		try {
-			expectedNode = this.mapper.readTree(expectedJson);
-		}
-		catch (IOException e) {
-			throw new SwaggerContractConverterException(
-					"Could not parse JSON of Swagger definitions!", e);
-		}
-		try {
-			actualNode = this.mapper.readTree(actualJson);
+	}
+
+	private int fingerprint(SchemaFingerprints fingerprints, String json,
+			SchemaFingerprints.FieldVisitor visitor, String parseError) {
+		try (JsonParser parser = this.jsonFactory.createParser(json)) {
+			return fingerprints.of(ROOT, parser, visitor);
 		}
 		catch (IOException e) {
-			throw new SwaggerContractConverterException("Could not parse JSON of file!",
-					e);
+			throw new SwaggerContractConverterException(parseError, e);
 		}
-		return isEquals(expectedNode, actualNode);
 	}
 
 	/**
-	 * Compares two JsonNodes if their schema is equal.
-	 * @param expectedJsonSchema the expected JsonNode
-	 * @param actualJsonSchema the actual JsonNode
-	 * @return true if the schema of both JsonNodes is equal
+	 * Collects the differences of the actual Json to the fields of the expected Json and
+	 * stops reading once the maximum number of extra fields is known.
 	 */
-	private boolean isEquals(JsonNode expectedJsonSchema, JsonNode actualJsonSchema) {
-		Set<JsonKeyValuePair> expectedJsonMap = mapNode("root", expectedJsonSchema);
-		Set<JsonKeyValuePair> actualJsonMap = mapNode("root", actualJsonSchema);
-		return expectedJsonMap.containsAll(actualJsonMap)
-				&& actualJsonMap.containsAll(expectedJsonMap);
-	}
+	private static final class Differences implements SchemaFingerprints.FieldVisitor {
 
-	/**
-	 * Maps a JsonNode to a key-value representation that ignores values.
-	 * @param name the name of the key
-	 * @param node the Json node value
-	 * @return the mapped key-value Set of the key and Json node value
-	 */
-	private Set<JsonKeyValuePair> mapNode(String name, JsonNode node) {
-		Set<JsonKeyValuePair> elements = new HashSet<>();
-		Iterator<Map.Entry<String, JsonNode>> iteratorFields = node.fields();
-		if (!iteratorFields.hasNext()) {
-			Iterator<JsonNode> iteratorElements = node.elements();
-			while (iteratorElements.hasNext()) {
-				JsonNode next = iteratorElements.next();
-				if (!(next instanceof ValueNode)) {
-					elements.add(new JsonKeyValuePair(name, mapNode(name, next)));
-				}
-			}
+		private final Map<String, String> expectedFields;
+
+		private final int maxDifferences;
+
+		private final Set<String> foundFields = new HashSet<>();
+
+		private final Map<String, String> extraFields = new LinkedHashMap<>();
+
+		private String mismatch;
+
+		private boolean stopped;
+
+		private Differences(Map<String, String> expectedFields, int maxDifferences) {
+			this.expectedFields = expectedFields;
+			this.maxDifferences = maxDifferences;
 		}
-		while (iteratorFields.hasNext()) {
-			Map.Entry<String, JsonNode> next = iteratorFields.next();
-			JsonNode value = next.getValue();
-			if (value instanceof ValueNode) {
-				Set<JsonKeyValuePair> subKeyAsValue = new HashSet<>();
-				subKeyAsValue.add(new JsonKeyValuePair(next.getKey(), null));
-				elements.add(new JsonKeyValuePair(name, subKeyAsValue));
-			}
-			else {
-				Set<JsonKeyValuePair> subValueForKey = mapNode(next.getKey(), value);
-				elements.add(new JsonKeyValuePair(name, subValueForKey));
+
+		@Override
+		public boolean visit(String path, String pointer) {
+			if (this.expectedFields.containsKey(path)) {
+				this.foundFields.add(path);
+				return true;
 			}
+			this.extraFields.putIfAbsent(path, pointer);
+			this.stopped = this.extraFields.size() >= this.maxDifferences;
+			return !this.stopped;
 		}
-		return elements;
+
+		@Override
+		public void unknown(String pointer) {
+			this.mismatch = pointer;
+		}
+
 	}
 
 }
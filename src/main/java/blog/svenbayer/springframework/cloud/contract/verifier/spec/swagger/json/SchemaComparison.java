@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of comparing the schemas of two Jsons. If the schemas differ, the result
+ * lists the Json pointers of the fields that are missing in the actual Json and of the
+ * fields the expected Json does not have, up to a maximum number of differences, and the
+ * Json pointer of the first object or array whose structure differs.
+ *
+ * @author Sven Bayer
+ */
+public final class SchemaComparison {
+
+	private static final SchemaComparison EQUAL = new SchemaComparison(true,
+			Collections.emptyList(), Collections.emptyList(), 0, true, null);
+
+	private final boolean equal;
+
+	private final List<String> missing;
+
+	private final List<String> extra;
+
+	private final int omitted;
+
+	private final boolean complete;
+
+	private final String mismatch;
+
+	private SchemaComparison(boolean equal, List<String> missing, List<String> extra,
+			int omitted, boolean complete, String mismatch) {
+		this.equal = equal;
+		this.missing = missing;
+		this.extra = extra;
+		this.omitted = omitted;
+		this.complete = complete;
+		this.mismatch = mismatch;
+	}
+
+	/**
+	 * Returns the result of equal schemas.
+	 * @return the comparison without differences
+	 */
+	static SchemaComparison equal() {
+		return EQUAL;
+	}
+
+	/**
+	 * Creates the result of different schemas.
+	 * @param missing the pointers of the fields that are missing in the actual Json
+	 * @param extra the pointers of the fields that are not in the expected Json
+	 * @param omitted the number of differences that are not listed
+	 * @param complete false if the comparison stopped before all differences were known
+	 * @param mismatch the pointer of the first object or array whose structure differs
+	 * @return the comparison with differences
+	 */
+	static SchemaComparison different(List<String> missing, List<String> extra,
+			int omitted, boolean complete, String mismatch) {
+		return new SchemaComparison(false, Collections.unmodifiableList(missing),
+				Collections.unmodifiableList(extra), omitted, complete, mismatch);
+	}
+
+	public boolean isEqual() {
+		return this.equal;
+	}
+
+	/**
+	 * Returns the Json pointers of the fields of the expected Json that the actual Json
+	 * does not have. Fields in arrays are listed with the index of the first element they
+	 * appear in.
+	 * @return the pointers of the missing fields
+	 */
+	public List<String> getMissing() {
+		return this.missing;
+	}
+
+	/**
+	 * Returns the Json pointers of the fields of the actual Json that the expected Json
+	 * does not have.
+	 * @return the pointers of the extra fields
+	 */
+	public List<String> getExtra() {
+		return this.extra;
+	}
+
+	/**
+	 * Returns the number of differences that exceeded the maximum and are not listed.
+	 * @return the number of omitted differences
+	 */
+	public int getOmitted() {
+		return this.omitted;
+	}
+
+	/**
+	 * Returns if all differences are known. The comparison stops reading the actual Json
+	 * once the maximum number of extra fields is listed, so missing and further extra
+	 * fields are not known then.
+	 * @return true if the actual Json was read completely
+	 */
+	public boolean isComplete() {
+		return this.complete;
+	}
+
+	/**
+	 * Returns the Json pointer of the first object or array of the actual Json whose
+	 * structure the expected Json does not have. An empty pointer refers to the whole
+	 * Json.
+	 * @return the pointer of the first different structure or null if the schemas are
+	 * equal
+	 */
+	public String getMismatch() {
+		return this.mismatch;
+	}
+
+	/**
+	 * Describes the differences, one pointer per line.
+	 * @return the description of the differences
+	 */
+	@Override
+	public String toString() {
+		if (this.equal) {
+			return "Equal schemas";
+		}
+		StringBuilder description = new StringBuilder();
+		append(description, "Missing in Json file:", this.missing);
+		append(description, "Not in Swagger definitions:", this.extra);
+		if (this.omitted > 0) {
+			description.append("... and ").append(this.omitted)
+					.append(" more differences\n");
+		}
+		if (!this.complete) {
+			description.append("... and possibly more differences\n");
+		}
+		if (description.length() == 0) {
+			description.append("Different structure in Json file:\n  ")
+					.append(this.mismatch.isEmpty() ? "(root)" : this.mismatch)
+					.append('\n');
+		}
+		return description.substring(0, description.length() - 1);
+	}
+
+	private void append(StringBuilder description, String title, List<String> pointers) {
+		if (pointers.isEmpty()) {
+			return;
+		}
+		description.append(title).append('\n');
+		for (String pointer : pointers) {
+			description.append("  ").append(pointer).append('\n');
+		}
+	}
+
+}
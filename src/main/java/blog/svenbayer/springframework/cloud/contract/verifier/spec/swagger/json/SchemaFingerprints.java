@@ -0,0 +1,408 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ValueNode;
+
+/**
+ * Assigns every distinct Json key structure a fingerprint, so two structures are equal
+ * exactly if their fingerprints are equal.
+ * <p>
+ * A node is described by the set of its entries. A field with a value is an entry of the
+ * name of the node and the field name, a field with an object or array is an entry of the
+ * name of the node and the description of the child under the field name, and an object
+ * in an array is an entry of the name of the array and the description of the object.
+ * Values, values in arrays and duplicate entries are ignored.
+ * <p>
+ * The fingerprints are computed bottom-up in a single traversal. Entries and sets of
+ * entries are interned, so a fingerprint is a small number instead of a nested set and
+ * equal subtrees are only described once. Fingerprints are only comparable if they were
+ * created by the same instance.
+ * <p>
+ * Fingerprints can also be computed from the tokens of a {@link JsonParser}, without
+ * reading the document into a tree. Once the fingerprints are {@link #seal() sealed}, a
+ * structure that is not known yet gets the {@link #UNKNOWN} fingerprint and the traversal
+ * stops, since it can no longer match any known structure.
+ *
+ * @author Sven Bayer
+ */
+final class SchemaFingerprints {
+
+	/**
+	 * The fingerprint of a structure that is not known to sealed fingerprints.
+	 */
+	static final int UNKNOWN = -2;
+
+	private static final int NO_VALUE = -1;
+
+	private static final int[] NO_ENTRIES = new int[0];
+
+	private final Map<Entry, Integer> entries = new HashMap<>();
+
+	private final Map<EntrySet, Integer> entrySets = new HashMap<>();
+
+	private boolean sealed;
+
+	/**
+	 * Returns the fingerprint of the key structure of the given node.
+	 * @param name the name of the node
+	 * @param node the Json node
+	 * @return the fingerprint of the node
+	 */
+	int of(String name, JsonNode node) {
+		Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		if (!fields.hasNext()) {
+			int[] elements = new int[node.size()];
+			int size = 0;
+			for (JsonNode element : node) {
+				if (!(element instanceof ValueNode)) {
+					elements[size++] = entry(name, of(name, element));
+				}
+			}
+			return entrySet(elements, size);
+		}
+		int[] fieldEntries = new int[node.size()];
+		int size = 0;
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			JsonNode value = field.getValue();
+			if (value instanceof ValueNode) {
+				fieldEntries[size++] = entry(name, valueField(field.getKey()));
+			}
+			else {
+				fieldEntries[size++] = entry(name, of(field.getKey(), value));
+			}
+		}
+		return entrySet(fieldEntries, size);
+	}
+
+	/**
+	 * Returns the fingerprint of the key structure of the next value of the given parser.
+	 * Values are skipped as they are read and only the entries of the enclosing objects
+	 * and arrays are held in memory. An empty document has the fingerprint of an empty
+	 * object.
+	 * @param name the name of the value
+	 * @param parser the parser that is positioned before the value
+	 * @return the fingerprint of the value or {@link #UNKNOWN}
+	 * @throws IOException if the value is not valid Json
+	 */
+	int of(String name, JsonParser parser) throws IOException {
+		return of(name, parser, null);
+	}
+
+	/**
+	 * Returns the fingerprint of the key structure of the next value of the given parser
+	 * and passes every field to the given visitor. With a visitor, the value is read
+	 * until the visitor stops it, even if its fingerprint is {@link #UNKNOWN}, and the
+	 * first object or array with an unknown structure is passed to the visitor.
+	 * @param name the name of the value
+	 * @param parser the parser that is positioned before the value
+	 * @param visitor the visitor of the fields or null
+	 * @return the fingerprint of the value or {@link #UNKNOWN}
+	 * @throws IOException if the value is not valid Json
+	 */
+	int of(String name, JsonParser parser, FieldVisitor visitor) throws IOException {
+		boolean stopAtUnknown = visitor == null;
+		boolean unknownVisited = false;
+		Deque<Frame> frames = new ArrayDeque<>();
+		for (JsonToken token = parser.nextToken(); token != null; token = parser
+				.nextToken()) {
+			Frame parent = frames.peek();
+			switch (token) {
+			case START_OBJECT:
+			case START_ARRAY:
+				boolean array = token == JsonToken.START_ARRAY;
+				if (parent != null && !parent.array && visitor != null
+						&& !parent.visitField(visitor)) {
+					return UNKNOWN;
+				}
+				frames.push(parent != null ? parent.child(array, visitor)
+						: new Frame(name, array, "", ""));
+				break;
+			case FIELD_NAME:
+				parent.fieldName = parser.getCurrentName();
+				break;
+			case END_OBJECT:
+			case END_ARRAY:
+				frames.pop();
+				int value = entrySet(parent.entries, parent.size);
+				if (value == UNKNOWN && visitor != null && !unknownVisited) {
+					visitor.unknown(parent.pointer);
+					unknownVisited = true;
+				}
+				Frame enclosing = frames.peek();
+				if (enclosing == null || (stopAtUnknown && value == UNKNOWN)) {
+					return value;
+				}
+				if (enclosing.add(entry(enclosing.name, value)) == UNKNOWN
+						&& stopAtUnknown) {
+					return UNKNOWN;
+				}
+				break;
+			default:
+				if (parent == null) {
+					return entrySet(NO_ENTRIES, 0);
+				}
+				if (parent.array) {
+					parent.index++;
+				}
+				else if (parent
+						.add(entry(parent.name, valueField(parent.fieldName))) == UNKNOWN
+						&& stopAtUnknown) {
+					return UNKNOWN;
+				}
+				else if (visitor != null && !parent.visitField(visitor)) {
+					return UNKNOWN;
+				}
+			}
+		}
+		return entrySet(NO_ENTRIES, 0);
+	}
+
+	/**
+	 * Stops creating fingerprints for new structures.
+	 */
+	void seal() {
+		this.sealed = true;
+	}
+
+	/**
+	 * Returns the fingerprint of the description of a field with a value.
+	 * @param fieldName the name of the field
+	 * @return the fingerprint of the set with the single field entry
+	 */
+	int valueField(String fieldName) {
+		return entrySet(new int[] { entry(fieldName, NO_VALUE) }, 1);
+	}
+
+	/**
+	 * Returns the fingerprint of an entry.
+	 * @param name the name of the entry
+	 * @param value the fingerprint of the entry set of the value
+	 * @return the fingerprint of the entry
+	 */
+	int entry(String name, int value) {
+		if (value == UNKNOWN) {
+			return UNKNOWN;
+		}
+		return intern(this.entries, new Entry(name, value));
+	}
+
+	/**
+	 * Returns the fingerprint of the set of the given entries. The entries are sorted and
+	 * duplicates are removed in place.
+	 * @param entries the fingerprints of the entries
+	 * @param size the number of entries in the array
+	 * @return the fingerprint of the entry set
+	 */
+	int entrySet(int[] entries, int size) {
+		Arrays.sort(entries, 0, size);
+		if (size > 0 && entries[0] == UNKNOWN) {
+			return UNKNOWN;
+		}
+		int distinct = 0;
+		for (int i = 0; i < size; i++) {
+			if (distinct == 0 || entries[distinct - 1] != entries[i]) {
+				entries[distinct++] = entries[i];
+			}
+		}
+		int[] set = distinct == 0 ? NO_ENTRIES : Arrays.copyOf(entries, distinct);
+		return intern(this.entrySets, new EntrySet(set));
+	}
+
+	private <T> int intern(Map<T, Integer> fingerprints, T structure) {
+		Integer fingerprint = fingerprints.get(structure);
+		if (fingerprint != null) {
+			return fingerprint;
+		}
+		if (this.sealed) {
+			return UNKNOWN;
+		}
+		fingerprint = fingerprints.size();
+		fingerprints.put(structure, fingerprint);
+		return fingerprint;
+	}
+
+	/**
+	 * Visits the fields of a Json value while its fingerprint is computed.
+	 */
+	@FunctionalInterface
+	interface FieldVisitor {
+
+		/**
+		 * Visits a field.
+		 * @param path the path of the field, in which the elements of an array share a
+		 * single path
+		 * @param pointer the Json pointer of the field
+		 * @return false to stop reading the value
+		 */
+		boolean visit(String path, String pointer);
+
+		/**
+		 * Visits the first object or array whose structure is not known to sealed
+		 * fingerprints.
+		 * @param pointer the Json pointer of the object or array
+		 */
+		default void unknown(String pointer) {
+		}
+
+	}
+
+	/**
+	 * The entries of an object or array that is being read.
+	 */
+	private static final class Frame {
+
+		private static final String ARRAY_ELEMENTS = "/~*";
+
+		private final String name;
+
+		private final boolean array;
+
+		private final String path;
+
+		private final String pointer;
+
+		private String fieldName;
+
+		private int index;
+
+		private int[] entries = new int[8];
+
+		private int size;
+
+		private Frame(String name, boolean array, String path, String pointer) {
+			this.name = name;
+			this.array = array;
+			this.path = path;
+			this.pointer = pointer;
+		}
+
+		/**
+		 * Creates the frame of the next child, which is named after the field in objects
+		 * and after the array in arrays. The paths are only tracked with a visitor, which
+		 * visits the field of a child of an object before the child is created.
+		 */
+		private Frame child(boolean array, FieldVisitor visitor) {
+			if (this.array) {
+				String index = String.valueOf(this.index++);
+				return new Frame(this.name, array,
+						visitor != null ? this.path + ARRAY_ELEMENTS : null,
+						visitor != null ? this.pointer + '/' + index : null);
+			}
+			if (visitor == null) {
+				return new Frame(this.fieldName, array, null, null);
+			}
+			String segment = '/' + escape(this.fieldName);
+			return new Frame(this.fieldName, array, this.path + segment,
+					this.pointer + segment);
+		}
+
+		private boolean visitField(FieldVisitor visitor) {
+			String segment = '/' + escape(this.fieldName);
+			return visitor.visit(this.path + segment, this.pointer + segment);
+		}
+
+		private int add(int entry) {
+			if (this.size == this.entries.length) {
+				this.entries = Arrays.copyOf(this.entries, this.size * 2);
+			}
+			this.entries[this.size++] = entry;
+			return entry;
+		}
+
+		/**
+		 * Escapes a field name as segment of a Json pointer.
+		 */
+		private static String escape(String fieldName) {
+			return fieldName.replace("~", "~0").replace("/", "~1");
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final String name;
+
+		private final int value;
+
+		private Entry(String name, int value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry that = (Entry) o;
+			return this.value == that.value && this.name.equals(that.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.name, this.value);
+		}
+
+	}
+
+	private static final class EntrySet {
+
+		private final int[] entries;
+
+		private final int hashCode;
+
+		private EntrySet(int[] entries) {
+			this.entries = entries;
+			this.hashCode = Arrays.hashCode(entries);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof EntrySet)) {
+				return false;
+			}
+			return Arrays.equals(this.entries, ((EntrySet) o).entries);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+}
@@ -0,0 +1,584 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.openapi;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.OperationSelection;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SpecificationSniffer;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConverterOptions;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.ContractNameBuilder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.DslValueBuilder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.PathTemplate;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ConversionCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.PatternCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ContractSnapshot;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ParameterSnapshot;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.parameters.AbstractSerializableParameter;
+import io.swagger.models.parameters.HeaderParameter;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.spec.ContractConverter;
+import org.springframework.cloud.contract.spec.internal.DslProperty;
+
+/**
+ * Converts an OpenAPI 3 document to Spring Cloud contracts, without converting it to a
+ * Swagger 2 document first.
+ * <p>
+ * The converter reads {@code components/schemas}, {@code requestBody} and the
+ * {@code content} maps of requests and responses directly. It shares the options, the
+ * value and pattern builders, the conversion cache and the parallel conversion of the
+ * {@code SwaggerContractConverter}, so both create the same contracts for the same API.
+ * Contracts are always converted up front, lazy contracts and streaming only apply to
+ * Swagger 2 files.
+ *
+ * @author Sven Bayer
+ */
+public final class OpenApiContractConverter implements ContractConverter<OpenAPI> {
+
+	private static final Log LOG = LogFactory.getLog(OpenApiContractConverter.class);
+
+	private static final String TAG_SEP = "_";
+
+	private static final String QUERY = "query";
+
+	private static final String HEADER = "header";
+
+	private static final String PATH = "path";
+
+	private static final String ANY_CONTENT_TYPE = "*/*";
+
+	private static final String DEFAULT_RESPONSE = "default";
+
+	private static final int DEFAULT_STATUS = 200;
+
+	private static final Pattern STATUS = Pattern.compile("[1-5][0-9][0-9]");
+
+	private static final Pattern STATUS_RANGE = Pattern.compile("[1-5]XX");
+
+	private final PatternCache patternCache = new PatternCache();
+
+	private final DslValueBuilder dslValueBuilder = new DslValueBuilder(
+			this.patternCache);
+
+	private final ContractNameBuilder contractNameBuilder = new ContractNameBuilder();
+
+	private final SpecificationSniffer specificationSniffer = new SpecificationSniffer();
+
+	private final SwaggerConverterOptions options;
+
+	private final ConversionCache conversionCache;
+
+	/**
+	 * Creates a converter with the options of the system properties.
+	 */
+	public OpenApiContractConverter() {
+		this(SwaggerConverterOptions.fromSystemProperties());
+	}
+
+	/**
+	 * Creates a converter with the given options.
+	 * @param options the converter options
+	 */
+	public OpenApiContractConverter(SwaggerConverterOptions options) {
+		this.options = options;
+		this.conversionCache = options.isConversionCacheEnabled()
+				? new ConversionCache(options.getCacheDirectory(),
+						options.getCacheMaxSize(), options.getContractConfiguration())
+				: null;
+	}
+
+	/**
+	 * Checks if the given file is an OpenAPI 3 file. The file is only parsed if its first
+	 * bytes do not already tell its version.
+	 * @param file the file to check
+	 * @return true if the file is an OpenAPI 3 file
+	 */
+	@Override
+	public boolean isAccepted(File file) {
+		if (file == null) {
+			return false;
+		}
+		SpecificationSniffer.Result sniffed = this.specificationSniffer
+				.sniff(file.toPath());
+		if (sniffed != SpecificationSniffer.Result.UNKNOWN) {
+			return sniffed == SpecificationSniffer.Result.OPEN_API_3;
+		}
+		try {
+			return parse(file) != null;
+		}
+		catch (Exception ignore) {
+			return false;
+		}
+	}
+
+	/**
+	 * Converts an OpenAPI 3 file to Spring Cloud contracts. The operations are converted
+	 * in parallel if enabled.
+	 * @param file the OpenAPI 3 file
+	 * @return the Spring Cloud contracts
+	 */
+	@Override
+	public Collection<Contract> convertFrom(File file) {
+		List<ContractSnapshot> snapshots = this.conversionCache != null
+				? this.conversionCache.lookup(file) : null;
+		if (snapshots == null) {
+			snapshots = createSnapshots(file);
+			if (this.conversionCache != null) {
+				this.conversionCache.store(file, snapshots, Collections.emptySet());
+			}
+		}
+		return snapshots.stream().map(ContractSnapshot::toContract)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * This is not supported!
+	 * @param contract the contract that will not be converted
+	 * @return an empty OpenAPI document
+	 */
+	@Override
+	public OpenAPI convertTo(Collection<Contract> contract) {
+		return new OpenAPI();
+	}
+
+	/**
+	 * Parses an OpenAPI 3 file without converting Swagger 2 documents.
+	 * @param file the file
+	 * @return the OpenAPI document or null if the file is no OpenAPI 3 document
+	 */
+	private OpenAPI parse(File file) {
+		ParseOptions parseOptions = new ParseOptions();
+		parseOptions.setResolve(true);
+		OpenAPI openApi = new OpenAPIV3Parser()
+				.readLocation(file.getPath(), null, parseOptions).getOpenAPI();
+		if (openApi == null || openApi.getOpenapi() == null
+				|| !openApi.getOpenapi().startsWith("3")) {
+			return null;
+		}
+		return openApi;
+	}
+
+	/**
+	 * Converts the selected operations of an OpenAPI 3 file that are not ignored. The
+	 * priorities are assigned in the order of the paths and operations before any
+	 * contract is built, like the Swagger 2 converter does.
+	 * @param file the OpenAPI 3 file
+	 * @return the snapshots of the Spring Cloud contracts
+	 */
+	private List<ContractSnapshot> createSnapshots(File file) {
+		OpenAPI openApi = parse(file);
+		if (openApi == null) {
+			throw new SwaggerContractConverterException(
+					"Could not parse OpenAPI file: " + file);
+		}
+		if (openApi.getPaths() == null) {
+			return Collections.emptyList();
+		}
+		OpenApiSchemaValues values = new OpenApiSchemaValues(openApi.getComponents(),
+				this.options);
+		String basePath = basePath(openApi);
+		OperationSelection selection = this.options.getSelection();
+		List<OperationEntry> operations = new ArrayList<>();
+		AtomicInteger priority = new AtomicInteger(1);
+		openApi.getPaths().forEach((pathLink, pathItem) -> pathItem.readOperationsMap()
+				.forEach((method, operation) -> {
+					int operationPriority = priority.getAndIncrement();
+					HttpMethod httpMethod = toHttpMethod(method);
+					if (httpMethod != null && !isIgnored(operation)
+							&& selection.isSelected(pathLink, httpMethod,
+									operation.getTags(), operation.getOperationId())) {
+						operations.add(new OperationEntry(operationPriority, pathLink,
+								httpMethod, pathItem, operation));
+					}
+				}));
+		Stream<OperationEntry> operationStream = this.options.isParallel()
+				? operations.parallelStream() : operations.stream();
+		List<ContractSnapshot> snapshots = operationStream
+				.map(operation -> createContract(values, basePath, operation))
+				.collect(Collectors.toList());
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Converted OpenAPI file '" + file + "' with " + values + " and "
+					+ this.patternCache);
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Returns the path of the first server url, which is the base path of all paths.
+	 * @param openApi the OpenAPI document
+	 * @return the base path without a trailing slash
+	 */
+	private String basePath(OpenAPI openApi) {
+		if (openApi.getServers() == null || openApi.getServers().isEmpty()
+				|| openApi.getServers().get(0).getUrl() == null) {
+			return "";
+		}
+		String path;
+		try {
+			path = new URI(openApi.getServers().get(0).getUrl()).getPath();
+		}
+		catch (URISyntaxException e) {
+			return "";
+		}
+		if (path == null) {
+			return "";
+		}
+		return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+	}
+
+	/**
+	 * Returns the Swagger 2 method of an OpenAPI 3 method.
+	 * @param method the OpenAPI 3 method
+	 * @return the method or null if Swagger 2 does not know the method, like TRACE
+	 */
+	private HttpMethod toHttpMethod(PathItem.HttpMethod method) {
+		try {
+			return HttpMethod.valueOf(method.name());
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Checks if the operation is ignored by an {@code x-ignore: true} field.
+	 * @param operation the operation
+	 * @return true if no contract should be created for the operation
+	 */
+	private boolean isIgnored(Operation operation) {
+		Object ignore = OpenApiSchemaValues.extension(operation.getExtensions(),
+				SwaggerFields.X_IGNORE);
+		return ignore != null && Boolean.parseBoolean(ignore.toString());
+	}
+
+	/**
+	 * Creates the snapshot of the Spring Cloud contract of an operation.
+	 * @param values the values of the schemas
+	 * @param basePath the base path of all paths
+	 * @param entry the operation
+	 * @return the snapshot of the Spring Cloud contract
+	 */
+	private ContractSnapshot createContract(OpenApiSchemaValues values, String basePath,
+			OperationEntry entry) {
+		ContractSnapshot contract = new ContractSnapshot();
+		Operation operation = entry.operation;
+		PathTemplate pathTemplate = PathTemplate.parse(entry.pathLink);
+		contract.setName(this.contractNameBuilder.createContractName(entry.priority,
+				pathTemplate, entry.method, operation.getOperationId()));
+		if (operation.getDescription() != null) {
+			contract.setDescription(operation.getDescription());
+		}
+		if (operation.getTags() != null) {
+			contract.setLabel(String.join(TAG_SEP, operation.getTags()));
+		}
+		contract.setPriority(entry.priority);
+		contract.setMethod(entry.method.name());
+
+		List<Parameter> parameters = parametersOf(entry.pathItem, operation);
+		createUrl(values, basePath, pathTemplate, parameters, contract);
+		createRequestHeaders(values, parameters, contract);
+		createRequestBody(values, operation, contract);
+		createResponse(values, operation, contract);
+		return contract;
+	}
+
+	/**
+	 * Returns the parameters of an operation together with the parameters of its path
+	 * that the operation does not override.
+	 * @param pathItem the path of the operation
+	 * @param operation the operation
+	 * @return the parameters
+	 */
+	private List<Parameter> parametersOf(PathItem pathItem, Operation operation) {
+		Map<String, Parameter> parameters = new LinkedHashMap<>();
+		if (pathItem.getParameters() != null) {
+			pathItem.getParameters()
+					.forEach(param -> parameters.put(keyOf(param), param));
+		}
+		if (operation.getParameters() != null) {
+			operation.getParameters()
+					.forEach(param -> parameters.put(keyOf(param), param));
+		}
+		return new ArrayList<>(parameters.values());
+	}
+
+	private String keyOf(Parameter param) {
+		return param.getIn() + ":" + param.getName();
+	}
+
+	private void createUrl(OpenApiSchemaValues values, String basePath,
+			PathTemplate pathTemplate, List<Parameter> parameters,
+			ContractSnapshot contract) {
+		if (parameters.isEmpty() || pathTemplate.getVariables().isEmpty()) {
+			contract.setUrlPath(basePath + pathTemplate.getPath());
+		}
+		else {
+			Map<String, String> pathValues = new HashMap<>();
+			parameters.stream().filter(param -> PATH.equals(param.getIn()))
+					.forEach(param -> pathValues.putIfAbsent(param.getName(),
+							Optional.ofNullable(exampleOf(values, param))
+									.map(String::valueOf).orElse(param.getName())));
+			contract.setUrlPath(pathTemplate.expand(basePath, pathValues::get));
+		}
+		if (!parameters.isEmpty()) {
+			List<ParameterSnapshot> queryParameters = new ArrayList<>();
+			contract.setQueryParameters(queryParameters);
+			parameters.stream().filter(param -> QUERY.equals(param.getIn()))
+					.forEach(param -> {
+						ParameterSnapshot value = createParameter(values, param);
+						if (value != null) {
+							queryParameters.add(value);
+						}
+					});
+		}
+	}
+
+	private void createRequestHeaders(OpenApiSchemaValues values,
+			List<Parameter> parameters, ContractSnapshot contract) {
+		parameters.stream().filter(param -> HEADER.equals(param.getIn()))
+				.forEach(param -> {
+					ParameterSnapshot value = createParameter(values, param);
+					if (value != null) {
+						contract.getRequestHeaders().add(value);
+					}
+				});
+	}
+
+	/**
+	 * Creates the value and pattern of a query or header parameter. The parameter is
+	 * copied to a Swagger 2 parameter, so it is ignored, valued and matched like one.
+	 * @param values the values of the schemas
+	 * @param param the parameter
+	 * @return the parameter snapshot or null if the parameter is ignored
+	 */
+	private ParameterSnapshot createParameter(OpenApiSchemaValues values,
+			Parameter param) {
+		Schema<?> schema = values.dereference(param.getSchema());
+		Object example = exampleOf(values, param);
+		if (example == null && schema != null && schema.getType() == null) {
+			example = values.createPlainValue(param.getName(), schema);
+		}
+		AbstractSerializableParameter<?> serializable = QUERY.equals(param.getIn())
+				? new QueryParameter() : new HeaderParameter();
+		serializable.setName(param.getName());
+		serializable.setRequired(Boolean.TRUE.equals(param.getRequired()));
+		if (param.getExtensions() != null) {
+			serializable.setVendorExtensions(new HashMap<>(param.getExtensions()));
+		}
+		serializable.setVendorExtension(SwaggerFields.X_EXAMPLE.field(), example);
+		if (schema != null) {
+			serializable.setDefault(OpenApiSchemaValues.plain(schema.getDefault()));
+			serializable.setEnumValue(schema.getEnum());
+			serializable.setType(schema.getType());
+			serializable.setFormat(schema.getFormat());
+			serializable.setMinimum(schema.getMinimum());
+			serializable.setMaximum(schema.getMaximum());
+			serializable.setPattern(schema.getPattern());
+		}
+		DslProperty<Object> value = this.dslValueBuilder
+				.createDslValueForParameter(serializable);
+		return value != null ? new ParameterSnapshot(param.getName(),
+				(Pattern) value.getClientValue(), value.getServerValue()) : null;
+	}
+
+	/**
+	 * Returns the example of a parameter or of its schema.
+	 * @param values the values of the schemas
+	 * @param param the parameter
+	 * @return the example or null if the parameter has none
+	 */
+	private Object exampleOf(OpenApiSchemaValues values, Parameter param) {
+		if (param.getExample() != null) {
+			return OpenApiSchemaValues.plain(param.getExample());
+		}
+		Object example = firstExample(param.getExamples());
+		if (example != null) {
+			return example;
+		}
+		Object xExample = OpenApiSchemaValues.extension(param.getExtensions(),
+				SwaggerFields.X_EXAMPLE);
+		if (xExample != null) {
+			return OpenApiSchemaValues.plain(xExample);
+		}
+		Schema<?> schema = values.dereference(param.getSchema());
+		if (schema == null) {
+			return null;
+		}
+		if (schema.getExample() != null) {
+			return OpenApiSchemaValues.plain(schema.getExample());
+		}
+		return OpenApiSchemaValues.plain(OpenApiSchemaValues
+				.extension(schema.getExtensions(), SwaggerFields.X_EXAMPLE));
+	}
+
+	private Object firstExample(Map<String, Example> examples) {
+		if (examples == null || examples.isEmpty()) {
+			return null;
+		}
+		Example example = examples.values().iterator().next();
+		return example != null ? OpenApiSchemaValues.plain(example.getValue()) : null;
+	}
+
+	private void createRequestBody(OpenApiSchemaValues values, Operation operation,
+			ContractSnapshot contract) {
+		if (operation.getRequestBody() == null) {
+			return;
+		}
+		Content content = operation.getRequestBody().getContent();
+		if (content == null || content.isEmpty()) {
+			return;
+		}
+		content.keySet().forEach(contentType -> contract.getRequestContentTypes()
+				.add(ANY_CONTENT_TYPE.equals(contentType) ? "" : contentType));
+		contract.setRequestBody(createBody(values, content));
+	}
+
+	private void createResponse(OpenApiSchemaValues values, Operation operation,
+			ContractSnapshot contract) {
+		if (operation.getResponses() == null || operation.getResponses().isEmpty()) {
+			throw new SwaggerContractConverterException(
+					"Could not find a response of operation: " + contract.getName());
+		}
+		Map.Entry<String, ApiResponse> responseEntry = operation.getResponses().entrySet()
+				.iterator().next();
+		contract.setStatus(statusOf(responseEntry.getKey()));
+		ApiResponse response = responseEntry.getValue();
+		if (response.getHeaders() != null) {
+			response.getHeaders().forEach((name, header) -> {
+				if (name != null) {
+					Object value = header.getExample() != null
+							? OpenApiSchemaValues.plain(header.getExample())
+							: values.createPlainValue(name, header.getSchema());
+					contract.getResponseHeaders()
+							.add(new ParameterSnapshot(name, null, value));
+				}
+			});
+		}
+		Content content = response.getContent();
+		if (content != null && !content.isEmpty()) {
+			contract.getResponseContentTypes().addAll(content.keySet());
+			contract.setResponseBody(createBody(values, content));
+		}
+	}
+
+	/**
+	 * Returns the status of a response code. The default response and ranges of status
+	 * codes like {@code 2XX} are mapped to a status they contain.
+	 * @param code the response code
+	 * @return the status
+	 */
+	private int statusOf(String code) {
+		if (STATUS.matcher(code).matches()) {
+			return Integer.parseInt(code);
+		}
+		if (STATUS_RANGE.matcher(code).matches()) {
+			return (code.charAt(0) - '0') * 100;
+		}
+		if (DEFAULT_RESPONSE.equals(code)) {
+			return DEFAULT_STATUS;
+		}
+		throw new SwaggerContractConverterException(
+				"Could not parse response code '" + code + "'");
+	}
+
+	/**
+	 * Creates the body of the first media type of the content. An example of the media
+	 * type is used as it is, otherwise the body is created from its schema.
+	 * @param values the values of the schemas
+	 * @param content the content of a request or response
+	 * @return the body or null if the media type has neither example nor schema
+	 */
+	private String createBody(OpenApiSchemaValues values, Content content) {
+		MediaType mediaType = content.values().iterator().next();
+		if (mediaType == null) {
+			return null;
+		}
+		Object example = mediaType.getExample() != null ? mediaType.getExample()
+				: firstExample(mediaType.getExamples());
+		if (example == null) {
+			example = OpenApiSchemaValues.extension(mediaType.getExtensions(),
+					SwaggerFields.X_EXAMPLE);
+		}
+		if (example instanceof String) {
+			return (String) example;
+		}
+		if (example != null) {
+			return values.renderBody(OpenApiSchemaValues.plain(example));
+		}
+		return mediaType.getSchema() != null ? values.createBody(mediaType.getSchema())
+				: null;
+	}
+
+	/**
+	 * An operation of an OpenAPI document with the priority of its contract.
+	 */
+	private static final class OperationEntry {
+
+		private final int priority;
+
+		private final String pathLink;
+
+		private final HttpMethod method;
+
+		private final PathItem pathItem;
+
+		private final Operation operation;
+
+		private OperationEntry(int priority, String pathLink, HttpMethod method,
+				PathItem pathItem, Operation operation) {
+			this.priority = priority;
+			this.pathLink = pathLink;
+			this.method = method;
+			this.pathItem = pathItem;
+			this.operation = operation;
+		}
+
+	}
+
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.openapi;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.DefinitionExpansion;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConverterOptions;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.ResponseHeaderValueBuilder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.DefinitionCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.JsonBodyRenderer;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFields;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.PropertyBuilder;
+import io.swagger.models.properties.PropertyBuilder.PropertyId;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+
+/**
+ * Creates the values and Json bodies of OpenAPI 3 schemas, resolving references to the
+ * {@code components/schemas} of the document.
+ * <p>
+ * The fields of a schema are copied to a Swagger 2 property, so examples, default values,
+ * enums and primitive values are created by the {@link ResponseHeaderValueBuilder} like
+ * the ones of Swagger 2 definitions, including the generators of the converter options.
+ * Generators get a context without Swagger 2 definitions. Only references, objects,
+ * composed schemas and array items are walked here. Referenced schemas are expanded like
+ * Swagger 2 definitions, within the maximum depth and number of definitions of the
+ * converter options, and complete expansions are cached.
+ * <p>
+ * The {@code x-ref} field of Swagger 2 is not supported. Bodies are always created from
+ * the examples or the schema of a media type, and an {@code x-ref} file is not read.
+ *
+ * @author Sven Bayer
+ */
+final class OpenApiSchemaValues {
+
+	private static final String OBJECT = "object";
+
+	private final DefinitionCache definitionCache = new DefinitionCache();
+
+	private final Map<String, Schema<?>> schemas = new HashMap<>();
+
+	private final SwaggerConverterOptions options;
+
+	private final SwaggerConversionContext generatorContext;
+
+	/**
+	 * Creates the values of the component schemas of a document.
+	 * @param components the components of the document or null
+	 * @param options the converter options
+	 */
+	OpenApiSchemaValues(Components components, SwaggerConverterOptions options) {
+		if (components != null && components.getSchemas() != null) {
+			components.getSchemas().forEach(this.schemas::put);
+		}
+		this.options = options;
+		this.generatorContext = new SwaggerConversionContext(null, null, options);
+	}
+
+	/**
+	 * Creates the body of the given schema.
+	 * @param schema the schema of the body
+	 * @return the body written in the configured serialization mode
+	 */
+	String createBody(Schema<?> schema) {
+		return renderBody(createValue(null, schema, newExpansion()));
+	}
+
+	/**
+	 * Writes an example value as body.
+	 * @param example the example value
+	 * @return the body written in the configured serialization mode
+	 */
+	String renderBody(Object example) {
+		return JsonBodyRenderer.render(JsonBodyRenderer.toNode(example),
+				this.options.getBodySerialization());
+	}
+
+	/**
+	 * Creates the plain value of a parameter or header schema. Object values are written
+	 * as compact Json.
+	 * @param name the name of the parameter or header
+	 * @param schema the schema
+	 * @return the value
+	 */
+	Object createPlainValue(String name, Schema<?> schema) {
+		Object value = createValue(name, schema, newExpansion());
+		if (value instanceof JsonNode || value instanceof List) {
+			return JsonBodyRenderer.toNode(value).toString();
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the schema a reference points to.
+	 * @param schema the schema that may be a reference
+	 * @return the referenced schema or the schema itself
+	 */
+	Schema<?> dereference(Schema<?> schema) {
+		if (schema == null || schema.get$ref() == null) {
+			return schema;
+		}
+		return componentSchema(schema.get$ref());
+	}
+
+	/**
+	 * Returns the value of a vendor extension.
+	 * @param extensions the vendor extensions or null
+	 * @param field the extension field
+	 * @return the value or null
+	 */
+	static Object extension(Map<String, Object> extensions, SwaggerFields field) {
+		return extensions != null ? extensions.get(field.field()) : null;
+	}
+
+	/**
+	 * Converts dates that the parser creates from examples back to their Json text.
+	 * @param value the value of an example
+	 * @return the plain value
+	 */
+	static Object plain(Object value) {
+		if (value instanceof Date) {
+			return LocalDate.ofInstant(((Date) value).toInstant(), ZoneOffset.UTC)
+					.toString();
+		}
+		if (value instanceof TemporalAccessor) {
+			return value.toString();
+		}
+		return value;
+	}
+
+	/**
+	 * Copies the example, default value, enum, bounds and vendor extensions of a schema
+	 * to a Swagger 2 property of the same type and format.
+	 * @param schema the schema
+	 * @return the property or null if Swagger 2 has no property of the type
+	 */
+	static Property toProperty(Schema<?> schema) {
+		Map<PropertyId, Object> args = new EnumMap<>(PropertyId.class);
+		putIfPresent(args, PropertyId.EXAMPLE, plain(schema.getExample()));
+		if (schema.getDefault() != null) {
+			args.put(PropertyId.DEFAULT, String.valueOf(plain(schema.getDefault())));
+		}
+		if (schema.getEnum() != null) {
+			args.put(PropertyId.ENUM,
+					schema.getEnum().stream().map(value -> String.valueOf(plain(value)))
+							.collect(Collectors.toList()));
+		}
+		putIfPresent(args, PropertyId.MINIMUM, schema.getMinimum());
+		putIfPresent(args, PropertyId.MAXIMUM, schema.getMaximum());
+		putIfPresent(args, PropertyId.EXCLUSIVE_MINIMUM, schema.getExclusiveMinimum());
+		putIfPresent(args, PropertyId.EXCLUSIVE_MAXIMUM, schema.getExclusiveMaximum());
+		putIfPresent(args, PropertyId.PATTERN, schema.getPattern());
+		putIfPresent(args, PropertyId.VENDOR_EXTENSIONS, schema.getExtensions());
+		return PropertyBuilder.build(schema.getType(), schema.getFormat(), args);
+	}
+
+	private static void putIfPresent(Map<PropertyId, Object> args, PropertyId id,
+			Object value) {
+		if (value != null) {
+			args.put(id, value);
+		}
+	}
+
+	private DefinitionExpansion newExpansion() {
+		return new DefinitionExpansion(this.options.getMaxExpansionDepth(),
+				this.options.getMaxExpandedDefinitions());
+	}
+
+	private Object createValue(String key, Schema<?> schema,
+			DefinitionExpansion expansion) {
+		if (schema == null) {
+			return key;
+		}
+		if (schema.get$ref() != null) {
+			return resolveReference(schema.get$ref(), expansion);
+		}
+		Property property = toProperty(schema);
+		if (property == null) {
+			return key;
+		}
+		Object example = ResponseHeaderValueBuilder.createExampleValue(property);
+		if (example != null) {
+			return example;
+		}
+		if (schema instanceof ComposedSchema) {
+			return createComposedValue(key, (ComposedSchema) schema, expansion);
+		}
+		if (property instanceof ArrayProperty && schema instanceof ArraySchema
+				&& ((ArraySchema) schema).getItems() != null) {
+			return ResponseHeaderValueBuilder.createArrayValue(
+					createValue(key, ((ArraySchema) schema).getItems(), expansion));
+		}
+		if (schema.getProperties() != null || OBJECT.equals(schema.getType())) {
+			return createObjectValue(schema, expansion);
+		}
+		return ResponseHeaderValueBuilder.createResponseHeaderValue(key, property,
+				this.generatorContext);
+	}
+
+	/**
+	 * Creates the object of the properties of all {@code allOf} schemas, or the value of
+	 * the first {@code oneOf} or {@code anyOf} schema.
+	 */
+	private Object createComposedValue(String key, ComposedSchema schema,
+			DefinitionExpansion expansion) {
+		if (schema.getAllOf() != null && !schema.getAllOf().isEmpty()) {
+			ObjectNode json = JsonNodeFactory.instance.objectNode();
+			for (Schema<?> part : schema.getAllOf()) {
+				Object value = createValue(key, part, expansion);
+				if (value instanceof ObjectNode) {
+					json.setAll((ObjectNode) value);
+				}
+			}
+			if (schema.getProperties() != null) {
+				json.setAll(createObjectValue(schema, expansion));
+			}
+			return json;
+		}
+		Schema<?> alternative = firstOf(schema.getOneOf());
+		if (alternative == null) {
+			alternative = firstOf(schema.getAnyOf());
+		}
+		if (alternative != null) {
+			return createValue(key, alternative, expansion);
+		}
+		return createObjectValue(schema, expansion);
+	}
+
+	private static Schema<?> firstOf(List<?> alternatives) {
+		return alternatives != null && !alternatives.isEmpty()
+				? (Schema<?>) alternatives.get(0) : null;
+	}
+
+	private ObjectNode createObjectValue(Schema<?> schema,
+			DefinitionExpansion expansion) {
+		Map<String, JsonNode> fields = new LinkedHashMap<>();
+		if (schema.getProperties() != null) {
+			schema.getProperties().forEach((name, property) -> fields.put(name,
+					JsonBodyRenderer.toNode(createValue(name, property, expansion))));
+		}
+		ObjectNode json = JsonNodeFactory.instance.objectNode();
+		json.setAll(fields);
+		return json;
+	}
+
+	/**
+	 * Resolves a reference to a component schema. A reference to a recursive schema that
+	 * is truncated has no value.
+	 */
+	private JsonNode resolveReference(String reference, DefinitionExpansion expansion) {
+		String name = nameOf(reference);
+		JsonNode value = this.definitionCache.get(name, expansion);
+		if (value != null) {
+			return value;
+		}
+		if (!expansion.enter(name)) {
+			return null;
+		}
+		DefinitionExpansion.Subtree subtree;
+		try {
+			value = JsonBodyRenderer
+					.toNode(createValue(name, componentSchema(reference), expansion));
+		}
+		finally {
+			subtree = expansion.leave(name);
+		}
+		if (subtree != null) {
+			this.definitionCache.put(name, value, subtree);
+		}
+		return value;
+	}
+
+	private Schema<?> componentSchema(String reference) {
+		Schema<?> schema = this.schemas.get(nameOf(reference));
+		if (schema == null) {
+			throw new SwaggerContractConverterException(
+					"Could not resolve reference '" + reference + "'");
+		}
+		return schema;
+	}
+
+	private static String nameOf(String reference) {
+		return reference.substring(reference.lastIndexOf('/') + 1);
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(this.definitionCache);
+	}
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import groovy.lang.Closure;
+
+import org.springframework.cloud.contract.spec.Contract;
+import org.springframework.cloud.contract.spec.internal.Headers;
+import org.springframework.cloud.contract.spec.internal.QueryParameters;
+import org.springframework.cloud.contract.spec.internal.Request;
+import org.springframework.cloud.contract.spec.internal.Response;
+
+/**
+ * The plain data of a Spring Cloud contract that is converted from a Swagger operation.
+ * <p>
+ * A snapshot can be stored and restored without the Groovy object graph of a
+ * {@link Contract} and is turned into a contract with {@link #toContract()}.
+ *
+ * @author Sven Bayer
+ */
+public final class ContractSnapshot {
+
+	private String name;
+
+	private String description;
+
+	private String label;
+
+	private int priority;
+
+	private boolean ignored;
+
+	private String method;
+
+	private String urlPath;
+
+	private List<ParameterSnapshot> queryParameters;
+
+	private final List<ParameterSnapshot> requestHeaders = new ArrayList<>();
+
+	private final List<String> requestContentTypes = new ArrayList<>();
+
+	private String requestBody;
+
+	private int status;
+
+	private final List<ParameterSnapshot> responseHeaders = new ArrayList<>();
+
+	private final List<String> responseContentTypes = new ArrayList<>();
+
+	private String responseBody;
+
+	/**
+	 * Creates the Spring Cloud contract of this snapshot.
+	 * @return the Spring Cloud contract
+	 */
+	public Contract toContract() {
+		Contract contract = Contract.make(Closure.IDENTITY);
+		contract.setName(this.name);
+		if (this.description != null) {
+			contract.description(this.description);
+		}
+		if (this.label != null) {
+			contract.setLabel(this.label);
+		}
+		contract.setPriority(this.priority);
+		contract.setIgnored(this.ignored);
+
+		Request request = new Request();
+		contract.setRequest(request);
+		if (this.method != null) {
+			request.method(this.method);
+		}
+		if (this.urlPath != null) {
+			request.urlPath(this.urlPath);
+			if (this.queryParameters != null) {
+				QueryParameters parameters = new QueryParameters();
+				request.getUrlPath().setQueryParameters(parameters);
+				this.queryParameters.forEach(parameter -> parameters
+						.parameter(parameter.getName(), parameter.toDslProperty()));
+			}
+		}
+		request.headers(Closure.IDENTITY);
+		Headers requestHeaders = request.getHeaders();
+		this.requestHeaders.forEach(header -> requestHeaders.header(header.getName(),
+				header.toDslProperty()));
+		this.requestContentTypes.forEach(requestHeaders::contentType);
+		if (this.requestBody != null) {
+			request.body(this.requestBody);
+		}
+
+		Response response = new Response();
+		contract.setResponse(response);
+		response.status(this.status);
+		response.headers(Closure.IDENTITY);
+		Headers responseHeaders = response.getHeaders();
+		this.responseHeaders.forEach(header -> responseHeaders.header(header.getName(),
+				header.toDslProperty()));
+		this.responseContentTypes.forEach(responseHeaders::contentType);
+		if (this.responseBody != null) {
+			response.body(this.responseBody);
+		}
+		return contract;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getDescription() {
+		return this.description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public String getLabel() {
+		return this.label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public int getPriority() {
+		return this.priority;
+	}
+
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+
+	public boolean isIgnored() {
+		return this.ignored;
+	}
+
+	public void setIgnored(boolean ignored) {
+		this.ignored = ignored;
+	}
+
+	public String getMethod() {
+		return this.method;
+	}
+
+	public void setMethod(String method) {
+		this.method = method;
+	}
+
+	public String getUrlPath() {
+		return this.urlPath;
+	}
+
+	public void setUrlPath(String urlPath) {
+		this.urlPath = urlPath;
+	}
+
+	/**
+	 * Returns the query parameters of the url path.
+	 * @return the query parameters or null if the url path has no query parameters set
+	 */
+	public List<ParameterSnapshot> getQueryParameters() {
+		return this.queryParameters;
+	}
+
+	public void setQueryParameters(List<ParameterSnapshot> queryParameters) {
+		this.queryParameters = queryParameters;
+	}
+
+	public List<ParameterSnapshot> getRequestHeaders() {
+		return this.requestHeaders;
+	}
+
+	public List<String> getRequestContentTypes() {
+		return this.requestContentTypes;
+	}
+
+	public String getRequestBody() {
+		return this.requestBody;
+	}
+
+	public void setRequestBody(String requestBody) {
+		this.requestBody = requestBody;
+	}
+
+	public int getStatus() {
+		return this.status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public List<ParameterSnapshot> getResponseHeaders() {
+		return this.responseHeaders;
+	}
+
+	public List<String> getResponseContentTypes() {
+		return this.responseContentTypes;
+	}
+
+	public String getResponseBody() {
+		return this.responseBody;
+	}
+
+	public void setResponseBody(String responseBody) {
+		this.responseBody = responseBody;
+	}
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Writes and reads {@link ContractSnapshot}s as compact Json.
+ * <p>
+ * Values of parameters and headers keep their Java type, so a restored contract equals
+ * the converted one. Only strings, booleans, numbers, lists and maps of those are
+ * supported as values.
+ *
+ * @author Sven Bayer
+ */
+public final class ContractSnapshotCodec {
+
+	private static final String STRING = "s";
+
+	private static final String BOOLEAN = "b";
+
+	private static final String INTEGER = "i";
+
+	private static final String LONG = "l";
+
+	private static final String FLOAT = "f";
+
+	private static final String DOUBLE = "d";
+
+	private static final String BIG_DECIMAL = "bd";
+
+	private static final String BIG_INTEGER = "bi";
+
+	private static final String LIST = "a";
+
+	private static final String MAP = "m";
+
+	/**
+	 * Writes the given snapshots as Json array.
+	 * @param snapshots the contract snapshots
+	 * @param generator the generator to write to
+	 * @throws IOException if the snapshots could not be written
+	 * @throws IllegalArgumentException if a value has an unsupported type
+	 */
+	public void write(List<ContractSnapshot> snapshots, JsonGenerator generator)
+			throws IOException {
+		generator.writeStartArray();
+		for (ContractSnapshot snapshot : snapshots) {
+			writeSnapshot(snapshot, generator);
+		}
+		generator.writeEndArray();
+	}
+
+	/**
+	 * Reads snapshots from a Json array written by {@link #write(List, JsonGenerator)}.
+	 * @param node the Json array
+	 * @return the contract snapshots
+	 */
+	public List<ContractSnapshot> read(JsonNode node) {
+		List<ContractSnapshot> snapshots = new ArrayList<>(node.size());
+		for (JsonNode snapshotNode : node) {
+			snapshots.add(readSnapshot(snapshotNode));
+		}
+		return snapshots;
+	}
+
+	private void writeSnapshot(ContractSnapshot snapshot, JsonGenerator generator)
+			throws IOException {
+		generator.writeStartObject();
+		writeStringField(generator, "name", snapshot.getName());
+		writeStringField(generator, "description", snapshot.getDescription());
+		writeStringField(generator, "label", snapshot.getLabel());
+		generator.writeNumberField("priority", snapshot.getPriority());
+		generator.writeBooleanField("ignored", snapshot.isIgnored());
+		writeStringField(generator, "method", snapshot.getMethod());
+		writeStringField(generator, "urlPath", snapshot.getUrlPath());
+		if (snapshot.getQueryParameters() != null) {
+			generator.writeFieldName("queryParameters");
+			writeParameters(snapshot.getQueryParameters(), generator);
+		}
+		generator.writeFieldName("requestHeaders");
+		writeParameters(snapshot.getRequestHeaders(), generator);
+		generator.writeFieldName("requestContentTypes");
+		writeStrings(snapshot.getRequestContentTypes(), generator);
+		writeStringField(generator, "requestBody", snapshot.getRequestBody());
+		generator.writeNumberField("status", snapshot.getStatus());
+		generator.writeFieldName("responseHeaders");
+		writeParameters(snapshot.getResponseHeaders(), generator);
+		generator.writeFieldName("responseContentTypes");
+		writeStrings(snapshot.getResponseContentTypes(), generator);
+		writeStringField(generator, "responseBody", snapshot.getResponseBody());
+		generator.writeEndObject();
+	}
+
+	private ContractSnapshot readSnapshot(JsonNode node) {
+		ContractSnapshot snapshot = new ContractSnapshot();
+		snapshot.setName(readString(node, "name"));
+		snapshot.setDescription(readString(node, "description"));
+		snapshot.setLabel(readString(node, "label"));
+		snapshot.setPriority(node.path("priority").intValue());
+		snapshot.setIgnored(node.path("ignored").booleanValue());
+		snapshot.setMethod(readString(node, "method"));
+		snapshot.setUrlPath(readString(node, "urlPath"));
+		if (node.has("queryParameters")) {
+			snapshot.setQueryParameters(readParameters(node.get("queryParameters")));
+		}
+		snapshot.getRequestHeaders().addAll(readParameters(node.path("requestHeaders")));
+		node.path("requestContentTypes").forEach(contentType -> snapshot
+				.getRequestContentTypes().add(contentType.asText()));
+		snapshot.setRequestBody(readString(node, "requestBody"));
+		snapshot.setStatus(node.path("status").intValue());
+		snapshot.getResponseHeaders()
+				.addAll(readParameters(node.path("responseHeaders")));
+		node.path("responseContentTypes").forEach(contentType -> snapshot
+				.getResponseContentTypes().add(contentType.asText()));
+		snapshot.setResponseBody(readString(node, "responseBody"));
+		return snapshot;
+	}
+
+	private void writeParameters(List<ParameterSnapshot> parameters,
+			JsonGenerator generator) throws IOException {
+		generator.writeStartArray();
+		for (ParameterSnapshot parameter : parameters) {
+			generator.writeStartObject();
+			generator.writeStringField("name", parameter.getName());
+			if (parameter.getPattern() != null) {
+				generator.writeStringField("pattern", parameter.getPattern().pattern());
+				generator.writeNumberField("flags", parameter.getPattern().flags());
+			}
+			generator.writeFieldName("value");
+			writeValue(parameter.getValue(), generator);
+			generator.writeEndObject();
+		}
+		generator.writeEndArray();
+	}
+
+	private List<ParameterSnapshot> readParameters(JsonNode node) {
+		List<ParameterSnapshot> parameters = new ArrayList<>(node.size());
+		for (JsonNode parameter : node) {
+			Pattern pattern = null;
+			if (parameter.has("pattern")) {
+				pattern = Pattern.compile(parameter.get("pattern").asText(),
+						parameter.path("flags").intValue());
+			}
+			parameters.add(new ParameterSnapshot(readString(parameter, "name"), pattern,
+					readValue(parameter.get("value"))));
+		}
+		return parameters;
+	}
+
+	private void writeStrings(List<String> values, JsonGenerator generator)
+			throws IOException {
+		generator.writeStartArray();
+		for (String value : values) {
+			generator.writeString(value);
+		}
+		generator.writeEndArray();
+	}
+
+	private void writeStringField(JsonGenerator generator, String field, String value)
+			throws IOException {
+		if (value != null) {
+			generator.writeStringField(field, value);
+		}
+	}
+
+	private String readString(JsonNode node, String field) {
+		JsonNode value = node.get(field);
+		return value == null || value.isNull() ? null : value.asText();
+	}
+
+	/**
+	 * Writes a value as an object with a single field that names its type.
+	 */
+	private void writeValue(Object value, JsonGenerator generator) throws IOException {
+		if (value == null) {
+			generator.writeNull();
+			return;
+		}
+		generator.writeStartObject();
+		if (value instanceof String) {
+			generator.writeStringField(STRING, (String) value);
+		}
+		else if (value instanceof Boolean) {
+			generator.writeBooleanField(BOOLEAN, (Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			generator.writeNumberField(INTEGER, (Integer) value);
+		}
+		else if (value instanceof Long) {
+			generator.writeNumberField(LONG, (Long) value);
+		}
+		else if (value instanceof Float) {
+			generator.writeNumberField(FLOAT, (Float) value);
+		}
+		else if (value instanceof Double) {
+			generator.writeNumberField(DOUBLE, (Double) value);
+		}
+		else if (value instanceof BigDecimal) {
+			generator.writeStringField(BIG_DECIMAL, value.toString());
+		}
+		else if (value instanceof BigInteger) {
+			generator.writeStringField(BIG_INTEGER, value.toString());
+		}
+		else if (value instanceof List) {
+			generator.writeArrayFieldStart(LIST);
+			for (Object element : (List<?>) value) {
+				writeValue(element, generator);
+			}
+			generator.writeEndArray();
+		}
+		else if (value instanceof Map) {
+			generator.writeObjectFieldStart(MAP);
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				generator.writeFieldName(String.valueOf(entry.getKey()));
+				writeValue(entry.getValue(), generator);
+			}
+			generator.writeEndObject();
+		}
+		else {
+			throw new IllegalArgumentException(
+					"Values of type '" + value.getClass().getName()
+							+ "' can not be stored in a contract snapshot");
+		}
+		generator.writeEndObject();
+	}
+
+	private Object readValue(JsonNode node) {
+		if (node == null || node.isNull()) {
+			return null;
+		}
+		Map.Entry<String, JsonNode> typedValue = node.fields().next();
+		JsonNode value = typedValue.getValue();
+		switch (typedValue.getKey()) {
+		case STRING:
+			return value.asText();
+		case BOOLEAN:
+			return value.booleanValue();
+		case INTEGER:
+			return value.intValue();
+		case LONG:
+			return value.longValue();
+		case FLOAT:
+			return value.floatValue();
+		case DOUBLE:
+			return value.doubleValue();
+		case BIG_DECIMAL:
+			return new BigDecimal(value.asText());
+		case BIG_INTEGER:
+			return new BigInteger(value.asText());
+		case LIST:
+			List<Object> list = new ArrayList<>(value.size());
+			value.forEach(element -> list.add(readValue(element)));
+			return list;
+		case MAP:
+			Map<String, Object> map = new LinkedHashMap<>();
+			Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				map.put(field.getKey(), readValue(field.getValue()));
+			}
+			return map;
+		default:
+			throw new IllegalArgumentException(
+					"Unknown value type '" + typedValue.getKey() + "'");
+		}
+	}
+
+}
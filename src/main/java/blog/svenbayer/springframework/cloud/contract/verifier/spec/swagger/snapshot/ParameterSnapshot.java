@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot;
+
+import java.util.regex.Pattern;
+
+import org.springframework.cloud.contract.spec.internal.DslProperty;
+
+/**
+ * A named value of a contract, like a query parameter or a header, with an optional
+ * pattern the client side has to match.
+ *
+ * @author Sven Bayer
+ */
+public final class ParameterSnapshot {
+
+	private final String name;
+
+	private final Pattern pattern;
+
+	private final Object value;
+
+	public ParameterSnapshot(String name, Pattern pattern, Object value) {
+		this.name = name;
+		this.pattern = pattern;
+		this.value = value;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public Pattern getPattern() {
+		return this.pattern;
+	}
+
+	public Object getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Creates the dsl value of this parameter.
+	 * @return the pattern and value or only the value if there is no pattern
+	 */
+	DslProperty<Object> toDslProperty() {
+		if (this.pattern == null) {
+			return new DslProperty<>(this.value);
+		}
+		return new DslProperty<>(this.pattern, this.value);
+	}
+
+}
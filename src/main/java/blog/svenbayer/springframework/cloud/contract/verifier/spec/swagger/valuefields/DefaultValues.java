@@ -51,7 +51,8 @@ public final class DefaultValues {
 	public static final boolean DEFAULT_BOOLEAN = true;
 
 	/**
-	 * Creates a default value for a given parameter.
+	 * Creates a default value for a given parameter, with the strategy of its type and
+	 * format in the {@link TypeFormatTable}.
 	 * @param type the primitive type
 	 * @param format the specific format
 	 * @param name the name of the parameter
@@ -61,85 +62,7 @@ public final class DefaultValues {
 	 */
 	public Object createDefaultValueForType(String type, String format, String name,
 			BigDecimal min, BigDecimal max) {
-		if (SwaggerTypes.STRING.type().equals(type)) {
-			if (name != null && !name.isEmpty()) {
-				return name;
-			}
-			else {
-				return SwaggerTypes.STRING.type();
-			}
-		}
-		Object numericalValue = getNumericalValue(type, format, min, max);
-		if (numericalValue != null) {
-			return numericalValue;
-		}
-		Object intValue = getIntValue(type, format, min, max);
-		if (intValue != null) {
-			return intValue;
-		}
-		Object longValue = getLongValue(type, format, min, max);
-		if (longValue != null) {
-			return longValue;
-		}
-		if (SwaggerTypes.BOOLEAN.type().equals(type)) {
-			return DEFAULT_BOOLEAN;
-		}
-		return DEFAULT_INT;
-	}
-
-	private Object getIntValue(String type, String format, BigDecimal min,
-			BigDecimal max) {
-		if (SwaggerTypes.INTEGER.type().equals(type)
-				&& SwaggerFormats.INT_64.format().equals(format)) {
-			if (min != null) {
-				return min.longValue();
-			}
-			if (max != null) {
-				return max.longValue();
-			}
-			return DEFAULT_LONG;
-		}
-		return null;
-	}
-
-	private Object getLongValue(String type, String format, BigDecimal min,
-			BigDecimal max) {
-		if (SwaggerTypes.INTEGER.type().equals(type)
-				&& (SwaggerFormats.INT_32.format().equals(format) || format == null)) {
-			if (min != null) {
-				return min.intValue();
-			}
-			if (max != null) {
-				return max.intValue();
-			}
-			return DEFAULT_INT;
-		}
-		return null;
-	}
-
-	private Object getNumericalValue(String type, String format, BigDecimal min,
-			BigDecimal max) {
-		if (SwaggerTypes.NUMBER.type().equals(type)
-				&& (SwaggerFormats.DOUBLE.format().equals(format) || format == null)) {
-			if (min != null) {
-				return min.doubleValue();
-			}
-			if (max != null) {
-				return max.doubleValue();
-			}
-			return DEFAULT_DOUBLE;
-		}
-		if (SwaggerTypes.NUMBER.type().equals(type)
-				&& SwaggerFormats.FLOAT.format().equals(format)) {
-			if (min != null) {
-				return min.floatValue();
-			}
-			if (max != null) {
-				return max.floatValue();
-			}
-			return DEFAULT_DOUBLE;
-		}
-		return null;
+		return TypeFormatTable.valueStrategy(type, format).createValue(name, min, max);
 	}
 
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * The default value strategy and the pattern of every combination of a Swagger type and
+ * format, computed once when the class is loaded.
+ * <p>
+ * Types and formats are looked up by their name. Types that are not {@link SwaggerTypes}
+ * share one row of the table, and formats that are not {@link SwaggerFormats} share one
+ * column, apart from a missing format that has a column of its own.
+ *
+ * @author Sven Bayer
+ */
+public final class TypeFormatTable {
+
+	private static final Pattern ANY = Pattern.compile(".+");
+
+	private static final Pattern DECIMAL = Pattern.compile("[0-9]+\\.[0-9]+");
+
+	private static final Pattern DIGITS = Pattern.compile("[0-9]+");
+
+	private static final Pattern BOOLEAN_VALUE = Pattern.compile("(true|false)");
+
+	private static final int MISSING_FORMAT = 0;
+
+	private static final int OTHER_FORMAT = 1;
+
+	private static final Map<String, Integer> TYPE_INDEXES = new HashMap<>();
+
+	private static final Map<String, Integer> FORMAT_INDEXES = new HashMap<>();
+
+	private static final ValueStrategy[][] VALUE_STRATEGIES;
+
+	private static final Pattern[][] PATTERNS;
+
+	static {
+		SwaggerTypes[] types = SwaggerTypes.values();
+		SwaggerFormats[] formats = SwaggerFormats.values();
+		for (SwaggerTypes type : types) {
+			TYPE_INDEXES.put(type.type(), type.ordinal());
+		}
+		for (SwaggerFormats format : formats) {
+			FORMAT_INDEXES.put(format.format(), format.ordinal() + 2);
+		}
+		VALUE_STRATEGIES = new ValueStrategy[types.length + 1][formats.length + 2];
+		PATTERNS = new Pattern[types.length + 1][formats.length + 2];
+		for (int typeIndex = 0; typeIndex <= types.length; typeIndex++) {
+			SwaggerTypes type = typeIndex < types.length ? types[typeIndex] : null;
+			for (int formatIndex = 0; formatIndex < formats.length + 2; formatIndex++) {
+				SwaggerFormats format = formatIndex >= 2 ? formats[formatIndex - 2]
+						: null;
+				boolean missingFormat = formatIndex == MISSING_FORMAT;
+				VALUE_STRATEGIES[typeIndex][formatIndex] = valueStrategy(type, format,
+						missingFormat);
+				PATTERNS[typeIndex][formatIndex] = pattern(type, format);
+			}
+		}
+	}
+
+	private TypeFormatTable() {
+	}
+
+	/**
+	 * Returns the strategy for the default value of the given type and format.
+	 * @param type the Swagger type
+	 * @param format the Swagger format or null
+	 * @return the value strategy
+	 */
+	public static ValueStrategy valueStrategy(String type, String format) {
+		return VALUE_STRATEGIES[typeIndex(type)][formatIndex(format)];
+	}
+
+	/**
+	 * Returns the precompiled pattern of the values of the given type and format.
+	 * @param type the Swagger type
+	 * @param format the Swagger format or null
+	 * @return the pattern
+	 */
+	public static Pattern pattern(String type, String format) {
+		return PATTERNS[typeIndex(type)][formatIndex(format)];
+	}
+
+	private static int typeIndex(String type) {
+		Integer index = type != null ? TYPE_INDEXES.get(type) : null;
+		return index != null ? index : SwaggerTypes.values().length;
+	}
+
+	private static int formatIndex(String format) {
+		if (format == null) {
+			return MISSING_FORMAT;
+		}
+		return FORMAT_INDEXES.getOrDefault(format, OTHER_FORMAT);
+	}
+
+	private static ValueStrategy valueStrategy(SwaggerTypes type, SwaggerFormats format,
+			boolean missingFormat) {
+		if (type == SwaggerTypes.STRING) {
+			return (name, min, max) -> name != null && !name.isEmpty() ? name
+					: SwaggerTypes.STRING.type();
+		}
+		if (type == SwaggerTypes.NUMBER
+				&& (format == SwaggerFormats.DOUBLE || missingFormat)) {
+			return bounded(BigDecimal::doubleValue, DefaultValues.DEFAULT_DOUBLE);
+		}
+		if (type == SwaggerTypes.NUMBER && format == SwaggerFormats.FLOAT) {
+			return bounded(BigDecimal::floatValue, DefaultValues.DEFAULT_DOUBLE);
+		}
+		if (type == SwaggerTypes.INTEGER && format == SwaggerFormats.INT_64) {
+			return bounded(BigDecimal::longValue, DefaultValues.DEFAULT_LONG);
+		}
+		if (type == SwaggerTypes.INTEGER
+				&& (format == SwaggerFormats.INT_32 || missingFormat)) {
+			return bounded(BigDecimal::intValue, DefaultValues.DEFAULT_INT);
+		}
+		if (type == SwaggerTypes.BOOLEAN) {
+			return (name, min, max) -> DefaultValues.DEFAULT_BOOLEAN;
+		}
+		return (name, min, max) -> DefaultValues.DEFAULT_INT;
+	}
+
+	/**
+	 * Creates a strategy that uses the minimum, else the maximum, else the default value.
+	 */
+	private static ValueStrategy bounded(Function<BigDecimal, Object> conversion,
+			Object defaultValue) {
+		return (name, min, max) -> {
+			if (min != null) {
+				return conversion.apply(min);
+			}
+			if (max != null) {
+				return conversion.apply(max);
+			}
+			return defaultValue;
+		};
+	}
+
+	private static Pattern pattern(SwaggerTypes type, SwaggerFormats format) {
+		if (type == SwaggerTypes.STRING) {
+			return ANY;
+		}
+		if (type == SwaggerTypes.NUMBER
+				&& (format == SwaggerFormats.DOUBLE || format == SwaggerFormats.FLOAT)) {
+			return DECIMAL;
+		}
+		if (type == SwaggerTypes.INTEGER) {
+			return DIGITS;
+		}
+		if (type == SwaggerTypes.BOOLEAN) {
+			return BOOLEAN_VALUE;
+		}
+		return ANY;
+	}
+
+	/**
+	 * Creates the default value of a parameter or property.
+	 */
+	@FunctionalInterface
+	public interface ValueStrategy {
+
+		/**
+		 * Creates the default value.
+		 * @param name the name of the parameter
+		 * @param min minimum value
+		 * @param max maximum value
+		 * @return the default value
+		 */
+		Object createValue(String name, BigDecimal min, BigDecimal max);
+
+	}
+
+}
@@ -0,0 +1,57 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json.BodySerializationMode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Sven Bayer
+ */
+class BodySerializationSpec extends Specification {
+
+    ObjectMapper mapper = new ObjectMapper()
+
+    @Unroll
+    def "should write the bodies of #swaggerFile in the #mode mode"() {
+        given:
+            File file = new File(BodySerializationSpec.getResource(swaggerFile).toURI())
+            SwaggerContractConverter converter = new SwaggerContractConverter(SwaggerConverterOptions.builder()
+                    .bodySerialization(mode).build())
+        when:
+            List<Contract> expectedContracts = new ArrayList<>(new SwaggerContractConverter(SwaggerConverterOptions.defaults()).convertFrom(file))
+            List<Contract> contracts = new ArrayList<>(converter.convertFrom(file))
+        then:
+            [expectedContracts, contracts].transpose().each { Contract expected, Contract actual ->
+                assert bodies(actual).size() == bodies(expected).size()
+                [bodies(expected), bodies(actual)].transpose().each { String expectedBody, String actualBody ->
+                    assert mapper.readTree(actualBody) == mapper.readTree(expectedBody)
+                    assert !actualBody.contains("\n")
+                    assert mode != BodySerializationMode.CANONICAL || actualBody == canonical(actualBody)
+                }
+            }
+        where:
+            [swaggerFile, mode] << [["/swagger/single_swagger.yml", "/swagger/external_json/external_json_swagger.yml"],
+                                    [BodySerializationMode.COMPACT, BodySerializationMode.CANONICAL]].combinations()
+    }
+
+    def "should read the body serialization mode from the properties"() {
+        given:
+            Properties properties = new Properties()
+            properties.setProperty(SwaggerConverterOptions.BODY_SERIALIZATION, "compact")
+        expect:
+            SwaggerConverterOptions.fromProperties(properties).bodySerialization == BodySerializationMode.COMPACT
+            SwaggerConverterOptions.defaults().bodySerialization == BodySerializationMode.PRETTY
+    }
+
+    private static List<String> bodies(Contract contract) {
+        [contract.request.body?.clientValue, contract.response.body?.clientValue].findAll { it != null }.collect { it as String }
+    }
+
+    private String canonical(String body) {
+        mapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+                .writeValueAsString(mapper.convertValue(mapper.readTree(body), Object))
+    }
+}
@@ -0,0 +1,113 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.PropertyValueGenerator
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestContractEquals
+import io.swagger.models.properties.StringProperty
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * @author Sven Bayer
+ */
+class ConversionCacheSpec extends Specification {
+
+    Path cacheDirectory = Files.createTempDirectory("swagger-cache")
+
+    def cleanup() {
+        cacheDirectory.toFile().deleteDir()
+    }
+
+    def "should restore the contracts of a previous build from the conversion cache"() {
+        given:
+            File swaggerFile = new File(ConversionCacheSpec.getResource("/swagger/external_json/external_json_swagger.yml").toURI())
+            SwaggerConverterOptions options = SwaggerConverterOptions.builder().cacheDirectory(cacheDirectory).build()
+            SwaggerContractConverter firstBuild = new SwaggerContractConverter(options)
+            SwaggerContractConverter secondBuild = new SwaggerContractConverter(options)
+        when:
+            Collection<Contract> converted = firstBuild.convertFrom(swaggerFile)
+            boolean accepted = secondBuild.isAccepted(swaggerFile)
+            Collection<Contract> restored = secondBuild.convertFrom(swaggerFile)
+        then:
+            accepted
+            TestContractEquals.assertContractEquals(converted, restored)
+            firstBuild.conversionCache.hits == 0
+            secondBuild.conversionCache.hits == 1
+            secondBuild.documentCache.misses == 0
+    }
+
+    def "should read the cache directory from system properties"() {
+        given:
+            Properties properties = new Properties()
+            properties.setProperty(SwaggerConverterOptions.CACHE_DIRECTORY, cacheDirectory.toString())
+            properties.setProperty(SwaggerConverterOptions.CACHE_MAX_SIZE, "1024")
+        when:
+            SwaggerConverterOptions options = SwaggerConverterOptions.fromProperties(properties)
+        then:
+            options.cacheDirectory == cacheDirectory
+            options.cacheMaxSize == 1024
+    }
+
+    def "should restore response headers with arrays of references from the conversion cache"() {
+        given:
+            File swaggerFile = new File(ConversionCacheSpec.getResource("/swagger/headers/ref_header_swagger.yml").toURI())
+            SwaggerConverterOptions options = SwaggerConverterOptions.builder().cacheDirectory(cacheDirectory).build()
+            SwaggerContractConverter firstBuild = new SwaggerContractConverter(options)
+            SwaggerContractConverter secondBuild = new SwaggerContractConverter(options)
+        when:
+            Collection<Contract> converted = firstBuild.convertFrom(swaggerFile)
+            Collection<Contract> restored = secondBuild.convertFrom(swaggerFile)
+            Object header = restored.first().response.headers.entries.find { it.name == "X-Nearby-Planets" }.clientValue
+        then:
+            secondBuild.conversionCache.hits == 1
+            header == ["{\n  \"id\" : \"id\"\n}"]
+            TestContractEquals.assertContractEquals(converted, restored)
+    }
+
+    def "should not restore the contracts of a build with other generators"() {
+        given:
+            File swaggerFile = new File(ConversionCacheSpec.getResource("/swagger/external_json/external_json_swagger.yml").toURI())
+            SwaggerConverterOptions options = SwaggerConverterOptions.builder().cacheDirectory(cacheDirectory).build()
+            SwaggerConverterOptions generatorOptions = SwaggerConverterOptions.builder().cacheDirectory(cacheDirectory)
+                    .generator(StringProperty, generator("generated-v1"))
+                    .build()
+            SwaggerContractConverter firstBuild = new SwaggerContractConverter(options)
+            SwaggerContractConverter secondBuild = new SwaggerContractConverter(generatorOptions)
+        when:
+            firstBuild.convertFrom(swaggerFile)
+            secondBuild.convertFrom(swaggerFile)
+        then:
+            options.contractConfiguration != generatorOptions.contractConfiguration
+            generatorOptions.contractConfiguration.contains(StringProperty.name + ":generated-v1")
+            secondBuild.conversionCache.hits == 0
+    }
+
+    def "should describe generators by their cache keys"() {
+        expect:
+            SwaggerConverterOptions.builder().generator(StringProperty, generator("v1")).build().contractConfiguration !=
+                    SwaggerConverterOptions.builder().generator(StringProperty, generator("v2")).build().contractConfiguration
+            SwaggerConverterOptions.builder().generator(StringProperty, generator("v1")).build().contractConfiguration ==
+                    SwaggerConverterOptions.builder().generator(StringProperty, generator("v1")).build().contractConfiguration
+    }
+
+    def "should not use the conversion cache with generators without cache key"() {
+        given:
+            SwaggerConverterOptions options = SwaggerConverterOptions.builder().cacheDirectory(cacheDirectory)
+                    .generator(StringProperty, { key, property, context -> "generated" } as PropertyValueGenerator)
+                    .build()
+        expect:
+            !options.conversionCacheEnabled
+            new SwaggerContractConverter(options).conversionCache == null
+    }
+
+    private static PropertyValueGenerator generator(String cacheKey) {
+        return [createValue: { key, property, context -> "generated" }, cacheKey: { cacheKey }] as PropertyValueGenerator
+    }
+
+    def "should disable the conversion cache by default"() {
+        expect:
+            new SwaggerContractConverter(SwaggerConverterOptions.defaults()).conversionCache == null
+    }
+}
@@ -0,0 +1,56 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestContractEquals
+import io.swagger.models.Swagger
+import io.swagger.parser.SwaggerParser
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+
+/**
+ * @author Sven Bayer
+ */
+class LazyContractCollectionSpec extends Specification {
+
+    File multipleSwaggerYaml = new File(LazyContractCollectionSpec.getResource("/swagger/multiple/multiple_swagger.yml").toURI())
+
+    def "should build the same contracts lazily as eagerly"() {
+        given:
+            SwaggerContractConverter eager = new SwaggerContractConverter(SwaggerConverterOptions.defaults())
+            SwaggerContractConverter lazy = new SwaggerContractConverter(SwaggerConverterOptions.builder().lazyContracts(true).build())
+        when:
+            Collection<Contract> eagerContracts = eager.convertFrom(multipleSwaggerYaml)
+            Collection<Contract> lazyContracts = lazy.convertFrom(multipleSwaggerYaml)
+        then:
+            lazyContracts instanceof LazyContractCollection
+            lazyContracts.size() == eagerContracts.size()
+            TestContractEquals.assertContractEquals(eagerContracts, new ArrayList<>(lazyContracts))
+    }
+
+    def "should build contracts only while iterating and skip ignored operations"() {
+        given:
+            File file = multipleSwaggerYaml
+            Swagger swagger = new SwaggerParser().read(file.path)
+            List<Integer> eagerPriorities = new SwaggerContractConverter().convertFrom(multipleSwaggerYaml)*.priority
+            List<Integer> builtPriorities = []
+            LazyContractCollection contracts = new LazyContractCollection(swagger, SwaggerConversionContext.of(file.parentFile.toPath(), swagger.definitions), { document, context, priority, pathLink, operationEntry ->
+                builtPriorities << priority.getAndIncrement()
+                return Contract.make {}
+            })
+        when:
+            int size = contracts.size()
+        then:
+            size == eagerPriorities.size()
+            builtPriorities.isEmpty()
+        when:
+            Iterator<Contract> iterator = contracts.iterator()
+            iterator.next()
+        then:
+            builtPriorities == [eagerPriorities[0]]
+        when:
+            while (iterator.hasNext()) {
+                iterator.next()
+            }
+        then:
+            builtPriorities == eagerPriorities
+    }
+}
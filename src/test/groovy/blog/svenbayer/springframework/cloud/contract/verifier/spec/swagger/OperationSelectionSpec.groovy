@@ -0,0 +1,66 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestContractEquals
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Sven Bayer
+ */
+class OperationSelectionSpec extends Specification {
+
+    static final Map<String, Closure> MODES = [
+            "sequential": { SwaggerConverterOptions.Builder options -> options },
+            "parallel"  : { SwaggerConverterOptions.Builder options -> options.parallel(true) },
+            "lazy"      : { SwaggerConverterOptions.Builder options -> options.lazyContracts(true) },
+            "streaming" : { SwaggerConverterOptions.Builder options -> options.streaming(true) }
+    ]
+
+    File file = new File(OperationSelectionSpec.getResource("/swagger/multiple/multiple_swagger.yml").toURI())
+
+    @Unroll
+    def "should convert only the selected operations of #selection with #mode"() {
+        given:
+            List<Contract> allContracts = new ArrayList<>(new SwaggerContractConverter(SwaggerConverterOptions.defaults()).convertFrom(file))
+            SwaggerConverterOptions.Builder builder = SwaggerConverterOptions.builder().selection(selection)
+            MODES[mode](builder)
+        when:
+            Collection<Contract> contracts = new SwaggerContractConverter(builder.build()).convertFrom(file)
+        then:
+            contracts.size() == priorities.size()
+            contracts.collect { it.priority } == priorities
+            TestContractEquals.assertContractEquals(allContracts.findAll { priorities.contains(it.priority) }, new ArrayList<>(contracts))
+        where:
+            [selection, priorities, mode] << [
+                    [
+                            [OperationSelection.builder().includeTags("land").build(), [3]],
+                            [OperationSelection.builder().paths("/planets/**").build(), [5, 6, 7, 8, 9]],
+                            [OperationSelection.builder().paths("/planets/*/asteroids/*").methods("put", "delete").build(), [6, 8]],
+                            [OperationSelection.builder().operationIds("take.*").build(), [1]],
+                            [OperationSelection.builder().excludeTags("land", "takeoff").build(), [4, 5, 6, 7, 8, 9]],
+                            [OperationSelection.builder().includeTags("ignore").build(), []]
+                    ],
+                    MODES.keySet()
+            ].combinations().collect { it[0] + [it[1]] }
+    }
+
+    def "should read the selection from system properties"() {
+        given:
+            Properties properties = new Properties()
+            properties.setProperty(SwaggerConverterOptions.PATHS, "/planets/** , /land")
+            properties.setProperty(SwaggerConverterOptions.METHODS, "post")
+        when:
+            OperationSelection selection = SwaggerConverterOptions.fromProperties(properties).selection
+        then:
+            !selection.all
+            new SwaggerContractConverter(SwaggerConverterOptions.fromProperties(properties)).convertFrom(file).collect { it.priority } == [3, 7]
+    }
+
+    def "should not change the contract configuration without a selection"() {
+        expect:
+            !SwaggerConverterOptions.defaults().contractConfiguration.contains("OperationSelection")
+            SwaggerConverterOptions.builder().selection(OperationSelection.builder().includeTags("land").build()).build()
+                    .contractConfiguration.contains("OperationSelection")
+    }
+}
@@ -0,0 +1,60 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestContractEquals
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Sven Bayer
+ */
+class ParallelConversionSpec extends Specification {
+
+    SwaggerContractConverter parallelConverter = new SwaggerContractConverter(SwaggerConverterOptions.builder().parallel(true).build())
+
+    @Unroll
+    def "should convert #swaggerFile in parallel to the same contracts"() {
+        given:
+            File file = new File(ParallelConversionSpec.getResource(swaggerFile).toURI())
+        when:
+            List<Contract> expectedContracts = new ArrayList<>(new SwaggerContractConverter(SwaggerConverterOptions.defaults()).convertFrom(file))
+            List<Contract> parallelContracts = new ArrayList<>(parallelConverter.convertFrom(file))
+        then:
+            parallelContracts*.name == expectedContracts*.name
+            parallelContracts*.priority == expectedContracts*.priority
+            TestContractEquals.assertContractEquals(expectedContracts, parallelContracts)
+        where:
+            swaggerFile << ["/swagger/single_swagger.yml",
+                            "/swagger/multiple/multiple_swagger.yml",
+                            "/swagger/complex_definitions/param_swagger.yml",
+                            "/swagger/external_json/external_json_swagger.yml",
+                            "/swagger/json/json_swagger.json",
+                            "/swagger/x-ignore/ignored_param_swagger.yml"]
+    }
+
+    @Unroll
+    def "should truncate #swaggerFile in parallel like a sequential conversion"() {
+        given:
+            File file = new File(ParallelConversionSpec.getResource(swaggerFile).toURI())
+            SwaggerConverterOptions.Builder options = SwaggerConverterOptions.builder().maxExpansionDepth(2)
+        when:
+            List<Contract> expectedContracts = new ArrayList<>(new SwaggerContractConverter(options.build()).convertFrom(file))
+            List<List<Contract>> parallelContracts = (1..20).collect {
+                new ArrayList<>(new SwaggerContractConverter(options.parallel(true).build()).convertFrom(file))
+            }
+        then:
+            parallelContracts.each { TestContractEquals.assertContractEquals(expectedContracts, it) }
+        where:
+            swaggerFile << ["/swagger/recursive/nested_swagger.yml",
+                            "/swagger/recursive/recursive_swagger.yml"]
+    }
+
+    def "should read the parallel option from the properties"() {
+        given:
+            Properties properties = new Properties()
+            properties.setProperty(SwaggerConverterOptions.PARALLEL, "true")
+        expect:
+            SwaggerConverterOptions.fromProperties(properties).parallel
+            !SwaggerConverterOptions.defaults().parallel
+    }
+}
@@ -0,0 +1,87 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+
+/**
+ * @author Sven Bayer
+ */
+class RecursiveSwaggerContractSpec extends Specification {
+
+    ObjectMapper mapper = new ObjectMapper()
+
+    File swaggerYaml = new File(RecursiveSwaggerContractSpec.getResource("/swagger/recursive/recursive_swagger.yml").toURI())
+
+    def "should truncate self-referencing and mutually recursive definitions"() {
+        given:
+            SwaggerContractConverter converter = new SwaggerContractConverter(SwaggerConverterOptions.defaults())
+        when:
+            List<Contract> contracts = new ArrayList<>(converter.convertFrom(swaggerYaml))
+        then:
+            contracts*.name == ["1_galaxies_GET", "2_stars_GET"]
+            mapper.readTree(contracts[0].response.body.clientValue as String) == mapper.readTree('''{
+                "name" : "name",
+                "parent" : null,
+                "children" : [ ]
+            }''')
+            mapper.readTree(contracts[1].response.body.clientValue as String) == mapper.readTree('''{
+                "name" : "name",
+                "planets" : [ {
+                    "name" : "name",
+                    "star" : null
+                } ]
+            }''')
+    }
+
+    def "should truncate definitions that are nested deeper than the maximum expansion depth"() {
+        given:
+            SwaggerContractConverter converter = new SwaggerContractConverter(SwaggerConverterOptions.builder()
+                    .maxExpansionDepth(1).build())
+        when:
+            List<Contract> contracts = new ArrayList<>(converter.convertFrom(swaggerYaml))
+        then:
+            mapper.readTree(contracts[1].response.body.clientValue as String) == mapper.readTree('''{
+                "name" : "name",
+                "planets" : [ ]
+            }''')
+    }
+
+    def "should truncate definitions once the node budget of a reference is used up"() {
+        given:
+            SwaggerContractConverter converter = new SwaggerContractConverter(SwaggerConverterOptions.builder()
+                    .maxExpandedDefinitions(1).build())
+        when:
+            List<Contract> contracts = new ArrayList<>(converter.convertFrom(swaggerYaml))
+        then:
+            mapper.readTree(contracts[1].response.body.clientValue as String).get("planets").size() == 0
+    }
+
+    def "should truncate cached definitions like the first reference to them when #limit"() {
+        given:
+            File nestedYaml = new File(RecursiveSwaggerContractSpec.getResource("/swagger/recursive/nested_swagger.yml").toURI())
+            SwaggerContractConverter converter = new SwaggerContractConverter(options)
+        when:
+            List<Contract> contracts = new ArrayList<>(converter.convertFrom(nestedYaml))
+        then:
+            contracts*.name == ["1_galaxies_GET", "2_stars_GET", "3_milkyway_GET"]
+            mapper.readTree(contracts[0].response.body.clientValue as String) == mapper.readTree('''{
+                "name" : "name",
+                "star" : {
+                    "name" : "name",
+                    "planet" : null
+                }
+            }''')
+            mapper.readTree(contracts[1].response.body.clientValue as String) == mapper.readTree('''{
+                "name" : "name",
+                "planet" : {
+                    "name" : "name"
+                }
+            }''')
+            contracts[2].response.body.clientValue == contracts[0].response.body.clientValue
+        where:
+            limit                   | options
+            "the depth is exceeded" | SwaggerConverterOptions.builder().maxExpansionDepth(2).build()
+            "the budget is used up" | SwaggerConverterOptions.builder().maxExpandedDefinitions(2).build()
+    }
+}
@@ -0,0 +1,64 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestContractEquals
+import org.springframework.cloud.contract.spec.Contract
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Sven Bayer
+ */
+class StreamingContractCollectionSpec extends Specification {
+
+    SwaggerContractConverter streamingConverter = new SwaggerContractConverter(SwaggerConverterOptions.builder().streaming(true).build())
+
+    @Unroll
+    def "should stream the same contracts as converting #swaggerFile"() {
+        given:
+            File file = new File(StreamingContractCollectionSpec.getResource(swaggerFile).toURI())
+        when:
+            Collection<Contract> expectedContracts = new SwaggerContractConverter(SwaggerConverterOptions.defaults()).convertFrom(file)
+            Collection<Contract> streamedContracts = streamingConverter.convertFrom(file)
+        then:
+            streamedContracts instanceof StreamingContractCollection
+            streamedContracts.size() == expectedContracts.size()
+            TestContractEquals.assertContractEquals(expectedContracts, new ArrayList<>(streamedContracts))
+        where:
+            swaggerFile << ["/swagger/single_swagger.yml",
+                            "/swagger/multiple/multiple_swagger.yml",
+                            "/swagger/complex_definitions/param_swagger.yml",
+                            "/swagger/external_json/external_json_swagger.yml",
+                            "/swagger/json/json_swagger.json",
+                            "/swagger/pathVariable/pathVariable_swagger.yml"]
+    }
+
+    def "should keep definitions of referenced files to the path item that references them"() {
+        given:
+            File file = new File(StreamingContractCollectionSpec.getResource("/swagger/streaming/external_ref_swagger.yml").toURI())
+        when:
+            Collection<Contract> expectedContracts = new SwaggerContractConverter(SwaggerConverterOptions.defaults()).convertFrom(file)
+            StreamingContractCollection streamedContracts = streamingConverter.convertFrom(file) as StreamingContractCollection
+            List<Contract> contracts = new ArrayList<>(streamedContracts)
+        then:
+            TestContractEquals.assertContractEquals(expectedContracts, contracts)
+            streamedContracts.context.definitions.keySet() == ["Planet"] as Set
+            streamedContracts.size() == 2
+    }
+
+    def "should accept swagger files without parsing them"() {
+        given:
+            File file = new File(StreamingContractCollectionSpec.getResource("/swagger/single_swagger.yml").toURI())
+        expect:
+            streamingConverter.isAccepted(file)
+            streamingConverter.documentCache.misses == 0
+    }
+
+    def "should read path items one after another"() {
+        given:
+            File file = new File(StreamingContractCollectionSpec.getResource("/swagger/multiple/multiple_swagger.yml").toURI())
+        when:
+            List<String> pathLinks = new StreamingSwaggerReader(file).readPaths().collect { it.key }
+        then:
+            pathLinks == ["/takeoff", "/ignore", "/land", "/find/planets/{solarSystem}", "/planets/{planet}/asteroids/{asteroidName}", "/planets/names"]
+    }
+}
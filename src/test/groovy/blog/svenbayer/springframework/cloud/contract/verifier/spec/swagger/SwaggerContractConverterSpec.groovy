@@ -6,6 +6,13 @@ import org.springframework.cloud.contract.spec.Contract
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
 /**
  * @author Sven Bayer
  */
@@ -21,6 +28,13 @@ class SwaggerContractConverterSpec extends Specification {
             converter.isAccepted(singleSwaggerYaml)
     }
 
+    def "should accept swagger 1.2 files that the parser converts"() {
+        given:
+            File swagger12Json = new File(SwaggerContractConverterSpec.getResource("/swagger/swagger_1_2/planets_swagger.json").toURI())
+        expect:
+            converter.isAccepted(swagger12Json)
+    }
+
     def "should reject yaml files that are swagger files"() {
         given:
             File invalidSwagger = new File(SwaggerContractConverterSpec.getResource("/swagger/invalid_swagger.yml").toURI())
@@ -42,6 +56,43 @@ class SwaggerContractConverterSpec extends Specification {
             !converter.isAccepted(notExistingSwagger)
     }
 
+    def "should parse swagger file only once for accepting and converting"() {
+        given:
+            File singleSwaggerYaml = new File(SwaggerContractConverterSpec.class.getResource("/swagger/single_swagger.yml").toURI())
+        when:
+            converter.isAccepted(singleSwaggerYaml)
+            converter.convertFrom(singleSwaggerYaml)
+        then:
+            converter.documentCache.hits == 1
+            converter.documentCache.misses == 1
+            converter.documentCache.size() == 0
+    }
+
+    def "should resolve x-ref files of different folders when converting concurrently"() {
+        given:
+            File originalSwagger = new File(SwaggerContractConverterSpec.getResource("/swagger/external_json/external_json_swagger.yml").toURI())
+            Path copiedFolder = Files.createTempDirectory("swagger-external-json")
+            originalSwagger.parentFile.listFiles().each {
+                Files.write(copiedFolder.resolve(it.name), it.text.replace("Apollo ll", "Apollo 13").bytes)
+            }
+            List<File> swaggerFiles = [originalSwagger, copiedFolder.resolve(originalSwagger.name).toFile()]
+            Map<File, Collection<Contract>> expectedContracts = swaggerFiles.collectEntries { [(it): converter.convertFrom(it)] }
+            ExecutorService executor = Executors.newFixedThreadPool(4)
+        when:
+            List<File> convertedFiles = (1..20).collect { swaggerFiles[it % 2] }
+            List<Future<Collection<Contract>>> results = convertedFiles.collect { swaggerFile ->
+                executor.submit({ converter.convertFrom(swaggerFile) } as Callable<Collection<Contract>>)
+            }
+        then:
+            expectedContracts[swaggerFiles[1]].any { it.request.body?.clientValue?.toString()?.contains("Apollo 13") }
+            [convertedFiles, results].transpose().each { File swaggerFile, Future<Collection<Contract>> result ->
+                TestContractEquals.assertContractEquals(expectedContracts[swaggerFile], result.get())
+            }
+        cleanup:
+            executor?.shutdown()
+            copiedFolder?.toFile()?.deleteDir()
+    }
+
     def "should retrieve empty contract when converting from swagger"() {
         given:
             List<Contract> springCloudContracts = new ArrayList<>()
@@ -0,0 +1,131 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ContractSnapshot
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.stubbing.StubMapping
+import org.springframework.cloud.contract.spec.Contract
+import org.springframework.cloud.contract.verifier.dsl.wiremock.WireMockStubStrategy
+import org.springframework.cloud.contract.verifier.file.ContractMetadata
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options
+
+/**
+ * @author Sven Bayer
+ */
+class SwaggerStubMappingEmitterSpec extends Specification {
+
+    SwaggerContractConverter converter = new SwaggerContractConverter(SwaggerConverterOptions.defaults())
+    SwaggerStubMappingEmitter emitter = new SwaggerStubMappingEmitter(converter)
+    File file = new File(SwaggerStubMappingEmitterSpec.getResource("/swagger/single_swagger.yml").toURI())
+
+    def "should write the stub mappings of all contracts"() {
+        given:
+            ContractSnapshot snapshot = converter.convertToSnapshots(file).first()
+            StringWriter writer = new StringWriter()
+        when:
+            emitter.write(file, writer)
+            JsonNode mapping = new ObjectMapper().readTree(writer.toString()).path("mappings").get(0)
+        then:
+            mapping.path("name").asText() == snapshot.name
+            mapping.path("priority").asInt() == snapshot.priority
+            mapping.path("request").path("method").asText() == "POST"
+            mapping.path("request").path("urlPath").asText() == "/coffee-rocket-service/v1.0/takeoff"
+            mapping.path("request").path("queryParameters").path("withWormhole").path("matches").asText() == "(true|false)"
+            mapping.path("request").path("headers").path("X-Request-ID").path("matches").asText() == ".+"
+            new ObjectMapper().readTree(mapping.path("request").path("bodyPatterns").get(0).path("equalToJson").asText()) == new ObjectMapper().readTree(snapshot.requestBody)
+            mapping.path("response").path("status").asInt() == 201
+            mapping.path("response").path("headers").path("X-RateLimit-Limit").asText() == "1"
+            mapping.path("response").path("body").asText() == snapshot.responseBody
+    }
+
+    def "should serve the contract request with wiremock"() {
+        given:
+            ContractSnapshot snapshot = converter.convertToSnapshots(file).first()
+            Path directory = Files.createTempDirectory("mappings")
+            WireMockServer server = new WireMockServer(options().dynamicPort())
+            server.start()
+        when:
+            List<Path> mappingFiles = emitter.writeMappings(file, directory)
+            mappingFiles.each { server.addStubMapping(StubMapping.buildFrom(new String(Files.readAllBytes(it), StandardCharsets.UTF_8))) }
+            String query = snapshot.queryParameters.collect { "${it.name}=${it.value}" }.join("&")
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:${server.port()}${snapshot.urlPath}?${query}").openConnection()
+            connection.requestMethod = snapshot.method
+            connection.doOutput = true
+            snapshot.requestHeaders.each { connection.setRequestProperty(it.name, String.valueOf(it.value)) }
+            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8")
+            connection.outputStream.withWriter("UTF-8") { it << snapshot.requestBody }
+        then:
+            mappingFiles.size() == 1
+            mappingFiles.first().fileName.toString() == snapshot.name + ".json"
+            connection.responseCode == 201
+            connection.inputStream.getText("UTF-8") == snapshot.responseBody
+            connection.getHeaderField("X-RateLimit-Limit") == "1"
+        cleanup:
+            server.stop()
+            directory.toFile().deleteDir()
+    }
+
+    def "should match and return the headers of #path like the stubs of Spring Cloud Contract"() {
+        given:
+            File swaggerFile = new File(SwaggerStubMappingEmitterSpec.getResource(path).toURI())
+            Collection<Contract> contracts = converter.convertFrom(swaggerFile)
+            StringWriter writer = new StringWriter()
+            ObjectMapper mapper = new ObjectMapper()
+        when:
+            emitter.write(swaggerFile, writer)
+            JsonNode mappings = mapper.readTree(writer.toString()).path("mappings")
+        then:
+            mappings.size() == contracts.size()
+            contracts.each { Contract contract ->
+                JsonNode stub = mapper.readTree(new WireMockStubStrategy("swagger",
+                        new ContractMetadata(swaggerFile.toPath(), false, 0, null, contract), contract).toWireMockClientStub())
+                JsonNode mapping = mappings.find { it.path("name").asText() == contract.name }
+                assert mapping.path("request").path("headers") == stub.path("request").path("headers")
+                assert mapping.path("response").path("headers") == stub.path("response").path("headers")
+            }
+        where:
+            path << ["/swagger/single_swagger.yml",
+                     "/swagger/multiple/multiple_swagger.yml",
+                     "/swagger/pathVariable/pathVariable_swagger.yml",
+                     "/swagger/pattern/pattern_swagger.yml",
+                     "/swagger/json/json_swagger.json",
+                     "/swagger/external_json/external_json_swagger.yml",
+                     "/swagger/recursive/nested_swagger.yml",
+                     "/swagger/content_type/content_type_swagger.yml"]
+    }
+
+    def "should match vendor content types like application/vnd.api+json literally"() {
+        given:
+            File swaggerFile = new File(SwaggerStubMappingEmitterSpec.getResource("/swagger/content_type/content_type_swagger.yml").toURI())
+            Path directory = Files.createTempDirectory("mappings")
+            WireMockServer server = new WireMockServer(options().dynamicPort())
+            server.start()
+        when:
+            List<Path> mappingFiles = emitter.writeMappings(swaggerFile, directory)
+            mappingFiles.each { server.addStubMapping(StubMapping.buildFrom(new String(Files.readAllBytes(it), StandardCharsets.UTF_8))) }
+            JsonNode mapping = new ObjectMapper().readTree(mappingFiles.find { it.fileName.toString().contains("catalog") }.toFile())
+        then:
+            mapping.path("request").path("headers").path("Content-Type").path("matches").asText() == "application/vnd\\.api\\+json.*"
+            post(server, "/coffee-rocket-service/v1.0/planets/catalog", "application/vnd.api+json;charset=UTF-8") == 200
+            post(server, "/coffee-rocket-service/v1.0/planets/catalog", "application/vndXapi+json") == 404
+        cleanup:
+            server.stop()
+            directory.toFile().deleteDir()
+    }
+
+    private static int post(WireMockServer server, String path, String contentType) {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:${server.port()}${path}").openConnection()
+        connection.requestMethod = "POST"
+        connection.doOutput = true
+        connection.setRequestProperty("Content-Type", contentType)
+        connection.outputStream.close()
+        return connection.responseCode
+    }
+}
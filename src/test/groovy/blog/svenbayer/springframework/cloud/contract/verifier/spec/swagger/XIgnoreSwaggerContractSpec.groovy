@@ -91,4 +91,17 @@ class XIgnoreSwaggerContractSpec extends Specification {
         then:
         thrown SwaggerContractConverterException
     }
+
+    def "should skip ignored operations without resolving their x-ref files"() {
+        given:
+        File swaggerYaml = new File(SwaggerContractConverterSpec.getResource("/swagger/x-ignore/ignored_operation_swagger.yml").toURI())
+        when:
+        Collection<Contract> contracts = converter.convertFrom(swaggerYaml)
+        then:
+        contracts.size() == 1
+        Contract contract = contracts.iterator().next()
+        contract.priority == 2
+        contract.name.startsWith("2_")
+        converter.referencedFileCache.size() == 0
+    }
 }
@@ -0,0 +1,94 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.openapi
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.OperationSelection
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerContractConverter
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConverterOptions
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestContractEquals
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.cloud.contract.spec.Contract
+import org.springframework.cloud.contract.spec.ContractConverter
+import org.springframework.core.io.support.SpringFactoriesLoader
+import spock.lang.Specification
+import spock.lang.Subject
+
+/**
+ * @author Sven Bayer
+ */
+class OpenApiContractConverterSpec extends Specification {
+
+    @Subject
+    OpenApiContractConverter converter = new OpenApiContractConverter(SwaggerConverterOptions.defaults())
+    File openApiFile = new File(OpenApiContractConverterSpec.getResource("/openapi/single_openapi.yml").toURI())
+    File swaggerFile = new File(OpenApiContractConverterSpec.getResource("/swagger/single_swagger.yml").toURI())
+
+    def "should accept only OpenAPI 3 files"() {
+        expect:
+            converter.isAccepted(openApiFile)
+            !converter.isAccepted(swaggerFile)
+            !new SwaggerContractConverter(SwaggerConverterOptions.defaults()).isAccepted(openApiFile)
+    }
+
+    def "should create the same contract as for the Swagger 2 file"() {
+        given:
+            Collection<Contract> expectedContracts = new SwaggerContractConverter(SwaggerConverterOptions.defaults()).convertFrom(swaggerFile)
+        when:
+            List<Contract> contracts = new ArrayList<>(converter.convertFrom(openApiFile))
+        then:
+            TestContractEquals.assertContractEquals(expectedContracts, [contracts.first()])
+    }
+
+    def "should number all operations and skip unsupported methods"() {
+        when:
+            List<Contract> contracts = new ArrayList<>(converter.convertFrom(openApiFile))
+        then:
+            contracts.collect { it.priority } == [1, 3, 4]
+            contracts[1].name == "3_planets_planet_GET_findPlanet"
+            contracts[1].request.urlPath.clientValue == "/coffee-rocket-service/v1.0/planets/Coffeeturn"
+            contracts[1].response.status.clientValue == 200
+            new ObjectMapper().readTree(contracts[1].response.body.clientValue.toString()) == new ObjectMapper().readTree('{"name":"Coffeeturn","size":3}')
+    }
+
+    def "should truncate recursive component schemas"() {
+        when:
+            Contract contract = new ArrayList<>(converter.convertFrom(openApiFile)).last()
+        then:
+            new ObjectMapper().readTree(contract.response.body.clientValue.toString()) == new ObjectMapper().readTree('{"name":"name","orbits":null}')
+    }
+
+    def "should truncate cached component schemas like the first reference to them"() {
+        given:
+            File nestedFile = new File(OpenApiContractConverterSpec.getResource("/openapi/nested_openapi.yml").toURI())
+            OpenApiContractConverter nestedConverter = new OpenApiContractConverter(SwaggerConverterOptions.builder()
+                    .maxExpansionDepth(2).build())
+        when:
+            List<Contract> contracts = new ArrayList<>(nestedConverter.convertFrom(nestedFile))
+        then:
+            new ObjectMapper().readTree(contracts[0].response.body.clientValue.toString()) == new ObjectMapper().readTree('{"name":"name","star":{"name":"name","planet":null}}')
+            new ObjectMapper().readTree(contracts[1].response.body.clientValue.toString()) == new ObjectMapper().readTree('{"name":"name","planet":{"name":"name"}}')
+            contracts[2].response.body.clientValue == contracts[0].response.body.clientValue
+    }
+
+    def "should create bodies from the schema and ignore x-ref files"() {
+        given:
+            File nestedFile = new File(OpenApiContractConverterSpec.getResource("/openapi/nested_openapi.yml").toURI())
+        when:
+            Contract contract = new ArrayList<>(converter.convertFrom(nestedFile)).last()
+        then:
+            new ObjectMapper().readTree(contract.response.body.clientValue.toString()) == new ObjectMapper().readTree('{"name":"name","star":{"name":"name","planet":{"name":"name"}}}')
+    }
+
+    def "should convert the selected operations in parallel"() {
+        given:
+            OpenApiContractConverter selectingConverter = new OpenApiContractConverter(SwaggerConverterOptions.builder()
+                    .parallel(true).selection(OperationSelection.builder().includeTags("planet", "takeoff").build()).build())
+        when:
+            Collection<Contract> contracts = selectingConverter.convertFrom(openApiFile)
+        then:
+            contracts.collect { it.priority } == [1, 3]
+    }
+
+    def "should be registered as contract converter"() {
+        expect:
+            SpringFactoriesLoader.loadFactoryNames(ContractConverter, getClass().classLoader).contains(OpenApiContractConverter.name)
+    }
+}
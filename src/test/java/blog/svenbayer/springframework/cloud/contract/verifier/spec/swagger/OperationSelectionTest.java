@@ -0,0 +1,71 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import io.swagger.models.HttpMethod;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+
+public class OperationSelectionTest {
+
+	@DisplayName("Path globs match within and across segments")
+	@Test
+	public void pathGlobs() {
+		OperationSelection selection = OperationSelection.builder()
+				.paths("/planets/*", "/rockets/**", "/moon?").build();
+		Assertions.assertTrue(selection.isSelected("/planets/{planet}"));
+		Assertions.assertFalse(selection.isSelected("/planets/{planet}/asteroids"));
+		Assertions.assertTrue(selection.isSelected("/rockets/1/fuel"));
+		Assertions.assertTrue(selection.isSelected("/moons"));
+		Assertions.assertFalse(selection.isSelected("/moon"));
+		Assertions.assertFalse(selection.isSelected("/rocket"));
+	}
+
+	@DisplayName("Excluded tags win over included tags")
+	@Test
+	public void tags() {
+		OperationSelection selection = OperationSelection.builder()
+				.includeTags("rocket", "planet").excludeTags("legacy").build();
+		Assertions.assertTrue(
+				selection.isSelected("/", HttpMethod.GET, Arrays.asList("rocket"), null));
+		Assertions.assertFalse(selection.isSelected("/", HttpMethod.GET,
+				Arrays.asList("rocket", "legacy"), null));
+		Assertions.assertFalse(
+				selection.isSelected("/", HttpMethod.GET, Collections.emptyList(), null));
+		Assertions.assertFalse(selection.isSelected("/", HttpMethod.GET, null, null));
+	}
+
+	@DisplayName("Methods and operation ids must match if they are set")
+	@Test
+	public void methodsAndOperationIds() {
+		OperationSelection selection = OperationSelection.builder().methods("get", "Post")
+				.operationIds("find.*").build();
+		Assertions.assertTrue(
+				selection.isSelected("/", HttpMethod.POST, null, "findPlanets"));
+		Assertions.assertFalse(
+				selection.isSelected("/", HttpMethod.PUT, null, "findPlanets"));
+		Assertions.assertFalse(selection.isSelected("/", HttpMethod.GET, null, "land"));
+		Assertions.assertFalse(selection.isSelected("/", HttpMethod.GET, null, null));
+	}
+
+	@DisplayName("Selects everything without criteria")
+	@Test
+	public void all() {
+		Assertions.assertTrue(OperationSelection.all().isAll());
+		Assertions.assertTrue(
+				OperationSelection.all().isSelected(null, HttpMethod.GET, null, null));
+	}
+
+	@DisplayName("Rejects unknown methods and invalid operation id patterns")
+	@Test
+	public void invalidCriteria() {
+		Assertions.assertThrows(SwaggerContractConverterException.class,
+				() -> OperationSelection.builder().methods("fetch"));
+		Assertions.assertThrows(SwaggerContractConverterException.class,
+				() -> OperationSelection.builder().operationIds("find("));
+	}
+
+}
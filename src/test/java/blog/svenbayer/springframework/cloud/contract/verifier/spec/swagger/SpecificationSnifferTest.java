@@ -0,0 +1,137 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestFileResourceLoader;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SpecificationSniffer.Result.NONE;
+import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SpecificationSniffer.Result.OPEN_API_3;
+import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SpecificationSniffer.Result.SWAGGER_2;
+import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SpecificationSniffer.Result.UNKNOWN;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Sven Bayer
+ */
+public class SpecificationSnifferTest {
+
+	private final SpecificationSniffer sniffer = new SpecificationSniffer();
+
+	@DisplayName("Should detect Swagger yaml files")
+	@Test
+	public void swaggerYaml() {
+		assertEquals(SWAGGER_2, sniffer.sniff(TestFileResourceLoader
+				.getResourceAsFile("swagger/single_swagger.yml").toPath()));
+	}
+
+	@DisplayName("Should detect Swagger json files")
+	@Test
+	public void swaggerJson() {
+		assertEquals(SWAGGER_2, sniffer.sniff(TestFileResourceLoader
+				.getResourceAsFile("swagger/json/json_swagger.json").toPath()));
+	}
+
+	@DisplayName("Should reject Json files without Swagger field")
+	@Test
+	public void plainJson() {
+		assertEquals(NONE, sniffer.sniff(TestFileResourceLoader
+				.getResourceAsFile("swagger/external_json/CoffeeRocket.json").toPath()));
+	}
+
+	@DisplayName("Should reject yaml without colon after Swagger field")
+	@Test
+	public void invalidSwagger() {
+		assertEquals(NONE, sniffer.sniff(TestFileResourceLoader
+				.getResourceAsFile("swagger/invalid_swagger.yml").toPath()));
+	}
+
+	@DisplayName("Should reject missing files and directories")
+	@Test
+	public void missingFile() {
+		assertEquals(NONE, sniffer.sniff(Paths.get("/aNotExistingFile")));
+		assertEquals(NONE, sniffer.sniff(TestFileResourceLoader
+				.getResourceAsFile("swagger/external_json").toPath()));
+		assertEquals(NONE, sniffer.sniff(null));
+	}
+
+	@DisplayName("Should reject Groovy and yaml contracts")
+	@Test
+	public void contracts() {
+		assertEquals(NONE, sniff("package contracts\n\nContract.make {\n}\n", true));
+		assertEquals(NONE, sniff(
+				"request:\n  method: GET\n  url: /foo\nresponse:\n" + "  status: 200\n",
+				true));
+	}
+
+	@DisplayName("Should find quoted keys after comments and other keys")
+	@Test
+	public void quotedKeys() {
+		assertEquals(SWAGGER_2, sniff(
+				"# comment\n---\ninfo:\n  swagger: '1.2'\n" + "'swagger': \"2.0\"\n",
+				true));
+		assertEquals(SWAGGER_2, sniff("\uFEFF{\"info\": {\"swagger\": 1}, \"a\": [1, 2],"
+				+ " \"swagger\" : \"2.0\"}", true));
+	}
+
+	@DisplayName("Should find keys with whitespace before the colon")
+	@Test
+	public void whitespaceBeforeColon() {
+		assertEquals(SWAGGER_2, sniff("swagger : \"2.0\"\ninfo:\n", true));
+		assertEquals(SWAGGER_2, sniff("'swagger'\t: '2.0'\r\ninfo:\r\n", true));
+		assertEquals(OPEN_API_3, sniff("openapi  : 3.0.1\n", true));
+	}
+
+	@DisplayName("Should leave versions that do not start on the key line to the parser")
+	@Test
+	public void versionOnNextLine() {
+		assertEquals(UNKNOWN, sniff("swagger:\n  \"2.0\"\ninfo:\n", true));
+		assertEquals(UNKNOWN, sniff("swagger: >-\n  2.0\n", true));
+	}
+
+	@DisplayName("Should leave Swagger 1.x files to the parser")
+	@Test
+	public void swagger1() {
+		assertEquals(UNKNOWN, sniff("{\"apiVersion\": \"1.0\", \"swaggerVersion\": \"1.2\","
+				+ " \"apis\": []}", true));
+		assertEquals(UNKNOWN, sniff("swaggerVersion: '1.2'\napis: []\n", true));
+	}
+
+	@DisplayName("Should detect OpenAPI files")
+	@Test
+	public void openApi() {
+		assertEquals(OPEN_API_3, sniff("openapi: 3.0.1\ninfo:\n", true));
+		assertEquals(OPEN_API_3, sniff("{\"openapi\": \"3.0.0\"}", true));
+	}
+
+	@DisplayName("Should reject other Swagger versions")
+	@Test
+	public void otherVersions() {
+		assertEquals(NONE, sniff("swagger: '1.2'\n", true));
+	}
+
+	@DisplayName("Should be inconclusive if the prefix does not contain the field")
+	@Test
+	public void truncated() {
+		assertEquals(UNKNOWN, sniff("definitions:\n  Foo:\n    type: object\n", false));
+		assertEquals(UNKNOWN, sniff("{\"definitions\": {\"Foo\": {", false));
+		assertEquals(UNKNOWN, sniff("{swagger: '2.0'}", true));
+	}
+
+	@DisplayName("Should read only the prefix of a file")
+	@Test
+	public void prefix() {
+		SpecificationSniffer smallSniffer = new SpecificationSniffer(4);
+		assertEquals(UNKNOWN, smallSniffer.sniff(TestFileResourceLoader
+				.getResourceAsFile("swagger/single_swagger.yml").toPath()));
+	}
+
+	private SpecificationSniffer.Result sniff(String content, boolean complete) {
+		return sniffer.sniff(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)),
+				complete);
+	}
+
+}
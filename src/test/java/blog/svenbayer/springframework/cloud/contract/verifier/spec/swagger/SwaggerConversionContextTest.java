@@ -0,0 +1,75 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ReferencedFileCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ValidationCache;
+import io.swagger.models.ModelImpl;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+
+public class SwaggerConversionContextTest {
+
+	@DisplayName("Contexts share the caches of x-ref files only if they are passed in")
+	@Test
+	public void sharedCaches() {
+		SwaggerConverterOptions options = SwaggerConverterOptions.defaults();
+		ReferencedFileCache referencedFileCache = new ReferencedFileCache(1024);
+		ValidationCache validationCache = new ValidationCache();
+		SwaggerConversionContext first = new SwaggerConversionContext(Paths.get(""), null,
+				options, referencedFileCache, validationCache);
+		SwaggerConversionContext second = new SwaggerConversionContext(Paths.get(""),
+				null, options, referencedFileCache, validationCache);
+		SwaggerConversionContext own = new SwaggerConversionContext(Paths.get(""), null,
+				options);
+
+		Assertions.assertSame(first.getReferencedFileCache(),
+				second.getReferencedFileCache());
+		Assertions.assertSame(first.getValidationCache(), second.getValidationCache());
+		Assertions.assertNotSame(first.getReferencedFileCache(),
+				own.getReferencedFileCache());
+		Assertions.assertNotSame(first.getValidationCache(), own.getValidationCache());
+		Assertions.assertNotSame(
+				SwaggerConversionContext.of(Paths.get(""), null).getReferencedFileCache(),
+				own.getReferencedFileCache());
+	}
+
+	@DisplayName("Copies share the definition cache unless their definitions differ")
+	@Test
+	public void copies() {
+		SwaggerConversionContext context = SwaggerConversionContext.of(Paths.get(""),
+				Collections.singletonMap("Planet", new ModelImpl()));
+
+		SwaggerConversionContext expansion = context.withDefinitionExpansion();
+		SwaggerConversionContext other = context
+				.withDefinitions(Collections.singletonMap("Moon", new ModelImpl()));
+
+		Assertions.assertSame(context.getDefinitionCache(),
+				expansion.getDefinitionCache());
+		Assertions.assertNotSame(context.getDefinitionCache(),
+				other.getDefinitionCache());
+		Assertions.assertSame(context.getReferencedFileCache(),
+				other.getReferencedFileCache());
+		Assertions.assertEquals(Collections.singleton("Planet"),
+				context.getDefinitions().keySet());
+	}
+
+	@DisplayName("The deprecated Swagger file folder creates a context for its folder")
+	@Test
+	@SuppressWarnings("deprecation")
+	public void swaggerFileFolder() {
+		SwaggerFileFolder swaggerFileFolder = SwaggerFileFolder.instance();
+		swaggerFileFolder.setPathToSwaggerFile(Paths.get("swagger"));
+
+		SwaggerConversionContext context = swaggerFileFolder
+				.toConversionContext(Collections.singletonMap("Planet", new ModelImpl()));
+
+		Assertions.assertEquals(Paths.get("swagger"), context.getSwaggerFolder());
+		Assertions.assertEquals(Collections.singleton("Planet"),
+				context.getDefinitions().keySet());
+		swaggerFileFolder.setPathToSwaggerFile(null);
+	}
+
+}
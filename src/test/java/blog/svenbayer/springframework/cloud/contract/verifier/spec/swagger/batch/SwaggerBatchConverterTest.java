@@ -0,0 +1,131 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.batch;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerContractConverter;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConverterOptions;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestContractEquals;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestFileResourceLoader;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sven Bayer
+ */
+public class SwaggerBatchConverterTest {
+
+	private final SwaggerContractConverter converter = new SwaggerContractConverter(
+			SwaggerConverterOptions.defaults());
+
+	@DisplayName("Converts files of a list concurrently in their order")
+	@Test
+	public void convertFiles() throws URISyntaxException {
+		List<File> files = Arrays.asList(
+				TestFileResourceLoader.getResourceAsFile("swagger/single_swagger.yml"),
+				TestFileResourceLoader
+						.getResourceAsFile("swagger/multiple/multiple_swagger.yml"),
+				TestFileResourceLoader.getResourceAsFile(
+						"swagger/external_json/external_json_swagger.yml"));
+
+		BatchConversionResult result = SwaggerBatchConverter
+				.withPlatformThreads(this.converter, 2).convert(files);
+
+		Assertions.assertEquals(files, result.getResults().stream()
+				.map(FileConversionResult::getFile).collect(Collectors.toList()));
+		Assertions.assertFalse(result.hasFailures());
+		for (FileConversionResult fileResult : result.getResults()) {
+			TestContractEquals.assertContractEquals(
+					this.converter.convertFrom(fileResult.getFile()),
+					fileResult.getContracts());
+		}
+		Assertions.assertEquals(
+				result.getResults().stream()
+						.mapToInt(fileResult -> fileResult.getContracts().size()).sum(),
+				result.getContractCount());
+		Assertions.assertTrue(result.getFilesPerSecond() > 0);
+	}
+
+	@DisplayName("Reports files that could not be converted")
+	@Test
+	public void reportFailures() throws URISyntaxException {
+		File swaggerFile = TestFileResourceLoader
+				.getResourceAsFile("swagger/single_swagger.yml");
+		File missingReferenceFile = TestFileResourceLoader.getResourceAsFile(
+				"swagger/jsonFileResolver/withEqualFields/external_json_swagger.yml");
+
+		BatchConversionResult result = SwaggerBatchConverter
+				.withPlatformThreads(this.converter)
+				.convert(Arrays.asList(missingReferenceFile, swaggerFile));
+
+		Assertions.assertEquals(1, result.getConverted().size());
+		Assertions.assertEquals(1, result.getFailures().size());
+		FileConversionResult failure = result.getFailures().get(0);
+		Assertions.assertEquals(missingReferenceFile, failure.getFile());
+		Assertions.assertTrue(failure.getFailure().getMessage()
+				.startsWith("Swagger file must only referenceFile files that exist."));
+		Assertions.assertTrue(failure.getContracts().isEmpty());
+	}
+
+	@DisplayName("Converts only accepted files of a directory")
+	@Test
+	public void convertDirectory() throws URISyntaxException {
+		File directory = TestFileResourceLoader
+				.getResourceAsFile("swagger/external_json");
+
+		BatchConversionResult result = SwaggerBatchConverter
+				.withVirtualThreads(this.converter).convert(directory.toPath());
+
+		Assertions.assertEquals(1, result.getResults().size());
+		Assertions.assertEquals("external_json_swagger.yml",
+				result.getResults().get(0).getFile().getName());
+		Assertions.assertFalse(result.hasFailures());
+		Assertions.assertEquals(SwaggerBatchConverter.isVirtualThreadsSupported(),
+				SwaggerBatchConverter.withVirtualThreads(this.converter)
+						.isVirtualThreads());
+	}
+
+	@DisplayName("Converts files on a bounded number of virtual threads in their order")
+	@Test
+	public void convertFilesOnBoundedVirtualThreads() throws URISyntaxException {
+		List<File> files = Arrays.asList(
+				TestFileResourceLoader.getResourceAsFile("swagger/single_swagger.yml"),
+				TestFileResourceLoader
+						.getResourceAsFile("swagger/multiple/multiple_swagger.yml"),
+				TestFileResourceLoader.getResourceAsFile(
+						"swagger/external_json/external_json_swagger.yml"));
+
+		BatchConversionResult result = SwaggerBatchConverter
+				.withVirtualThreads(this.converter, 1).convert(files);
+
+		Assertions.assertEquals(files, result.getResults().stream()
+				.map(FileConversionResult::getFile).collect(Collectors.toList()));
+		Assertions.assertFalse(result.hasFailures());
+	}
+
+	@DisplayName("Expect Exception for virtual threads without a bound")
+	@Test
+	public void expectExceptionForNoVirtualThreads() {
+		SwaggerContractConverterException exception = Assertions.assertThrows(
+				SwaggerContractConverterException.class,
+				() -> SwaggerBatchConverter.withVirtualThreads(this.converter, 0));
+		Assertions.assertEquals("The number of threads must be positive but was 0",
+				exception.getMessage());
+	}
+
+	@DisplayName("Expect Exception for a pool without threads")
+	@Test
+	public void expectExceptionForNoThreads() {
+		SwaggerContractConverterException exception = Assertions.assertThrows(
+				SwaggerContractConverterException.class,
+				() -> SwaggerBatchConverter.withPlatformThreads(this.converter, 0));
+		Assertions.assertEquals("The number of threads must be positive but was 0",
+				exception.getMessage());
+	}
+
+}
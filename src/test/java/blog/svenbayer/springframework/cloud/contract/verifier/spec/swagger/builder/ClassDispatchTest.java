@@ -0,0 +1,42 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
+
+import io.swagger.models.properties.*;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Sven Bayer
+ */
+public class ClassDispatchTest {
+
+	@DisplayName("Dispatches to the closest registered superclass")
+	@Test
+	public void closestSuperclass() {
+		ClassDispatch<String> dispatch = new ClassDispatch<String>()
+				.register(AbstractNumericProperty.class, "numeric")
+				.register(BaseIntegerProperty.class, "integer")
+				.register(LongProperty.class, "long");
+
+		assertEquals("long", dispatch.get(LongProperty.class));
+		assertEquals("integer", dispatch.get(IntegerProperty.class));
+		assertEquals("numeric", dispatch.get(DoubleProperty.class));
+		assertNull(dispatch.get(StringProperty.class));
+	}
+
+	@DisplayName("Dispatches to handlers registered after a lookup")
+	@Test
+	public void registerAfterLookup() {
+		ClassDispatch<String> dispatch = new ClassDispatch<String>()
+				.register(StringProperty.class, "string");
+		assertEquals("string", dispatch.get(EmailProperty.class));
+
+		dispatch.register(EmailProperty.class, "email");
+
+		assertEquals("email", dispatch.get(EmailProperty.class));
+		assertEquals("string", dispatch.get(ByteArrayProperty.class));
+	}
+
+}
@@ -52,6 +52,18 @@ public class ContractNameBuilderTest {
 				contractName);
 	}
 
+	@DisplayName("Creates the same Contract name for an int priority")
+	@Test
+	public void createContractNameForIntPriority() {
+		String pathName = "/find/planets/{solarSystem}/{system}";
+		HttpMethod post = HttpMethod.POST;
+		String contractName = this.contractNameBuilder.createContractName(7, pathName,
+				post, null);
+		Assertions.assertEquals(this.contractNameBuilder.createContractName(
+				new AtomicInteger(7), pathName, post, null), contractName);
+		Assertions.assertEquals("7_find_planets_solarSystem_system_POST", contractName);
+	}
+
 	@DisplayName("Expect Exception for empty Contract path")
 	@Test
 	public void expectExceptionForEmptyPath() {
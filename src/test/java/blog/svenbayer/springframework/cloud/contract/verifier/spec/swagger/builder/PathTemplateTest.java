@@ -0,0 +1,79 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Sven Bayer
+ */
+public class PathTemplateTest {
+
+	@DisplayName("Parses the variables of a path")
+	@Test
+	public void parseVariables() {
+		PathTemplate pathTemplate = PathTemplate.parse("/a/{b}/c/{d}");
+
+		assertEquals(Arrays.asList("b", "d"), pathTemplate.getVariables());
+		assertEquals("a_b_c_d", pathTemplate.getContractName());
+	}
+
+	@DisplayName("Expands the variables of a path with their values")
+	@Test
+	public void expand() {
+		PathTemplate pathTemplate = PathTemplate
+				.parse("/planets/{planet}/moons/{moon}/{unknown}");
+		Map<String, String> values = new HashMap<>();
+		values.put("planet", "earth");
+		values.put("moon", "luna");
+
+		assertEquals("/v1/planets/earth/moons/luna/{unknown}",
+				pathTemplate.expand("/v1", values::get));
+	}
+
+	@DisplayName("Has no contract name for paths without a name")
+	@Test
+	public void noContractName() {
+		assertNull(PathTemplate.parse("").getContractName());
+		assertNull(PathTemplate.parse("/").getContractName());
+		assertNull(PathTemplate.parse("/a").getContractName());
+		assertNull(PathTemplate.parse("//{}}").getContractName());
+	}
+
+	@DisplayName("Creates the same contract names as the regular expressions")
+	@Test
+	public void sameAsRegularExpressions() {
+		Random random = new Random(19);
+		char[] characters = { '/', '{', '}', 'a', 'b' };
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder path = new StringBuilder();
+			for (int length = random.nextInt(10); length > 0; length--) {
+				path.append(characters[random.nextInt(characters.length)]);
+			}
+			assertEquals(contractName(path.toString()),
+					PathTemplate.parse(path.toString()).getContractName(),
+					path::toString);
+		}
+	}
+
+	/**
+	 * The contract name of a path as it was created before path templates.
+	 */
+	private String contractName(String path) {
+		Matcher pathMatcher = Pattern.compile("([^\\/].*[^\\}])").matcher(path);
+		if (!pathMatcher.find()) {
+			return null;
+		}
+		return pathMatcher.group(1).replaceAll("(\\}\\/\\{|\\/\\{|\\}\\/|\\}|\\/)", "_");
+	}
+
+}
@@ -9,6 +9,7 @@ import java.util.regex.Pattern;
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFormats.DOUBLE;
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerFormats.FLOAT;
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.SwaggerTypes.*;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -60,4 +61,11 @@ public class PatternBuilderTest {
 		assertTrue(pattern.matcher("false").matches());
 	}
 
-}
\ No newline at end of file
+	@DisplayName("Shares the patterns of a type")
+	@Test
+	public void sharedPatterns() {
+		assertSame(patternBuilder.createPatternForParameter(INTEGER.type(), null),
+				new PatternBuilder().createPatternForParameter(INTEGER.type(), "int64"));
+	}
+
+}
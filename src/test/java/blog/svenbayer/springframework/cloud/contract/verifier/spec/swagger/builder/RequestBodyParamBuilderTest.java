@@ -1,5 +1,6 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
 import io.swagger.models.ModelImpl;
 import io.swagger.models.parameters.BodyParameter;
@@ -7,6 +8,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -29,7 +31,7 @@ public class RequestBodyParamBuilderTest {
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
 					requestBodyParamBuilder.createValueForRequestBody(parameter,
-							new HashMap<>());
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertEquals("Could not parse body for request", exception.getMessage());
 	}
@@ -42,7 +44,7 @@ public class RequestBodyParamBuilderTest {
 		examples.put("key", "value");
 		parameter.setExamples(examples);
 		String actualValue = requestBodyParamBuilder.createValueForRequestBody(parameter,
-				new HashMap<>());
+				SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 		assertEquals("value", actualValue);
 	}
 
@@ -55,7 +57,7 @@ public class RequestBodyParamBuilderTest {
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
 					requestBodyParamBuilder.createValueForRequestBody(parameter,
-							new HashMap<>());
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertEquals("Could not parse body for request", exception.getMessage());
 	}
@@ -71,7 +73,7 @@ public class RequestBodyParamBuilderTest {
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
 					requestBodyParamBuilder.createValueForRequestBody(parameter,
-							new HashMap<>());
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertEquals("Could not parse body for request", exception.getMessage());
 	}
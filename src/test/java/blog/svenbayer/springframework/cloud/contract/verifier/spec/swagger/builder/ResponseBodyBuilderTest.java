@@ -1,5 +1,6 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
 import io.swagger.models.ModelImpl;
 import io.swagger.models.Response;
@@ -7,6 +8,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -28,7 +30,8 @@ public class ResponseBodyBuilderTest {
 		Response response = new Response();
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					builder.createValueForResponseBody(response, new HashMap<>());
+					builder.createValueForResponseBody(response,
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertEquals("Could not parse body for response", exception.getMessage());
 	}
@@ -40,7 +43,8 @@ public class ResponseBodyBuilderTest {
 		response.setResponseSchema(new ModelImpl());
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					builder.createValueForResponseBody(response, new HashMap<>());
+					builder.createValueForResponseBody(response,
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertEquals("Could not parse body for response", exception.getMessage());
 	}
@@ -53,7 +57,7 @@ public class ResponseBodyBuilderTest {
 		examples.put("key", "value");
 		response.setExamples(examples);
 		String actualValue = builder.createValueForResponseBody(response,
-				new HashMap<>());
+				SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 		assertEquals("value", actualValue);
 	}
 
@@ -66,7 +70,8 @@ public class ResponseBodyBuilderTest {
 		response.setResponseSchema(new ModelImpl());
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					builder.createValueForResponseBody(response, new HashMap<>());
+					builder.createValueForResponseBody(response,
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertEquals("Could not parse body for response", exception.getMessage());
 	}
@@ -81,7 +86,8 @@ public class ResponseBodyBuilderTest {
 		response.setResponseSchema(model);
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					builder.createValueForResponseBody(response, new HashMap<>());
+					builder.createValueForResponseBody(response,
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertEquals("Could not parse body for response", exception.getMessage());
 	}
@@ -1,13 +1,20 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConverterOptions;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
 import io.swagger.models.properties.*;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.springframework.cloud.contract.spec.internal.DslProperty;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields.DefaultValues.DEFAULT_INT;
 import static org.junit.Assert.assertEquals;
@@ -79,9 +86,84 @@ public class ResponseHeaderValueBuilderTest {
 	@Test
 	public void createResponseHeaderValue() {
 		ArrayProperty property = new ArrayProperty();
-		Object defaultValue = responseHeaderValueBuilder.createResponseHeaderValue("key",
-				property, new HashMap<>());
+		Object defaultValue = ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				property, SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 		assertEquals(new ArrayList<>(Collections.singleton(DEFAULT_INT)), defaultValue);
 	}
 
-}
\ No newline at end of file
+	@DisplayName("Values of every property type")
+	@Test
+	public void valuesOfPropertyTypes() {
+		SwaggerConversionContext context = SwaggerConversionContext.of(Paths.get(""),
+				new HashMap<>());
+
+		assertEquals(1L, ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new LongProperty(), context));
+		assertEquals(1, ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new IntegerProperty(), context));
+		assertEquals(1.1d, ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new DoubleProperty(), context));
+		assertEquals(true, ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new BooleanProperty(), context));
+		assertEquals("key", ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new EmailProperty(), context));
+		assertEquals("key", ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new UUIDProperty(), context));
+		assertEquals("key", ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new DateProperty(), context));
+		assertEquals("secret", ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new StringProperty()._enum("secret"), context));
+	}
+
+	@DisplayName("Values of custom property types")
+	@Test
+	public void customPropertyType() {
+		SwaggerConverterOptions options = SwaggerConverterOptions.builder()
+				.generator(PlanetProperty.class,
+						(key, property, context) -> "planet " + key)
+				.build();
+
+		Object value = ResponseHeaderValueBuilder.createResponseHeaderValue("earth",
+				new PlanetProperty(),
+				new SwaggerConversionContext(Paths.get(""), new HashMap<>(), options));
+
+		assertEquals("planet earth", value);
+	}
+
+	@DisplayName("Custom generators only apply to the converter of their options")
+	@Test
+	public void customPropertyTypeOfOtherOptions() {
+		SwaggerConverterOptions options = SwaggerConverterOptions.builder()
+				.generator(StringProperty.class, (key, property, context) -> "moon")
+				.build();
+
+		Object custom = ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new PlanetProperty(),
+				new SwaggerConversionContext(Paths.get(""), new HashMap<>(), options));
+		Object builtIn = ResponseHeaderValueBuilder.createResponseHeaderValue("key",
+				new PlanetProperty(),
+				SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
+
+		assertEquals("moon", custom);
+		assertEquals("key", builtIn);
+	}
+
+	@DisplayName("Arrays of references are rendered as Json strings")
+	@Test
+	public void arrayOfReferences() {
+		Map<String, Model> definitions = new HashMap<>();
+		definitions.put("Planet", new ModelImpl().property("id", new StringProperty()));
+
+		DslProperty value = responseHeaderValueBuilder.createDslResponseHeaderValue(
+				"planets", new ArrayProperty(new RefProperty("#/definitions/Planet")),
+				SwaggerConversionContext.of(Paths.get(""), definitions));
+
+		assertEquals(Collections.singletonList("{\n  \"id\" : \"id\"\n}"),
+				value.getClientValue());
+	}
+
+	private static class PlanetProperty extends StringProperty {
+
+	}
+
+}
@@ -1,7 +1,10 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference;
 
-import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerFileFolder;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConverterOptions;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestFileResourceLoader;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ReferencedFileCache;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ValidationCache;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
 import io.swagger.models.Model;
 import io.swagger.models.ModelImpl;
@@ -11,6 +14,7 @@ import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 
@@ -28,12 +32,12 @@ public class JsonFileResolverSwaggerTest {
 	@DisplayName("Should throw exception for not existing path")
 	@Test
 	public void notExistingPath() {
-		SwaggerFileFolder.instance().setPathToSwaggerFile(Paths.get(""));
 		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger("doesNotExist",
 				"doesNotMatterForThisTest");
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					resolver.resolveReference(new HashMap<>());
+					resolver.resolveReference(
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertThat(exception.getMessage(), startsWith(
 				"Swagger file must only referenceFile files that exist. Could not find file '"));
@@ -43,12 +47,12 @@ public class JsonFileResolverSwaggerTest {
 	@DisplayName("Should throw exception for directory")
 	@Test
 	public void directory() {
-		SwaggerFileFolder.instance().setPathToSwaggerFile(Paths.get(""));
 		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger("target",
 				"doesNotMatterForThisTest");
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					resolver.resolveReference(new HashMap<>());
+					resolver.resolveReference(
+							SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 				});
 		assertThat(exception.getMessage(), startsWith(
 				"Swagger file must only referenceFile files that exist. Could not find file '"));
@@ -61,11 +65,12 @@ public class JsonFileResolverSwaggerTest {
 		String expectedJson = TestFileResourceLoader.getResourceAsString(
 				"swagger/jsonFileResolver/withEqualFields/CoffeeRocket.json");
 
-		SwaggerFileFolder.instance().setPathToSwaggerFile(TestFileResourceLoader
-				.getResourceAsFile("swagger/jsonFileResolver/withEqualFields/").toPath());
+		Path swaggerFolder = TestFileResourceLoader
+				.getResourceAsFile("swagger/jsonFileResolver/withEqualFields/").toPath();
 		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger(
 				"CoffeeRocket.json", "doesNotMatterForThisTest");
-		String actualJson = resolver.resolveReference(null);
+		String actualJson = resolver
+				.resolveReference(SwaggerConversionContext.of(swaggerFolder, null));
 
 		assertEquals(expectedJson, actualJson);
 	}
@@ -73,10 +78,9 @@ public class JsonFileResolverSwaggerTest {
 	@DisplayName("Should throw exception for not equal jsons")
 	@Test
 	public void notEqualJsons() {
-		SwaggerFileFolder.instance()
-				.setPathToSwaggerFile(TestFileResourceLoader
-						.getResourceAsFile("swagger/jsonFileResolver/withJsonMoreFields/")
-						.toPath());
+		Path swaggerFolder = TestFileResourceLoader
+				.getResourceAsFile("swagger/jsonFileResolver/withJsonMoreFields/")
+				.toPath();
 		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger(
 				"CoffeeRocket.json", "#/definitions/CoffeeRocket");
 
@@ -90,7 +94,8 @@ public class JsonFileResolverSwaggerTest {
 
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					resolver.resolveReference(definitions);
+					resolver.resolveReference(
+							SwaggerConversionContext.of(swaggerFolder, definitions));
 				});
 		assertThat(exception.getMessage(), startsWith(
 				"Swagger definitions and Json file should be equal but was not for:"));
@@ -101,7 +106,8 @@ public class JsonFileResolverSwaggerTest {
 	public void nullDefinitions() {
 		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger(
 				"CoffeeRocket.json", "#/definitions/CoffeeRocket");
-		resolver.validateExternalJson("{}", null);
+		resolver.validateExternalJson("{}",
+				SwaggerConversionContext.of(Paths.get(""), null));
 	}
 
 	@DisplayName("Ignore validations for empty definitions")
@@ -109,7 +115,8 @@ public class JsonFileResolverSwaggerTest {
 	public void emptyDefinitions() {
 		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger(
 				"CoffeeRocket.json", "#/definitions/CoffeeRocket");
-		resolver.validateExternalJson("{}", new HashMap<>());
+		resolver.validateExternalJson("{}",
+				SwaggerConversionContext.of(Paths.get(""), new HashMap<>()));
 	}
 
 	@DisplayName("Should throw exception for not equal jsons validation")
@@ -127,10 +134,70 @@ public class JsonFileResolverSwaggerTest {
 
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					resolver.validateExternalJson("{}", definitions);
+					resolver.validateExternalJson("{}",
+							SwaggerConversionContext.of(Paths.get(""), definitions));
 				});
 		assertThat(exception.getMessage(), startsWith(
 				"Swagger definitions and Json file should be equal but was not for:"));
 	}
 
-}
\ No newline at end of file
+	@DisplayName("Should list the differences for not equal jsons validation")
+	@Test
+	public void notEqualJsonsDifferences() {
+		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger(
+				"CoffeeRocket.json", "#/definitions/CoffeeRocket");
+		HashMap<String, Model> definitions = new HashMap<>();
+		ModelImpl model = new ModelImpl();
+		HashMap<String, Property> properties = new HashMap<>();
+		properties.put("key1", new IntegerProperty());
+		model.setProperties(properties);
+		definitions.put("CoffeeRocket", model);
+
+		SwaggerContractConverterException exception = assertThrows(
+				SwaggerContractConverterException.class, () -> {
+					resolver.validateExternalJson("{\"key2\":1}",
+							SwaggerConversionContext.of(Paths.get(""), definitions));
+				});
+		assertEquals(
+				"Swagger definitions and Json file should be equal but was not for:\n"
+						+ "Definition 'CoffeeRocket' and file 'CoffeeRocket.json'\n"
+						+ "Missing in Json file:\n  /key1\n"
+						+ "Not in Swagger definitions:\n  /key2",
+				exception.getMessage());
+	}
+
+	@DisplayName("Should validate the same Json and definition only once")
+	@Test
+	public void validateOnce() {
+		JsonFileResolverSwagger resolver = new JsonFileResolverSwagger(
+				"CoffeeRocket.json", "#/definitions/CoffeeRocket");
+		HashMap<String, Model> definitions = new HashMap<>();
+		ModelImpl model = new ModelImpl();
+		HashMap<String, Property> properties = new HashMap<>();
+		properties.put("key1", new IntegerProperty());
+		model.setProperties(properties);
+		definitions.put("CoffeeRocket", model);
+		ValidationCache validationCache = new ValidationCache();
+		SwaggerConverterOptions options = SwaggerConverterOptions.defaults();
+
+		resolver.validateExternalJson("{\"key1\":1}",
+				new SwaggerConversionContext(Paths.get(""), definitions, options,
+						new ReferencedFileCache(options.getReferenceCacheMaxSize()),
+						validationCache));
+		resolver.validateExternalJson("{\"key1\":1}",
+				new SwaggerConversionContext(Paths.get(""), definitions, options,
+						new ReferencedFileCache(options.getReferenceCacheMaxSize()),
+						validationCache));
+
+		assertEquals(1, validationCache.size());
+		assertEquals(1, validationCache.getHits());
+		assertEquals(1, validationCache.getMisses());
+		assertThrows(SwaggerContractConverterException.class, () -> {
+			resolver.validateExternalJson("{}",
+					new SwaggerConversionContext(Paths.get(""), definitions, options,
+							new ReferencedFileCache(options.getReferenceCacheMaxSize()),
+							validationCache));
+		});
+	}
+
+}
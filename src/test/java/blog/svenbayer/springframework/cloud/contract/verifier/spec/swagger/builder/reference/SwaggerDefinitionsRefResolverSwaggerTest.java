@@ -1,10 +1,22 @@
 package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.DefinitionExpansion;
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class SwaggerDefinitionsRefResolverSwaggerTest {
@@ -16,10 +28,42 @@ public class SwaggerDefinitionsRefResolverSwaggerTest {
 				"#invalid");
 		SwaggerContractConverterException exception = assertThrows(
 				SwaggerContractConverterException.class, () -> {
-					resolver.resolveReference(null);
+					resolver.resolveReference(
+							SwaggerConversionContext.of(Paths.get(""), null));
 				});
 		assertEquals("Could not resolve reference '#invalid'", exception.getMessage());
 
 	}
 
-}
\ No newline at end of file
+	@DisplayName("Resolve each Swagger definition only once per conversion")
+	@Test
+	public void resolveDefinitionsOnce() {
+		Map<String, Model> definitions = new HashMap<>();
+		definitions.put("Money",
+				new ModelImpl().property("currency", new StringProperty()));
+		definitions.put("Price", new ModelImpl().property("amount",
+				new RefProperty("#/definitions/Money")));
+		SwaggerConversionContext context = SwaggerConversionContext.of(Paths.get(""),
+				definitions);
+
+		JsonNode price = new SwaggerDefinitionsRefResolverSwagger("#/definitions/Price")
+				.resolveReferenceNode(context);
+		String money = new SwaggerDefinitionsRefResolverSwagger("#/definitions/Money")
+				.resolveReference(context);
+
+		assertSame(price, new SwaggerDefinitionsRefResolverSwagger("#/definitions/Price")
+				.resolveReferenceNode(context));
+		assertSame(price.get("amount"),
+				context.getDefinitionCache().get("Money", new DefinitionExpansion(1, 1)));
+		assertEquals(2, context.getDefinitionCache().size());
+		assertEquals(2, context.getDefinitionCache().getMisses());
+		assertEquals(3, context.getDefinitionCache().getHits());
+		assertSame(context.getDefinitionCache().fingerprint("Price", price),
+				context.getDefinitionCache().fingerprint("Price", price));
+		assertEquals(context.getDefinitionCache().fingerprint("Price", price),
+				context.getDefinitionCache().fingerprint("Price", price.deepCopy()));
+		assertEquals("{\n  \"currency\" : \"currency\"\n}",
+				money.replace(System.lineSeparator(), "\n"));
+	}
+
+}
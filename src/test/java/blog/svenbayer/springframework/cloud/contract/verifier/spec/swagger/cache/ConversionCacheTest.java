@@ -0,0 +1,263 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot.ContractSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sven Bayer
+ */
+public class ConversionCacheTest {
+
+	private Path folder;
+
+	private Path cacheDirectory;
+
+	private Path swaggerFile;
+
+	private Path jsonFile;
+
+	@Before
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("swagger");
+		cacheDirectory = folder.resolve("cache");
+		swaggerFile = folder.resolve("swagger.yml");
+		jsonFile = folder.resolve("Coffee.json");
+		Files.write(swaggerFile,
+				("swagger: '2.0'\n" + "definitions:\n" + "  Coffee:\n"
+						+ "    type: object\n" + "    x-ref: './Coffee.json'\n")
+								.getBytes());
+		Files.write(jsonFile, "{\"name\":\"latte\"}".getBytes());
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(folder)) {
+			for (Path file : files.sorted((a, b) -> b.compareTo(a))
+					.collect(Collectors.toList())) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	@DisplayName("Should restore stored contracts")
+	@Test
+	public void storeAndLookup() {
+		ConversionCache cache = new ConversionCache(cacheDirectory, Long.MAX_VALUE, "");
+
+		assertNull(cache.lookup(swaggerFile.toFile()));
+		cache.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+		List<ContractSnapshot> restored = cache.lookup(swaggerFile.toFile());
+
+		assertNotNull(restored);
+		assertEquals("1_getCoffee", restored.get(0).getName());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@DisplayName("Should miss if the Swagger file changed")
+	@Test
+	public void changedSwaggerFile() throws IOException {
+		ConversionCache cache = new ConversionCache(cacheDirectory, Long.MAX_VALUE, "");
+		cache.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+
+		Files.write(swaggerFile, "swagger: \"2.0\"\n".getBytes());
+
+		assertNull(cache.lookup(swaggerFile.toFile()));
+	}
+
+	@DisplayName("Should miss if a referenced file changed")
+	@Test
+	public void changedReferencedFile() throws IOException {
+		ConversionCache cache = new ConversionCache(cacheDirectory, Long.MAX_VALUE, "");
+		cache.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+
+		Files.write(jsonFile, "{\"name\":\"mocha\"}".getBytes());
+
+		assertNull(cache.lookup(swaggerFile.toFile()));
+	}
+
+	@DisplayName("Should miss if a remote reference changed")
+	@Test
+	public void changedRemoteReference() throws IOException {
+		Path teaFile = folder.resolve("tea.yml");
+		Files.write(teaFile, "Tea:\n  type: object\n".getBytes());
+		Files.write(swaggerFile, ("swagger: '2.0'\n" + "definitions:\n" + "  Tea:\n"
+				+ "    $ref: './tea.yml#/Tea'\n").getBytes());
+		ConversionCache cache = new ConversionCache(cacheDirectory, Long.MAX_VALUE, "");
+		cache.store(swaggerFile.toFile(), snapshots("1_getTea"),
+				Collections.emptyList());
+		assertNotNull(cache.lookup(swaggerFile.toFile()));
+
+		Files.write(teaFile, "Tea:\n  type: string\n".getBytes());
+
+		assertNull(cache.lookup(swaggerFile.toFile()));
+	}
+
+	@DisplayName("Should miss for another configuration")
+	@Test
+	public void otherConfiguration() {
+		new ConversionCache(cacheDirectory, Long.MAX_VALUE, "a")
+				.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+
+		assertNull(new ConversionCache(cacheDirectory, Long.MAX_VALUE, "b")
+				.lookup(swaggerFile.toFile()));
+	}
+
+	@DisplayName("Should miss for another converter version")
+	@Test
+	public void otherConverterVersion() {
+		new ConversionCache(cacheDirectory, Long.MAX_VALUE, "", "1.0.0")
+				.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+
+		assertNull(new ConversionCache(cacheDirectory, Long.MAX_VALUE, "", "1.0.1")
+				.lookup(swaggerFile.toFile()));
+	}
+
+	@DisplayName("Should read the converter version written by the build")
+	@Test
+	public void converterVersion() {
+		assertNotNull(ConversionCache.readConverterVersion());
+		assertTrue(new ConversionCache(cacheDirectory, Long.MAX_VALUE, "").isEnabled());
+	}
+
+	@DisplayName("Should only know snapshot versions with their build time")
+	@Test
+	public void snapshotConverterVersion() {
+		Properties properties = new Properties();
+		properties.setProperty("version", "1.0.0");
+		properties.setProperty("build", "${converter.build}");
+		assertEquals("1.0.0", ConversionCache.converterVersion(properties));
+
+		properties.setProperty("version", "1.0.1-SNAPSHOT");
+		assertNull(ConversionCache.converterVersion(properties));
+
+		properties.setProperty("build", "20201017120000");
+		assertEquals("1.0.1-SNAPSHOT+20201017120000",
+				ConversionCache.converterVersion(properties));
+	}
+
+	@DisplayName("Should neither store nor restore contracts without converter version")
+	@Test
+	public void unknownConverterVersion() throws IOException {
+		ConversionCache cache = new ConversionCache(cacheDirectory, Long.MAX_VALUE, "",
+				null);
+		cache.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+		cache.storeValidation("Coffee");
+
+		assertFalse(cache.isEnabled());
+		assertFalse(Files.exists(cacheDirectory));
+		assertFalse(cache.contains(swaggerFile.toFile()));
+		assertNull(cache.lookup(swaggerFile.toFile()));
+		assertFalse(cache.isValidated("Coffee"));
+	}
+
+	@DisplayName("Should check for an entry without reading it")
+	@Test
+	public void contains() {
+		ConversionCache cache = new ConversionCache(cacheDirectory, Long.MAX_VALUE, "");
+		assertFalse(cache.contains(swaggerFile.toFile()));
+
+		cache.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+
+		assertTrue(cache.contains(swaggerFile.toFile()));
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+	}
+
+	@DisplayName("Should treat a corrupt entry as miss")
+	@Test
+	public void corruptEntry() throws IOException {
+		ConversionCache cache = new ConversionCache(cacheDirectory, Long.MAX_VALUE, "");
+		cache.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+		for (Path entry : entries()) {
+			Files.write(entry, "corrupt".getBytes());
+		}
+
+		assertNull(cache.lookup(swaggerFile.toFile()));
+		assertEquals(1, cache.getMisses());
+	}
+
+	@DisplayName("Should prune the cache to its maximum size")
+	@Test
+	public void prune() throws IOException {
+		ConversionCache cache = new ConversionCache(cacheDirectory, 0, "");
+		cache.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+
+		assertEquals(0, entries().size());
+	}
+
+	@DisplayName("Should prune once the estimated size exceeds the maximum size")
+	@Test
+	public void pruneEstimatedSize() throws IOException {
+		ConversionCache cache = new ConversionCache(cacheDirectory, 10, "");
+		cache.storeValidation("Espresso");
+		for (Path marker : files(ConversionCache.VALIDATION_SUFFIX)) {
+			Files.setLastModifiedTime(marker, FileTime.fromMillis(0));
+		}
+
+		cache.storeValidation("Cortado!");
+
+		assertFalse(cache.isValidated("Espresso"));
+		assertTrue(cache.isValidated("Cortado!"));
+	}
+
+	@DisplayName("Should remove stale temporary files when pruning")
+	@Test
+	public void pruneStaleTemporaryFiles() throws IOException {
+		Files.createDirectories(cacheDirectory);
+		Path stale = cacheDirectory.resolve("entry1" + ConversionCache.TEMP_SUFFIX);
+		Path live = cacheDirectory.resolve("entry2" + ConversionCache.TEMP_SUFFIX);
+		Files.write(stale, "stale".getBytes());
+		Files.write(live, "live".getBytes());
+		Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis()
+				- 2 * ConversionCache.TEMP_FILE_GRACE_PERIOD));
+
+		new ConversionCache(cacheDirectory, Long.MAX_VALUE, "")
+				.store(swaggerFile.toFile(), snapshots("1_getCoffee"), readFiles());
+
+		assertFalse(Files.exists(stale));
+		assertTrue(Files.exists(live));
+	}
+
+	private List<Path> entries() throws IOException {
+		return files(ConversionCache.ENTRY_SUFFIX);
+	}
+
+	private List<Path> files(String suffix) throws IOException {
+		try (Stream<Path> files = Files.list(cacheDirectory)) {
+			return files.filter(file -> file.toString().endsWith(suffix))
+					.collect(Collectors.toList());
+		}
+	}
+
+	private List<Path> readFiles() {
+		return Collections.singletonList(jsonFile);
+	}
+
+	private List<ContractSnapshot> snapshots(String name) {
+		ContractSnapshot snapshot = new ContractSnapshot();
+		snapshot.setName(name);
+		snapshot.setStatus(200);
+		return Collections.singletonList(snapshot);
+	}
+
+}
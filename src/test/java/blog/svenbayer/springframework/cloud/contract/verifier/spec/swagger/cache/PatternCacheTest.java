@@ -0,0 +1,57 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Sven Bayer
+ */
+public class PatternCacheTest {
+
+	@DisplayName("Compiles a pattern once")
+	@Test
+	public void compileOnce() {
+		PatternCache cache = new PatternCache();
+
+		Pattern pattern = cache.compile("[a-z]+");
+
+		assertSame(pattern, cache.compile("[a-z]+"));
+		assertEquals("[a-z]+", pattern.pattern());
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@DisplayName("Drops the least recently used pattern")
+	@Test
+	public void dropLeastRecentlyUsed() {
+		PatternCache cache = new PatternCache(2);
+		Pattern letters = cache.compile("[a-z]+");
+		Pattern digits = cache.compile("[0-9]+");
+		cache.compile("[a-z]+");
+
+		cache.compile("(true|false)");
+
+		assertEquals(2, cache.size());
+		assertSame(letters, cache.compile("[a-z]+"));
+		assertNotSame(digits, cache.compile("[0-9]+"));
+	}
+
+	@DisplayName("Does not cache invalid patterns")
+	@Test
+	public void invalidPattern() {
+		PatternCache cache = new PatternCache();
+
+		assertThrows(PatternSyntaxException.class, () -> cache.compile("[a-z"));
+		assertEquals(0, cache.size());
+	}
+
+}
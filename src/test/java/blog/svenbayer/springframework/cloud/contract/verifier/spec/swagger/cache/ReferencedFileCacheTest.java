@@ -0,0 +1,122 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Sven Bayer
+ */
+public class ReferencedFileCacheTest {
+
+	private Path folder;
+
+	private Path jsonFile;
+
+	@Before
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("swagger-references");
+		jsonFile = folder.resolve("Coffee.json");
+		Files.write(jsonFile,
+				"{\"name\":\"Caf\u00e9\"}".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(folder)) {
+			files.sorted(Comparator.reverseOrder())
+					.forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@DisplayName("Reads a referenced file once as UTF-8")
+	@Test
+	public void readFileOnce() throws IOException {
+		ReferencedFileCache cache = new ReferencedFileCache();
+
+		String content = cache.read(jsonFile);
+
+		assertEquals("{\"name\":\"Caf\u00e9\"}", content);
+		assertSame(content, cache.read(folder.resolve(".").resolve("Coffee.json")));
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+		assertEquals(content.length(), cache.getTotalSize());
+	}
+
+	@DisplayName("Digests a cached file once")
+	@Test
+	public void digestFileOnce() throws IOException {
+		ReferencedFileCache cache = new ReferencedFileCache();
+
+		ReferencedFileCache.ReferencedFile file = cache.readFile(jsonFile);
+
+		assertSame(file, cache.readFile(jsonFile));
+		assertSame(file.getDigest(), cache.readFile(jsonFile).getDigest());
+		assertEquals(ValidationCache.digest(file.getContent()), file.getDigest());
+	}
+
+	@DisplayName("Reads a changed file again")
+	@Test
+	public void readChangedFile() throws IOException {
+		ReferencedFileCache cache = new ReferencedFileCache();
+		cache.read(jsonFile);
+		Files.write(jsonFile, "{\"name\":\"Mocha\"}".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(jsonFile, FileTime.fromMillis(0));
+
+		assertEquals("{\"name\":\"Mocha\"}", cache.read(jsonFile));
+		assertEquals(2, cache.getMisses());
+	}
+
+	@DisplayName("Returns null for missing files and directories")
+	@Test
+	public void readMissingFile() throws IOException {
+		ReferencedFileCache cache = new ReferencedFileCache();
+
+		assertNull(cache.read(folder.resolve("Missing.json")));
+		assertNull(cache.read(folder));
+	}
+
+	@DisplayName("Evicts the least recently used files")
+	@Test
+	public void evictLeastRecentlyUsedFiles() throws IOException {
+		Path otherFile = folder.resolve("Tea.json");
+		Files.write(otherFile, "{\"name\":\"Earl\"}".getBytes(StandardCharsets.UTF_8));
+		ReferencedFileCache cache = new ReferencedFileCache(Files.size(jsonFile) + 1);
+
+		cache.read(jsonFile);
+		cache.read(otherFile);
+
+		assertEquals(1, cache.size());
+		assertEquals("{\"name\":\"Earl\"}".length(), cache.getTotalSize());
+		cache.read(jsonFile);
+		assertEquals(3, cache.getMisses());
+	}
+
+	@DisplayName("Decodes large files while reading them")
+	@Test
+	public void readLargeFile() throws IOException {
+		StringBuilder json = new StringBuilder("[");
+		while (json.length() < 3 * ReferencedFileCache.READ_BUFFER_SIZE) {
+			json.append("\"Caf\u00e9\",");
+		}
+		json.append("\"Caf\u00e9\"]");
+		Path largeFile = folder.resolve("Large.json");
+		Files.write(largeFile, json.toString().getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(json.toString(), new ReferencedFileCache().read(largeFile));
+	}
+
+}
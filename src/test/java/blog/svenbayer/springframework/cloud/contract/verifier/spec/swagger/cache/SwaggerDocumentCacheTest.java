@@ -0,0 +1,119 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestFileResourceLoader;
+import io.swagger.models.Swagger;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Sven Bayer
+ */
+public class SwaggerDocumentCacheTest {
+
+	private final AtomicInteger parseCount = new AtomicInteger();
+
+	private final Function<String, Swagger> loader = location -> {
+		parseCount.incrementAndGet();
+		return new Swagger();
+	};
+
+	@DisplayName("Should parse a file only once")
+	@Test
+	public void parseOnce() {
+		SwaggerDocumentCache cache = new SwaggerDocumentCache();
+		File file = TestFileResourceLoader
+				.getResourceAsFile("swagger/single_swagger.yml");
+
+		Swagger first = cache.getOrLoad(file, loader);
+		Swagger second = cache.getOrLoad(file, loader);
+
+		assertSame(first, second);
+		assertEquals(1, parseCount.get());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@DisplayName("Should parse a file again after eviction")
+	@Test
+	public void evict() {
+		SwaggerDocumentCache cache = new SwaggerDocumentCache();
+		File file = TestFileResourceLoader
+				.getResourceAsFile("swagger/single_swagger.yml");
+
+		cache.getOrLoad(file, loader);
+		cache.evict(file);
+		cache.getOrLoad(file, loader);
+
+		assertEquals(0, cache.getHits());
+		assertEquals(2, parseCount.get());
+	}
+
+	@DisplayName("Should parse a modified file again")
+	@Test
+	public void modifiedFile() throws IOException {
+		SwaggerDocumentCache cache = new SwaggerDocumentCache();
+		Path file = Files.createTempFile("swagger", ".yml");
+		try {
+			Files.write(file, "swagger: '2.0'".getBytes());
+			Swagger first = cache.getOrLoad(file.toFile(), loader);
+			Files.write(file, "swagger: \"2.0\"".getBytes());
+			Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+			Swagger second = cache.getOrLoad(file.toFile(), loader);
+
+			assertNotSame(first, second);
+			assertEquals(2, cache.getMisses());
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@DisplayName("Should drop the least recently used document")
+	@Test
+	public void bounded() {
+		SwaggerDocumentCache cache = new SwaggerDocumentCache(1);
+		File first = TestFileResourceLoader
+				.getResourceAsFile("swagger/single_swagger.yml");
+		File second = TestFileResourceLoader
+				.getResourceAsFile("swagger/multiple/multiple_swagger.yml");
+
+		cache.getOrLoad(first, loader);
+		cache.getOrLoad(second, loader);
+		cache.getOrLoad(first, loader);
+
+		assertEquals(1, cache.size());
+		assertEquals(3, parseCount.get());
+	}
+
+	@DisplayName("Should not cache documents that could not be parsed")
+	@Test
+	public void notParsable() {
+		SwaggerDocumentCache cache = new SwaggerDocumentCache();
+		File file = TestFileResourceLoader
+				.getResourceAsFile("swagger/invalid_swagger.yml");
+
+		assertNull(cache.getOrLoad(file, location -> null));
+		assertEquals(0, cache.size());
+	}
+
+	@DisplayName("Should not accept a non positive maximum")
+	@Test
+	public void invalidMaximum() {
+		assertThrows(IllegalArgumentException.class, () -> new SwaggerDocumentCache(0));
+	}
+
+}
@@ -0,0 +1,87 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.cache.ValidationCache.digest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sven Bayer
+ */
+public class ValidationCacheTest {
+
+	private Path cacheDirectory;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDirectory = Files.createTempDirectory("validations");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(cacheDirectory)) {
+			for (Path file : files.sorted((a, b) -> b.compareTo(a))
+					.collect(Collectors.toList())) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	@DisplayName("Should remember successful validations")
+	@Test
+	public void rememberValidation() {
+		ValidationCache cache = new ValidationCache();
+		String validation = ValidationCache.key("Coffee", digest("{\"name\":\"name\"}"),
+				digest("{\"name\":\"latte\"}"));
+
+		assertFalse(cache.isValidated(validation));
+		cache.validated(validation);
+
+		assertTrue(cache.isValidated(validation));
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@DisplayName("Should create different keys for changed definitions and files")
+	@Test
+	public void differentKeys() {
+		String validation = ValidationCache.key("Coffee", digest("{\"name\":\"name\"}"),
+				digest("{\"name\":\"latte\"}"));
+
+		assertNotEquals(validation, ValidationCache.key("Tea",
+				digest("{\"name\":\"name\"}"), digest("{\"name\":\"latte\"}")));
+		assertNotEquals(validation, ValidationCache.key("Coffee", digest("{\"size\":1}"),
+				digest("{\"name\":\"latte\"}")));
+		assertNotEquals(validation, ValidationCache.key("Coffee",
+				digest("{\"name\":\"name\"}"), digest("{\"name\":\"mocha\"}")));
+	}
+
+	@DisplayName("Should remember validations between builds with a conversion cache")
+	@Test
+	public void persistentValidation() {
+		String validation = ValidationCache.key("Coffee", digest("{\"name\":\"name\"}"),
+				digest("{\"name\":\"latte\"}"));
+		new ValidationCache(new ConversionCache(cacheDirectory, Long.MAX_VALUE, ""))
+				.validated(validation);
+
+		ValidationCache nextBuild = new ValidationCache(
+				new ConversionCache(cacheDirectory, Long.MAX_VALUE, ""));
+
+		assertTrue(nextBuild.isValidated(validation));
+		assertFalse(new ValidationCache().isValidated(validation));
+	}
+
+}
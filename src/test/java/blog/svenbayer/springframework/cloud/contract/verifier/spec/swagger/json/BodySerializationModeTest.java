@@ -0,0 +1,62 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
+
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * @author Sven Bayer
+ */
+public class BodySerializationModeTest {
+
+	private final ObjectNode body = createBody();
+
+	@DisplayName("Writes a compact body")
+	@Test
+	public void writeCompact() {
+		Assertions.assertEquals(
+				"{\"rocket\":\"Apollo\",\"crew\":[{\"name\":\"Bean\",\"age\":30}]}",
+				BodySerializationMode.COMPACT.write(this.body));
+	}
+
+	@DisplayName("Writes a pretty body")
+	@Test
+	public void writePretty() {
+		Assertions.assertEquals(
+				"{\n  \"rocket\" : \"Apollo\",\n  \"crew\" : [ {\n    \"name\" : \"Bean\",\n"
+						+ "    \"age\" : 30\n  } ]\n}",
+				BodySerializationMode.PRETTY.write(this.body)
+						.replace(System.lineSeparator(), "\n"));
+	}
+
+	@DisplayName("Writes a canonical body with sorted fields")
+	@Test
+	public void writeCanonical() {
+		Assertions.assertEquals(
+				"{\"crew\":[{\"age\":30,\"name\":\"Bean\"}],\"rocket\":\"Apollo\"}",
+				BodySerializationMode.CANONICAL.write(this.body));
+	}
+
+	@DisplayName("Finds a mode by its name")
+	@Test
+	public void findModeByName() {
+		Assertions.assertEquals(BodySerializationMode.CANONICAL,
+				BodySerializationMode.of(" Canonical "));
+		SwaggerContractConverterException exception = Assertions.assertThrows(
+				SwaggerContractConverterException.class,
+				() -> BodySerializationMode.of("tiny"));
+		Assertions.assertEquals(
+				"Unknown body serialization mode 'tiny', expected one of compact, pretty or canonical",
+				exception.getMessage());
+	}
+
+	private static ObjectNode createBody() {
+		ObjectNode body = JsonNodeFactory.instance.objectNode().put("rocket", "Apollo");
+		body.putArray("crew").addObject().put("name", "Bean").put("age", 30);
+		return body;
+	}
+
+}
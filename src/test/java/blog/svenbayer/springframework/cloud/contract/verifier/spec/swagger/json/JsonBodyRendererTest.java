@@ -0,0 +1,47 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Arrays;
+
+/**
+ * @author Sven Bayer
+ */
+public class JsonBodyRendererTest {
+
+	@DisplayName("Builds a Json tree of nested values")
+	@Test
+	public void buildTreeOfNestedValues() {
+		ObjectNode nested = JsonNodeFactory.instance.objectNode().put("name", "Moon");
+
+		JsonNode node = JsonBodyRenderer.toNode(Arrays.asList(nested, 1.1f, true, null));
+
+		Assertions.assertSame(nested, node.get(0));
+		Assertions.assertEquals("[{\"name\":\"Moon\"},1.1,true,null]", node.toString());
+	}
+
+	@DisplayName("Embeds Strings that contain a Json object")
+	@Test
+	public void embedJsonObjectStrings() {
+		Assertions.assertTrue(JsonBodyRenderer.toNode("{\"name\":\"Moon\"}").isObject());
+		Assertions.assertTrue(JsonBodyRenderer.toNode("{Moon}").isTextual());
+		Assertions.assertTrue(JsonBodyRenderer.toNode("[\"Moon\"]").isTextual());
+	}
+
+	@DisplayName("Renders a pretty printed body and plain text")
+	@Test
+	public void renderBody() {
+		ObjectNode body = JsonNodeFactory.instance.objectNode().put("name", "Moon");
+
+		Assertions.assertEquals("{\n  \"name\" : \"Moon\"\n}",
+				JsonBodyRenderer.render(body).replace(System.lineSeparator(), "\n"));
+		Assertions.assertEquals("BEAN",
+				JsonBodyRenderer.render(JsonNodeFactory.instance.textNode("BEAN")));
+	}
+
+}
@@ -19,8 +19,11 @@ package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Map;
 
+import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.SwaggerConversionContext;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.TestFileResourceLoader;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.builder.reference.SwaggerDefinitionsRefResolverSwagger;
 import blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.exception.SwaggerContractConverterException;
@@ -96,8 +99,8 @@ public class JsonSchemaComparingTest {
 		Map<String, Model> definitions = swagger.getDefinitions();
 		SwaggerDefinitionsRefResolverSwagger swaggerDefinitionsRefResolverSwagger = new SwaggerDefinitionsRefResolverSwagger(
 				"#/definitions/CoffeeRocket");
-		String expectedJson = swaggerDefinitionsRefResolverSwagger
-				.resolveReference(definitions);
+		String expectedJson = swaggerDefinitionsRefResolverSwagger.resolveReference(
+				SwaggerConversionContext.of(Paths.get(""), definitions));
 
 		File jsonFile = TestFileResourceLoader.getResourceAsFile(
 				"swagger/jsonFileResolver/withEqualFields/CoffeeRocket.json");
@@ -116,8 +119,8 @@ public class JsonSchemaComparingTest {
 		Map<String, Model> definitions = swagger.getDefinitions();
 		SwaggerDefinitionsRefResolverSwagger swaggerDefinitionsRefResolverSwagger = new SwaggerDefinitionsRefResolverSwagger(
 				"#/definitions/CoffeeRocket");
-		String expectedJson = swaggerDefinitionsRefResolverSwagger
-				.resolveReference(definitions);
+		String expectedJson = swaggerDefinitionsRefResolverSwagger.resolveReference(
+				SwaggerConversionContext.of(Paths.get(""), definitions));
 
 		File jsonFile = TestFileResourceLoader.getResourceAsFile(
 				"swagger/jsonFileResolver/withJsonMoreFields/CoffeeRocket.json");
@@ -137,8 +140,8 @@ public class JsonSchemaComparingTest {
 		Map<String, Model> definitions = swagger.getDefinitions();
 		SwaggerDefinitionsRefResolverSwagger swaggerDefinitionsRefResolverSwagger = new SwaggerDefinitionsRefResolverSwagger(
 				"#/definitions/CoffeeRocket");
-		String expectedJson = swaggerDefinitionsRefResolverSwagger
-				.resolveReference(definitions);
+		String expectedJson = swaggerDefinitionsRefResolverSwagger.resolveReference(
+				SwaggerConversionContext.of(Paths.get(""), definitions));
 
 		File jsonFile = TestFileResourceLoader.getResourceAsFile(
 				"swagger/jsonFileResolver/withSwaggerMoreFields/CoffeeRocket.json");
@@ -199,4 +202,65 @@ public class JsonSchemaComparingTest {
 		Assertions.assertEquals("Could not parse JSON of file!", exception.getMessage());
 	}
 
+	@DisplayName("Should list the pointers of missing and extra fields")
+	@Test
+	public void compareDifferences() {
+		SchemaComparison comparison = this.jsonSchemaComparing.compare(
+				"{\"name\":\"a\",\"crew\":[{\"age\":1},{\"age\":2,\"role\":\"pilot\"}]}",
+				"{\"crew\":[{\"age\":1,\"size\":2}],\"fuel\":1.1}");
+
+		Assertions.assertFalse(comparison.isEqual());
+		Assertions.assertEquals(Arrays.asList("/name", "/crew/1/role"),
+				comparison.getMissing());
+		Assertions.assertEquals(Arrays.asList("/crew/0/size", "/fuel"),
+				comparison.getExtra());
+		Assertions.assertEquals("/crew/0", comparison.getMismatch());
+		Assertions.assertEquals(
+				"Missing in Json file:\n  /name\n  /crew/1/role\n"
+						+ "Not in Swagger definitions:\n  /crew/0/size\n  /fuel",
+				comparison.toString());
+	}
+
+	@DisplayName("Should cap the listed differences")
+	@Test
+	public void compareMaxDifferences() {
+		SchemaComparison comparison = this.jsonSchemaComparing
+				.compare("{\"a\":1,\"b\":1}", "{\"c/d\":1,\"e~f\":1}", 3);
+
+		Assertions.assertEquals(Arrays.asList("/a", "/b"), comparison.getMissing());
+		Assertions.assertEquals(Arrays.asList("/c~1d"), comparison.getExtra());
+		Assertions.assertEquals(1, comparison.getOmitted());
+	}
+
+	@DisplayName("Should compare like isEquals")
+	@Test
+	public void compareEqual() {
+		Assertions.assertTrue(this.jsonSchemaComparing
+				.compare("{\"a\":{\"b\":1}}", "{\"a\":{\"b\":2}}").isEqual());
+		SchemaComparison comparison = this.jsonSchemaComparing
+				.compare("{\"a\":[{\"b\":1},{\"c\":1}]}", "{\"a\":[{\"b\":1,\"c\":1}]}");
+		Assertions.assertFalse(comparison.isEqual());
+		Assertions.assertTrue(comparison.getMissing().isEmpty());
+		Assertions.assertTrue(comparison.getExtra().isEmpty());
+		Assertions.assertEquals("/a/0", comparison.getMismatch());
+		Assertions.assertEquals("Different structure in Json file:\n  /a/0",
+				comparison.toString());
+	}
+
+	@DisplayName("Should stop reading once the maximum number of extra fields is known")
+	@Test
+	public void compareStopsAtMaxDifferences() {
+		SchemaComparison comparison = this.jsonSchemaComparing
+				.compare("{\"a\":1}", "{\"b\":1,\"c\":1,\"a\":1,\"d\":[}", 2);
+
+		Assertions.assertFalse(comparison.isEqual());
+		Assertions.assertFalse(comparison.isComplete());
+		Assertions.assertTrue(comparison.getMissing().isEmpty());
+		Assertions.assertEquals(Arrays.asList("/b", "/c"), comparison.getExtra());
+		Assertions.assertEquals(
+				"Not in Swagger definitions:\n  /b\n  /c\n"
+						+ "... and possibly more differences",
+				comparison.toString());
+	}
+
 }
@@ -0,0 +1,134 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.json;
+
+import java.io.IOException;
+import java.util.Random;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Test for {@link SchemaFingerprints}.
+ *
+ * @author Sven Bayer
+ */
+public class SchemaFingerprintsTest {
+
+	private static final String[] KEYS = { "a", "b", "c" };
+
+	@DisplayName("Should ignore values, field order and duplicate array elements")
+	@Test
+	public void ignoreValuesAndOrder() {
+		SchemaFingerprints fingerprints = new SchemaFingerprints();
+
+		assertEquals(
+				fingerprints.of("root",
+						JsonBodyRenderer.parse("{\"a\":1,\"b\":{\"c\":true}}")),
+				fingerprints.of("root",
+						JsonBodyRenderer.parse("{\"b\":{\"c\":\"x\"},\"a\":null}")));
+		assertEquals(
+				fingerprints.of("root",
+						JsonBodyRenderer.parse("{\"a\":[{\"b\":1},{\"b\":2}]}")),
+				fingerprints.of("root", JsonBodyRenderer.parse("{\"a\":[{\"b\":3}]}")));
+		assertNotEquals(fingerprints.of("root", JsonBodyRenderer.parse("{\"a\":1}")),
+				fingerprints.of("root", JsonBodyRenderer.parse("{\"b\":1}")));
+		assertNotEquals(fingerprints.of("root", JsonBodyRenderer.parse("{\"a\":1}")),
+				fingerprints.of("root", JsonBodyRenderer.parse("{\"a\":{\"a\":1}}")));
+	}
+
+	@DisplayName("Should describe the key structure of objects and arrays")
+	@Test
+	public void keyStructures() {
+		String[][] comparisons = { { "{\"a\":{}}", "{\"a\":[]}", "true" },
+				{ "{\"a\":[1,2]}", "{\"a\":[]}", "true" },
+				{ "{\"a\":[{\"b\":1}]}", "{\"a\":[{\"b\":1},2]}", "true" },
+				{ "[{\"a\":1}]", "[{\"a\":2},{\"a\":3}]", "true" },
+				{ "{\"a\":1}", "{\"a\":{}}", "false" },
+				{ "{\"a\":{\"b\":1}}", "{\"a\":[{\"b\":1}]}", "false" },
+				{ "{\"a\":{\"b\":1}}", "{\"c\":{\"b\":1}}", "false" },
+				{ "{\"a\":[{\"b\":1},{\"c\":1}]}", "{\"a\":[{\"b\":1,\"c\":1}]}",
+						"false" },
+				{ "{\"a\":[{\"b\":1}]}", "{\"a\":[{\"b\":1},{}]}", "false" } };
+		for (String[] comparison : comparisons) {
+			SchemaFingerprints fingerprints = new SchemaFingerprints();
+
+			boolean fingerprintEquals = fingerprints.of("root",
+					JsonBodyRenderer.parse(comparison[0])) == fingerprints.of("root",
+							JsonBodyRenderer.parse(comparison[1]));
+
+			assertEquals(Boolean.parseBoolean(comparison[2]), fingerprintEquals,
+					() -> comparison[0] + " and " + comparison[1]);
+		}
+	}
+
+	@DisplayName("Should fingerprint parsed tokens like Json trees")
+	@Test
+	public void streamingSameAsTree() throws IOException {
+		Random random = new Random(7);
+		for (int i = 0; i < 2000; i++) {
+			JsonNode expected = randomNode(random, 3);
+			JsonNode actual = random.nextInt(4) == 0 ? expected.deepCopy()
+					: randomNode(random, 3);
+			SchemaFingerprints trees = new SchemaFingerprints();
+			SchemaFingerprints tokens = new SchemaFingerprints();
+
+			boolean treeEquals = trees.of("root", expected) == trees.of("root", actual);
+			int expectedFingerprint = streamed(tokens, expected.toString());
+			tokens.seal();
+			boolean streamedEquals = streamed(tokens,
+					actual.toString()) == expectedFingerprint;
+
+			assertEquals(treeEquals, streamedEquals, () -> expected + " and " + actual);
+		}
+	}
+
+	@DisplayName("Should stop at unknown structures once sealed")
+	@Test
+	public void unknownStructure() throws IOException {
+		SchemaFingerprints fingerprints = new SchemaFingerprints();
+		int expected = streamed(fingerprints, "{\"a\":{\"b\":1}}");
+		fingerprints.seal();
+
+		assertEquals(expected, streamed(fingerprints, "{\"a\":{\"b\":2}}"));
+		assertEquals(SchemaFingerprints.UNKNOWN,
+				streamed(fingerprints, "{\"a\":{\"c\":1},\"b\":[1,2,3]}"));
+		assertEquals(fingerprints.of("root", JsonBodyRenderer.parse("{}")),
+				streamed(fingerprints, ""));
+	}
+
+	private int streamed(SchemaFingerprints fingerprints, String json)
+			throws IOException {
+		try (JsonParser parser = new JsonFactory().createParser(json)) {
+			return fingerprints.of("root", parser);
+		}
+	}
+
+	private JsonNode randomNode(Random random, int depth) {
+		JsonNodeFactory factory = JsonNodeFactory.instance;
+		int kind = depth == 0 ? 0 : random.nextInt(3);
+		if (kind == 0) {
+			return factory.numberNode(random.nextInt(3));
+		}
+		if (kind == 1) {
+			ArrayNode array = factory.arrayNode();
+			for (int i = random.nextInt(3); i > 0; i--) {
+				array.add(randomNode(random, depth - 1));
+			}
+			return array;
+		}
+		ObjectNode object = factory.objectNode();
+		for (int i = random.nextInt(3); i > 0; i--) {
+			object.set(KEYS[random.nextInt(KEYS.length)], randomNode(random, depth - 1));
+		}
+		return object;
+	}
+
+}
@@ -0,0 +1,99 @@
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Sven Bayer
+ */
+public class ContractSnapshotCodecTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final ContractSnapshotCodec codec = new ContractSnapshotCodec();
+
+	@DisplayName("Should restore a snapshot to an equal contract")
+	@Test
+	public void roundTrip() throws IOException {
+		ContractSnapshot snapshot = new ContractSnapshot();
+		snapshot.setName("1_getCoffee");
+		snapshot.setDescription("Gets a coffee");
+		snapshot.setLabel("coffee");
+		snapshot.setPriority(1);
+		snapshot.setMethod("GET");
+		snapshot.setUrlPath("/coffee");
+		snapshot.setQueryParameters(
+				Arrays.asList(new ParameterSnapshot("size", Pattern.compile("[0-9]+"), 3),
+						new ParameterSnapshot("price", Pattern.compile(".+"),
+								new BigDecimal("1.50"))));
+		snapshot.getRequestHeaders().add(
+				new ParameterSnapshot("x-flag", Pattern.compile("(true|false)"), true));
+		snapshot.getRequestContentTypes().add("application/json");
+		snapshot.setStatus(200);
+		Map<String, Object> headerValue = new LinkedHashMap<>();
+		headerValue.put("sugar", Arrays.asList(1L, 2.5d));
+		snapshot.getResponseHeaders()
+				.add(new ParameterSnapshot("x-map", null, headerValue));
+		snapshot.getResponseContentTypes().add("application/json");
+		snapshot.setResponseBody("{\"name\":\"latte\"}");
+
+		List<ContractSnapshot> restored = roundTrip(Collections.singletonList(snapshot));
+
+		assertEquals(snapshot.toContract(), restored.get(0).toContract());
+		assertEquals(BigDecimal.class,
+				restored.get(0).getQueryParameters().get(1).getValue().getClass());
+		assertEquals(headerValue, restored.get(0).getResponseHeaders().get(0).getValue());
+	}
+
+	@DisplayName("Should keep unset query parameters and bodies unset")
+	@Test
+	public void unsetFields() throws IOException {
+		ContractSnapshot snapshot = new ContractSnapshot();
+		snapshot.setName("1_ping");
+		snapshot.setStatus(204);
+
+		ContractSnapshot restored = roundTrip(Collections.singletonList(snapshot)).get(0);
+
+		assertNull(restored.getQueryParameters());
+		assertNull(restored.getRequestBody());
+		assertNull(restored.getResponseBody());
+		assertEquals(snapshot.toContract(), restored.toContract());
+	}
+
+	@DisplayName("Should reject values of unsupported types")
+	@Test
+	public void unsupportedValue() {
+		ContractSnapshot snapshot = new ContractSnapshot();
+		snapshot.getRequestHeaders()
+				.add(new ParameterSnapshot("x-date", null, new Object()));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> roundTrip(Collections.singletonList(snapshot)));
+	}
+
+	private List<ContractSnapshot> roundTrip(List<ContractSnapshot> snapshots)
+			throws IOException {
+		StringWriter json = new StringWriter();
+		try (JsonGenerator generator = mapper.getFactory().createGenerator(json)) {
+			codec.write(snapshots, generator);
+		}
+		return codec.read(mapper.readTree(json.toString()));
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package blog.svenbayer.springframework.cloud.contract.verifier.spec.swagger.valuefields;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+
+public class TypeFormatTableTest {
+
+	private static final List<String> TYPES = Arrays.asList("string", "number", "integer",
+			"boolean", "array", "object", "", "Number", null);
+
+	private static final List<String> FORMATS = Arrays.asList("double", "float", "int32",
+			"int64", "byte", "binary", "date", "date-time", "password", "uuid", "",
+			"Double", null);
+
+	private static final List<BigDecimal> BOUNDS = Arrays.asList(null,
+			new BigDecimal("3.7"), new BigDecimal("-12"));
+
+	@DisplayName("Default values of the table equal the ones of the type and format checks")
+	@Test
+	public void defaultValues() {
+		for (String type : TYPES) {
+			for (String format : FORMATS) {
+				for (String name : Arrays.asList("id", "", null)) {
+					for (BigDecimal min : BOUNDS) {
+						for (BigDecimal max : BOUNDS) {
+							Object expected = checkedValue(type, format, name, min, max);
+							Object actual = TypeFormatTable.valueStrategy(type, format)
+									.createValue(name, min, max);
+							Assertions.assertEquals(expected, actual, type + "/" + format
+									+ "/" + name + "/" + min + "/" + max);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@DisplayName("Patterns of the table equal the ones of the type and format checks")
+	@Test
+	public void patterns() {
+		for (String type : TYPES) {
+			for (String format : FORMATS) {
+				Assertions.assertEquals(checkedPattern(type, format),
+						TypeFormatTable.pattern(type, format).pattern(),
+						type + "/" + format);
+			}
+		}
+	}
+
+	@DisplayName("Strategies and patterns are created once per type and format")
+	@Test
+	public void sharedEntries() {
+		Assertions.assertSame(TypeFormatTable.valueStrategy("integer", "int64"),
+				TypeFormatTable.valueStrategy("integer", "int64"));
+		Assertions.assertSame(TypeFormatTable.pattern("number", "float"),
+				TypeFormatTable.pattern("number", "double"));
+		Assertions.assertSame(TypeFormatTable.valueStrategy("array", "uuid"),
+				TypeFormatTable.valueStrategy("object", "uuid"));
+	}
+
+	private static Object checkedValue(String type, String format, String name,
+			BigDecimal min, BigDecimal max) {
+		if ("string".equals(type)) {
+			return name != null && !name.isEmpty() ? name : "string";
+		}
+		BigDecimal bound = min != null ? min : max;
+		if ("number".equals(type) && ("double".equals(format) || format == null)) {
+			return bound != null ? (Object) bound.doubleValue()
+					: DefaultValues.DEFAULT_DOUBLE;
+		}
+		if ("number".equals(type) && "float".equals(format)) {
+			return bound != null ? (Object) bound.floatValue()
+					: DefaultValues.DEFAULT_DOUBLE;
+		}
+		if ("integer".equals(type) && "int64".equals(format)) {
+			return bound != null ? (Object) bound.longValue()
+					: DefaultValues.DEFAULT_LONG;
+		}
+		if ("integer".equals(type) && ("int32".equals(format) || format == null)) {
+			return bound != null ? (Object) bound.intValue() : DefaultValues.DEFAULT_INT;
+		}
+		if ("boolean".equals(type)) {
+			return DefaultValues.DEFAULT_BOOLEAN;
+		}
+		return DefaultValues.DEFAULT_INT;
+	}
+
+	private static String checkedPattern(String type, String format) {
+		if (Objects.equals("string", type)) {
+			return ".+";
+		}
+		if ("number".equals(type)
+				&& ("double".equals(format) || "float".equals(format))) {
+			return "[0-9]+\\.[0-9]+";
+		}
+		if ("integer".equals(type)) {
+			return "[0-9]+";
+		}
+		if ("boolean".equals(type)) {
+			return "(true|false)";
+		}
+		return ".+";
+	}
+
+}